@@ -0,0 +1,137 @@
+package io.catalyte.demo;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.catalyte.demo.customer.Customer;
+import io.catalyte.demo.ingredient.Ingredient;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import io.catalyte.demo.products.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of writing and reading the list endpoints' bodies, with the ObjectMapper the web layer builds,
+ * with and without json.blackbird-enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"reflection", "blackbird"})
+    public String accessors;
+
+    @Param({"100", "5000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Movies> movies;
+    private List<Product> products;
+    private List<Customer> customers;
+    private List<Ingredient> ingredients;
+    private byte[] moviesJson;
+    private byte[] productsJson;
+    private byte[] customersJson;
+    private byte[] ingredientsJson;
+    private JavaType moviesType;
+    private JavaType productsType;
+    private JavaType customersType;
+    private JavaType ingredientsType;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (accessors.equals("blackbird")) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        movies = new ArrayList<>(size);
+        products = new ArrayList<>(size);
+        customers = new ArrayList<>(size);
+        ingredients = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Movies movie = new Movies("The Grand Budapest Hotel " + i, "Comedy", "Wes Anderson",
+                    new BigDecimal("3.99"));
+            movie.setId(i);
+            movie.setVersion(0);
+            movies.add(movie);
+            products.add(new Product(i, true, "Flaky butter croissant, baked every morning", "Croissant " + i, "12",
+                    List.of("Flour", "Butter", "Yeast", "Salt"), "Baked Good", "n/a", "1.05",
+                    List.of("Dairy", "Gluten"), "50", "1.58"));
+            Customer customer = new Customer(i, true, "Ada Lovelace " + i, "ada" + i + "@example.com", 125.5);
+            customer.setCustomerSince("10-2026");
+            customers.add(customer);
+            ingredients.add(new Ingredient(i, true, "Whole Milk " + i, new BigDecimal("3.49"),
+                    new BigDecimal("64.00"), "OZ", List.of("Dairy")));
+        }
+        moviesJson = objectMapper.writeValueAsBytes(movies);
+        productsJson = objectMapper.writeValueAsBytes(products);
+        customersJson = objectMapper.writeValueAsBytes(customers);
+        ingredientsJson = objectMapper.writeValueAsBytes(ingredients);
+        moviesType = objectMapper.getTypeFactory().constructCollectionType(List.class, Movies.class);
+        productsType = objectMapper.getTypeFactory().constructCollectionType(List.class, Product.class);
+        customersType = objectMapper.getTypeFactory().constructCollectionType(List.class, Customer.class);
+        ingredientsType = objectMapper.getTypeFactory().constructCollectionType(List.class, Ingredient.class);
+    }
+
+    @Benchmark
+    public byte[] writeMovies() throws IOException {
+        return objectMapper.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public byte[] writeProducts() throws IOException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] writeCustomers() throws IOException {
+        return objectMapper.writeValueAsBytes(customers);
+    }
+
+    @Benchmark
+    public byte[] writeIngredients() throws IOException {
+        return objectMapper.writeValueAsBytes(ingredients);
+    }
+
+    @Benchmark
+    public List<Movies> readMovies() throws IOException {
+        return objectMapper.readValue(moviesJson, moviesType);
+    }
+
+    @Benchmark
+    public List<Product> readProducts() throws IOException {
+        return objectMapper.readValue(productsJson, productsType);
+    }
+
+    @Benchmark
+    public List<Customer> readCustomers() throws IOException {
+        return objectMapper.readValue(customersJson, customersType);
+    }
+
+    @Benchmark
+    public List<Ingredient> readIngredients() throws IOException {
+        return objectMapper.readValue(ingredientsJson, ingredientsType);
+    }
+}
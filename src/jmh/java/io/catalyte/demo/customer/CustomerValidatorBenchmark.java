@@ -0,0 +1,40 @@
+package io.catalyte.demo.customer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of validating a customer, as on POST and PUT /customers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerValidatorBenchmark {
+
+    private final Customer validCustomer = new Customer(1, true, "Ada Lovelace", "ada.lovelace@example.com", 125.5);
+    private final Customer invalidCustomer = new Customer(2, null, "", "ada.lovelace@example", -1.0);
+    private final CustomerValidator validValidator = new CustomerValidator(validCustomer);
+    private final CustomerValidator invalidValidator = new CustomerValidator(invalidCustomer);
+
+    @Benchmark
+    public String validCustomer() {
+        return validValidator.validateCustomer(validCustomer);
+    }
+
+    @Benchmark
+    public String invalidCustomer() {
+        return invalidValidator.validateCustomer(invalidCustomer);
+    }
+}
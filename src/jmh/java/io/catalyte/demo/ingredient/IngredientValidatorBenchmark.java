@@ -0,0 +1,43 @@
+package io.catalyte.demo.ingredient;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of validating an ingredient, as on POST /ingredients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngredientValidatorBenchmark {
+
+    private final IngredientValidator ingredientValidator = new IngredientValidator();
+    private final Ingredient validIngredient = new Ingredient(1, true, "Whole Milk", new BigDecimal("3.49"),
+            new BigDecimal("64.00"), "OZ", List.of("Dairy"));
+    private final Ingredient invalidIngredient = new Ingredient(2, null, " ", BigDecimal.ZERO,
+            new BigDecimal("-1"), "GALLON", List.of("Milk"));
+
+    @Benchmark
+    public String[] validIngredient() {
+        return ingredientValidator.validateIngredient(validIngredient);
+    }
+
+    @Benchmark
+    public String[] invalidIngredient() {
+        return ingredientValidator.validateIngredient(invalidIngredient);
+    }
+}
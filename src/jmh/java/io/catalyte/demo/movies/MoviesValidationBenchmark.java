@@ -0,0 +1,42 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of validating a whole movie, as on POST and PUT /movies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoviesValidationBenchmark {
+
+    private final MoviesValidation moviesValidation = new MoviesValidation();
+    private final Movies validMovie = new Movies("The Grand Budapest Hotel", "Comedy", "Wes Anderson",
+            new BigDecimal("3.99"));
+    private final Movies invalidMovie = new Movies("", "Sci-Fi 2", "Wes Anderson", new BigDecimal("24.999"));
+
+    @Benchmark
+    public String[] validMovie() {
+        return moviesValidation.validateMovie(validMovie);
+    }
+
+    @Benchmark
+    public String[] invalidMovie() {
+        return moviesValidation.validateMovie(invalidMovie);
+    }
+}
@@ -0,0 +1,34 @@
+package io.catalyte.demo.movies.moviesEntity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of formatting a phone number that is already formatted, is ten bare digits, or is not a phone number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhoneNumberFormatterBenchmark {
+
+    @Param({"555-123-4567", "5551234567", "call me maybe"})
+    public String phoneNumber;
+
+    @Benchmark
+    public String formatPhoneNumber() {
+        return PhoneNumberFormatter.formatPhoneNumber(phoneNumber);
+    }
+}
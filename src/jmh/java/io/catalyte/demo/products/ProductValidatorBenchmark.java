@@ -0,0 +1,68 @@
+package io.catalyte.demo.products;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of validating, formatting and pricing a product, as on POST and PUT /products.
+ * Formatting changes the product, so each thread formats its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductValidatorBenchmark {
+
+    private final ProductValidator productValidator = new ProductValidator();
+    private final Product bakedGood = new Product(1, true, "Flaky butter croissant", "Croissant", "12",
+            List.of("Flour", "Butter", "Yeast"), "Baked Good", null, "1.05", List.of("Dairy", "Gluten"), "50", null);
+    private final Product drink = new Product(2, true, "Medium roast drip coffee", "House Coffee", null,
+            List.of("Coffee", "Water"), "Drink", "Coffee", "2.50", List.of(), null, null);
+    private final Product invalidProduct = new Product(3, true, "", "", null,
+            List.of(), "Baked Good", null, "1.0x", List.of("Peanuts"), "fifty", null);
+    // Valid but for text in the price fields, so the number checks dominate
+    private final Product nonNumericPrices = new Product(4, true, "Flaky butter croissant", "Croissant", "12",
+            List.of("Flour", "Butter", "Yeast"), "Baked Good", null, "one dollar", List.of("Dairy"), "fifty", null);
+
+    @Benchmark
+    public String validBakedGood() {
+        return productValidator.validateProduct(bakedGood);
+    }
+
+    @Benchmark
+    public String validDrink() {
+        return productValidator.validateProduct(drink);
+    }
+
+    @Benchmark
+    public String invalidProduct() {
+        return productValidator.validateProduct(invalidProduct);
+    }
+
+    @Benchmark
+    public String nonNumericPrices() {
+        return productValidator.validateProduct(nonNumericPrices);
+    }
+
+    @Benchmark
+    public Product formatBakedGood() {
+        return productValidator.formatProduct(bakedGood);
+    }
+
+    @Benchmark
+    public String calculateSalesPrice() {
+        return productValidator.calculateSalesPrice(bakedGood);
+    }
+}
@@ -12,9 +12,15 @@ public class FrontEndConfig {
         return new WebMvcConfigurer() {
             @Override
             public void addCorsMappings(CorsRegistry registry) {
+                // The event stream is read-only; EventSource sends Last-Event-ID when it reconnects
+                registry.addMapping("/events")
+                        .allowedOrigins("http://localhost:3000")
+                        .allowedMethods("GET")
+                        .allowedHeaders("Last-Event-ID", "Cache-Control")
+                        .allowCredentials(true);
                 registry.addMapping("/**")
                         .allowedOrigins("http://localhost:3000")  // React frontend URL
-                        .allowedMethods("GET", "POST", "PUT", "DELETE")
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
                         .allowedHeaders("*")
                         .allowCredentials(true);
             }
@@ -0,0 +1,40 @@
+package io.catalyte.demo.changes;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/changes")
+public class ChangesController {
+    /**
+     * A controller for delta sync of movies, products, customers and ingredients
+     * */
+
+    private final ChangesService changesService;
+
+    /**
+     * @param changesService - reads the change log
+     * */
+    @Autowired
+    public ChangesController(ChangesService changesService) {
+        this.changesService = changesService;
+    }
+
+    /**
+     * Retrieves the inserts, updates and deletes made after a token
+     * @param since the nextToken of the previous poll; without it only the current token is returned
+     * @param limit maximum number of changes returned
+     * @return changed entities with their latest change, and the token to poll with next
+     */
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public InventoryChanges getChanges(@RequestParam(required = false) String since,
+                                       @RequestParam(required = false) Integer limit) {
+        return changesService.getChanges(since, limit);
+    }
+}
@@ -0,0 +1,154 @@
+package io.catalyte.demo.changes;
+
+import io.catalyte.demo.customer.Customer;
+import io.catalyte.demo.customer.CustomerRepository;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.ingredient.Ingredient;
+import io.catalyte.demo.ingredient.IngredientRepository;
+import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import io.catalyte.demo.products.Product;
+import io.catalyte.demo.products.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Answers delta sync polls from the change log.
+ * A poll reads only the changes after its token, through the primary key index,
+ * and then the current state of just those entities, so its cost follows the
+ * amount of change rather than the size of the inventory.
+ * Polls never read past a change that is still being committed, so a token never skips one.
+ */
+@Service
+public class ChangesService {
+
+    public static final String MOVIES_DOMAIN = "movies";
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private final InventoryChangeRepository inventoryChangeRepository;
+    private final InventoryChangeSequencer inventoryChangeSequencer;
+    private final Map<Class<?>, String> domains = new HashMap<>();
+    // Reads the current entities of a domain by id, in one query
+    private final Map<String, Function<List<Integer>, Map<Integer, Object>>> loaders = new HashMap<>();
+
+    @Autowired
+    public ChangesService(InventoryChangeRepository inventoryChangeRepository,
+                          InventoryChangeSequencer inventoryChangeSequencer, MoviesRepository moviesRepository,
+                          ProductRepository productRepository, CustomerRepository customerRepository,
+                          IngredientRepository ingredientRepository) {
+        this.inventoryChangeRepository = inventoryChangeRepository;
+        this.inventoryChangeSequencer = inventoryChangeSequencer;
+        register(MOVIES_DOMAIN, Movies.class, moviesRepository, Movies::getId);
+        register("products", Product.class, productRepository, Product::getId);
+        register("customers", Customer.class, customerRepository, Customer::getId);
+        register("ingredients", Ingredient.class, ingredientRepository, Ingredient::getId);
+    }
+
+    private <T> void register(String domain, Class<T> entityType, JpaRepository<T, Integer> repository,
+                              ToIntFunction<T> id) {
+        domains.put(entityType, domain);
+        loaders.put(domain, ids -> {
+            Map<Integer, Object> entities = new HashMap<>();
+            for (T entity : repository.findAllById(ids)) {
+                entities.put(id.applyAsInt(entity), entity);
+            }
+            return entities;
+        });
+    }
+
+    /**
+     * @param entityType the class of a changed entity
+     * @return the name of its domain in the change log, or null when its changes are not logged
+     */
+    public String domainOf(Class<?> entityType) {
+        return domains.get(entityType);
+    }
+
+    /**
+     * Retrieves the changes made after a token.
+     * Without a token nothing is returned but the token of the latest change: take it before
+     * loading the full lists, then poll with it.
+     *
+     * @param since the nextToken of the previous poll, or null to start
+     * @param limit the maximum number of changes; defaults to 100, at most 1000
+     * @return each changed entity once with its latest change, and the token to poll with next
+     */
+    public InventoryChanges getChanges(String since, Integer limit) {
+        int maxChanges = limit == null ? DEFAULT_LIMIT : limit;
+        if (maxChanges < 1 || maxChanges > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        Long latest = inventoryChangeRepository.findLatestSeq();
+        long latestSeq = latest == null ? 0 : latest;
+        // A lower number still uncommitted when the latest was read is held by a transaction that is
+        // still writing, or has finished, by the time the horizon is read
+        long visibleSeq = Math.min(latestSeq, inventoryChangeSequencer.getVisibleSeq());
+        if (since == null || since.isEmpty()) {
+            return new InventoryChanges(List.of(), Long.toString(visibleSeq), false);
+        }
+
+        long sinceSeq;
+        try {
+            sinceSeq = Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid change token");
+        }
+        if (sinceSeq < 0 || sinceSeq > latestSeq) {
+            // The log was reset since the token was issued, e.g. by recreating the database
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "The change token is no longer valid; reload the full lists and start again");
+        }
+
+        // Read one extra change to learn whether more are waiting
+        List<InventoryChange> changes = inventoryChangeRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+                sinceSeq, visibleSeq, PageRequest.of(0, maxChanges + 1));
+        boolean hasMore = changes.size() > maxChanges;
+        if (hasMore) {
+            changes = changes.subList(0, maxChanges);
+        }
+        String nextToken = changes.isEmpty() ? since : Long.toString(changes.get(changes.size() - 1).getSeq());
+        return new InventoryChanges(withEntities(changes), nextToken, hasMore);
+    }
+
+    /**
+     * Loads the current state of the changed entities with one query per domain.
+     * An entity deleted since its change was logged is left out; its tombstone follows.
+     */
+    private List<InventoryChangeEntry> withEntities(List<InventoryChange> changes) {
+        Map<String, List<Integer>> idsByDomain = new LinkedHashMap<>();
+        for (InventoryChange change : changes) {
+            if (change.getType() != InventoryChangeEvent.Type.DELETED) {
+                idsByDomain.computeIfAbsent(change.getDomain(), domain -> new ArrayList<>()).add(change.getEntityId());
+            }
+        }
+        Map<String, Map<Integer, Object>> entities = new HashMap<>();
+        idsByDomain.forEach((domain, ids) -> entities.put(domain, loaders.get(domain).apply(ids)));
+
+        List<InventoryChangeEntry> entries = new ArrayList<>(changes.size());
+        for (InventoryChange change : changes) {
+            if (change.getType() == InventoryChangeEvent.Type.DELETED) {
+                entries.add(new InventoryChangeEntry(change.getDomain(), change.getEntityId(), change.getType(), null));
+                continue;
+            }
+            Object entity = entities.get(change.getDomain()).get(change.getEntityId());
+            if (entity != null) {
+                entries.add(new InventoryChangeEntry(change.getDomain(), change.getEntityId(), change.getType(), entity));
+            }
+        }
+        return entries;
+    }
+}
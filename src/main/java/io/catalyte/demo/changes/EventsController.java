@@ -0,0 +1,37 @@
+package io.catalyte.demo.changes;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping(value = "/events")
+public class EventsController {
+    /**
+     * A controller that streams inventory changes as Server-Sent Events
+     * */
+
+    private final InventoryEventStream inventoryEventStream;
+
+    /**
+     * @param inventoryEventStream - sends changes to subscribers
+     * */
+    @Autowired
+    public EventsController(InventoryEventStream inventoryEventStream) {
+        this.inventoryEventStream = inventoryEventStream;
+    }
+
+    /**
+     * Subscribes to creates, edits and deletes of movies, products, customers and ingredients
+     * @param lastEventId sent by EventSource on reconnect; the events missed since are replayed
+     * @return the stream, one event per change named after its domain
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return inventoryEventStream.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,66 @@
+package io.catalyte.demo.changes;
+
+import io.catalyte.demo.events.InventoryChangeEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * The latest change to one movie, product, customer or ingredient.
+ * Each row is numbered from one sequence shared by all domains, drawn 50 numbers at a time so a
+ * batch of changes is numbered without a round trip per row, and a newer change replaces
+ * the row of the same entity, so the table holds one row per changed entity and deleted
+ * entities stay as tombstones.
+ */
+@Entity
+@Table(name = "inventory_changes", uniqueConstraints = {
+        @UniqueConstraint(name = "inventory_changes_entity_key", columnNames = {"entity_domain", "entity_id"})
+})
+public class InventoryChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_changes_seq")
+    @SequenceGenerator(name = "inventory_changes_seq", sequenceName = "inventory_changes_seq", allocationSize = 50)
+    private long seq;
+
+    @Column(name = "entity_domain")
+    private String domain;
+
+    @Column(name = "entity_id")
+    private int entityId;
+
+    @Enumerated(EnumType.STRING)
+    private InventoryChangeEvent.Type type;
+
+    public InventoryChange() {
+    }
+
+    public InventoryChange(String domain, int entityId, InventoryChangeEvent.Type type) {
+        this.domain = domain;
+        this.entityId = entityId;
+        this.type = type;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public InventoryChangeEvent.Type getType() {
+        return type;
+    }
+}
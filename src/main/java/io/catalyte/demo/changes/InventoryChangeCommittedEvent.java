@@ -0,0 +1,32 @@
+package io.catalyte.demo.changes;
+
+/**
+ * Published for every logged change once it has committed, in change number order.
+ * Two changes of the same entity are numbered in the order they committed, so a listener that
+ * applies each change as it comes never replaces a newer state with an older one.
+ * Listeners run on the committing thread while later changes wait, so they must be quick.
+ */
+public class InventoryChangeCommittedEvent {
+
+    private final long seq;
+    private final InventoryChangeEntry change;
+
+    public InventoryChangeCommittedEvent(long seq, InventoryChangeEntry change) {
+        this.seq = seq;
+        this.change = change;
+    }
+
+    /**
+     * @return the change's number in the change log
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * @return the change, with the entity as it was written, or null when it was deleted
+     */
+    public InventoryChangeEntry getChange() {
+        return change;
+    }
+}
@@ -0,0 +1,46 @@
+package io.catalyte.demo.changes;
+
+import io.catalyte.demo.events.InventoryChangeEvent;
+
+/**
+ * One changed entity in a delta sync response.
+ */
+public class InventoryChangeEntry {
+
+    private final String domain;
+    private final int id;
+    private final InventoryChangeEvent.Type type;
+    private final Object entity;
+
+    public InventoryChangeEntry(String domain, int id, InventoryChangeEvent.Type type, Object entity) {
+        this.domain = domain;
+        this.id = id;
+        this.type = type;
+        this.entity = entity;
+    }
+
+    /**
+     * @return movies, products, customers or ingredients
+     */
+    public String getDomain() {
+        return domain;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return the latest change to the entity; earlier changes since the token are folded into it
+     */
+    public InventoryChangeEvent.Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the entity as it is now, or null when it was deleted
+     */
+    public Object getEntity() {
+        return entity;
+    }
+}
@@ -0,0 +1,115 @@
+package io.catalyte.demo.changes;
+
+import io.catalyte.demo.events.InventoryChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes every inventory change to the change log in the transaction that made it, so a change is
+ * logged exactly when it commits. The changes of one transaction are collected and written together
+ * just before it commits: one delete of their previous rows per domain and one batch of inserts.
+ * Numbering and streaming in commit order are left to InventoryChangeSequencer.
+ */
+@Component
+public class InventoryChangeRecorder {
+
+    private final InventoryChangeRepository inventoryChangeRepository;
+    private final ChangesService changesService;
+    private final InventoryChangeSequencer inventoryChangeSequencer;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public InventoryChangeRecorder(InventoryChangeRepository inventoryChangeRepository, ChangesService changesService,
+                                   InventoryChangeSequencer inventoryChangeSequencer,
+                                   PlatformTransactionManager transactionManager) {
+        this.inventoryChangeRepository = inventoryChangeRepository;
+        this.changesService = changesService;
+        this.inventoryChangeSequencer = inventoryChangeSequencer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Adds the change to its transaction's batch, replacing an earlier change of the same entity.
+     * A change published outside a transaction is written in a transaction of its own.
+     *
+     * @param event the change, published in the transaction of the write
+     */
+    @EventListener
+    public void onInventoryChanged(InventoryChangeEvent<?> event) {
+        String domain = changesService.domainOf(event.getEntityType());
+        if (domain == null) {
+            return;
+        }
+        InventoryChangeEntry entry = new InventoryChangeEntry(domain, event.getId(), event.getType(), event.getEntity());
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            batch().add(entry);
+        } else {
+            transactionTemplate.executeWithoutResult(status -> batch().add(entry));
+        }
+    }
+
+    private Batch batch() {
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            batch = new Batch();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(batch);
+        }
+        return batch;
+    }
+
+    /**
+     * The changes of one transaction, by entity, in the order they were last changed.
+     */
+    private final class Batch implements TransactionSynchronization {
+        private final Map<String, InventoryChangeEntry> entries = new LinkedHashMap<>();
+        private final Map<Long, InventoryChangeEntry> recorded = new HashMap<>();
+        private InventoryChangeSequencer.Ticket ticket;
+
+        void add(InventoryChangeEntry entry) {
+            String key = entry.getDomain() + ":" + entry.getId();
+            entries.remove(key);
+            entries.put(key, entry);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            Map<String, List<Integer>> idsByDomain = new HashMap<>();
+            List<InventoryChange> changes = new ArrayList<>(entries.size());
+            for (InventoryChangeEntry entry : entries.values()) {
+                idsByDomain.computeIfAbsent(entry.getDomain(), domain -> new ArrayList<>()).add(entry.getId());
+                changes.add(new InventoryChange(entry.getDomain(), entry.getId(), entry.getType()));
+            }
+            idsByDomain.forEach(inventoryChangeRepository::deleteByDomainAndEntityIdIn);
+
+            ticket = inventoryChangeSequencer.begin();
+            List<InventoryChange> saved = inventoryChangeRepository.saveAllAndFlush(changes);
+            List<Long> seqs = new ArrayList<>(saved.size());
+            List<InventoryChangeEntry> ordered = new ArrayList<>(entries.values());
+            for (int i = 0; i < saved.size(); i++) {
+                seqs.add(saved.get(i).getSeq());
+                recorded.put(saved.get(i).getSeq(), ordered.get(i));
+            }
+            inventoryChangeSequencer.allocated(ticket, seqs);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InventoryChangeRecorder.this);
+            if (ticket != null) {
+                inventoryChangeSequencer.complete(ticket, status == STATUS_COMMITTED ? recorded : Map.of());
+            }
+        }
+    }
+}
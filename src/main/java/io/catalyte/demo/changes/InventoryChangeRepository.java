@@ -0,0 +1,39 @@
+package io.catalyte.demo.changes;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for accessing the change log of all inventory domains
+ */
+@Repository
+public interface InventoryChangeRepository extends JpaRepository<InventoryChange, Long> {
+
+    /**
+     * Reads changes in the order they were made, seeking on the primary key.
+     *
+     * @param seq the sequence number of the last change already seen
+     * @param upTo the highest sequence number to read
+     * @param pageable how many changes to read
+     * @return the changes after seq, up to upTo
+     */
+    List<InventoryChange> findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(long seq, long upTo, Pageable pageable);
+
+    @Query("select max(c.seq) from InventoryChange c")
+    Long findLatestSeq();
+
+    /**
+     * Removes the previous changes of entities before their newer changes are saved.
+     * A bulk delete runs immediately, ahead of the inserts that replace it.
+     */
+    @Modifying
+    @Query("delete from InventoryChange c where c.domain = :domain and c.entityId in :entityIds")
+    void deleteByDomainAndEntityIdIn(@Param("domain") String domain, @Param("entityIds") Collection<Integer> entityIds);
+}
@@ -0,0 +1,108 @@
+package io.catalyte.demo.changes;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps readers of the change log behind the transactions still writing to it.
+ * Change numbers are drawn when a transaction writes its changes, but transactions commit in any order,
+ * so a number can become visible before a lower one. Each writing transaction holds a ticket from before
+ * it draws its numbers until it ends; polls read no further than the number below the oldest ticket,
+ * and committed changes are streamed, and published as InventoryChangeCommittedEvent, in number order
+ * once every lower number has been committed or rolled back. That holds within one instance of the application.
+ * Only bookkeeping happens under the lock; no transaction waits for another to commit.
+ */
+@Component
+public class InventoryChangeSequencer {
+
+    private final InventoryEventStream inventoryEventStream;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // The highest number drawn so far; every later number is above it
+    private long lastAllocated;
+    private final Set<Ticket> inFlight = new HashSet<>();
+    // Committed changes waiting for a lower number to commit or roll back, by number
+    private final TreeMap<Long, InventoryChangeEntry> held = new TreeMap<>();
+
+    @Autowired
+    public InventoryChangeSequencer(InventoryEventStream inventoryEventStream,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.inventoryEventStream = inventoryEventStream;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Called by a transaction before it draws change numbers.
+     *
+     * @return the ticket to hand back to allocated and complete
+     */
+    public synchronized Ticket begin() {
+        Ticket ticket = new Ticket(lastAllocated + 1);
+        inFlight.add(ticket);
+        return ticket;
+    }
+
+    /**
+     * Records the numbers a transaction drew, so readers can move up to the lowest of them.
+     *
+     * @param ticket the ticket from begin
+     * @param seqs the numbers drawn, in any order
+     */
+    public synchronized void allocated(Ticket ticket, List<Long> seqs) {
+        if (seqs.isEmpty()) {
+            return;
+        }
+        ticket.lowestSeq = Collections.min(seqs);
+        lastAllocated = Math.max(lastAllocated, Collections.max(seqs));
+    }
+
+    /**
+     * Ends a transaction's ticket and streams and publishes every committed change no longer waiting
+     * for a lower number.
+     *
+     * @param ticket the ticket from begin
+     * @param committed the changes of the transaction by number, or an empty map when it rolled back
+     */
+    public synchronized void complete(Ticket ticket, Map<Long, InventoryChangeEntry> committed) {
+        inFlight.remove(ticket);
+        held.putAll(committed);
+        long visible = getVisibleSeq();
+        while (!held.isEmpty() && held.firstKey() <= visible) {
+            Map.Entry<Long, InventoryChangeEntry> change = held.pollFirstEntry();
+            inventoryEventStream.publish(change.getKey(), change.getValue());
+            eventPublisher.publishEvent(new InventoryChangeCommittedEvent(change.getKey(), change.getValue()));
+        }
+    }
+
+    /**
+     * @return the highest change number below every number still being written, or Long.MAX_VALUE when
+     * no transaction is writing changes
+     */
+    public synchronized long getVisibleSeq() {
+        long lowest = Long.MAX_VALUE;
+        for (Ticket ticket : inFlight) {
+            lowest = Math.min(lowest, ticket.lowestSeq);
+        }
+        return lowest == Long.MAX_VALUE ? Long.MAX_VALUE : lowest - 1;
+    }
+
+    /**
+     * One transaction writing changes. Its lowest number is not known until it has drawn them;
+     * until then it is bounded by the highest number drawn before the ticket was taken.
+     */
+    public static final class Ticket {
+        private long lowestSeq;
+
+        private Ticket(long lowestSeq) {
+            this.lowestSeq = lowestSeq;
+        }
+    }
+}
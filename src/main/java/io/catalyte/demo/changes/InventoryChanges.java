@@ -0,0 +1,37 @@
+package io.catalyte.demo.changes;
+
+import java.util.List;
+
+/**
+ * The changes made after a change token, and the token to poll with next.
+ */
+public class InventoryChanges {
+
+    private final List<InventoryChangeEntry> changes;
+    private final String nextToken;
+    private final boolean hasMore;
+
+    public InventoryChanges(List<InventoryChangeEntry> changes, String nextToken, boolean hasMore) {
+        this.changes = changes;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * @return the changed entities, in the order of their latest change
+     */
+    public List<InventoryChangeEntry> getChanges() {
+        return changes;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * @return whether more changes are waiting; poll again with nextToken right away
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,292 @@
+package io.catalyte.demo.changes;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes inventory changes to Server-Sent Events subscribers.
+ * Connections are held by the servlet container's async support, not by threads: a small pool
+ * of sender threads drains each subscriber's bounded buffer, and a subscriber whose buffer fills
+ * up is disconnected instead of slowing the others down.
+ * Event ids are change log sequence numbers, so a client that reconnects with Last-Event-ID is
+ * replayed the events it missed from the recent ones kept in memory, or told to catch up with
+ * GET /changes?since= when they are older than that.
+ */
+@Component
+public class InventoryEventStream {
+
+    static final int REPLAY_CAPACITY = 1024;
+    static final int SENDER_THREADS = 4;
+    static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(25);
+    static final String RESYNC_EVENT = "resync";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Executor sender;
+    // Sends heartbeats and disconnects dropped subscribers, off the publishing thread
+    private final ScheduledExecutorService housekeeping = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "sse-housekeeping"));
+
+    // Recent events, oldest first, for clients resuming from Last-Event-ID
+    private final ArrayDeque<Event> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder dropped = new LongAdder();
+
+    @Autowired
+    public InventoryEventStream(ObjectMapper objectMapper,
+                                @Value("${events.subscriber-buffer-size:256}") int bufferSize,
+                                @Value("${events.max-subscribers:5000}") int maxSubscribers,
+                                @Value("${events.timeout:PT30M}") Duration timeout) {
+        this(objectMapper, bufferSize, maxSubscribers, timeout, newSender());
+    }
+
+    InventoryEventStream(ObjectMapper objectMapper, int bufferSize, int maxSubscribers, Duration timeout,
+                         Executor sender) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.sender = sender;
+    }
+
+    private static ExecutorService newSender() {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(SENDER_THREADS,
+                runnable -> daemon(runnable, "sse-sender-" + threads.incrementAndGet()));
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @PostConstruct
+    void startHeartbeat() {
+        long interval = HEARTBEAT_INTERVAL.toMillis();
+        housekeeping.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        housekeeping.shutdownNow();
+        if (sender instanceof ExecutorService senderPool) {
+            senderPool.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    /**
+     * Opens a stream of inventory changes.
+     *
+     * @param lastEventId the id of the last event the client received, or null for a new subscription
+     * @return the emitter the changes are sent through
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    synchronized SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many subscribers; poll /changes instead");
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            List<Event> missed = missedSince(lastEventId.trim());
+            if (missed == null) {
+                subscriber.offer(Event.resync(lastEventId.trim()));
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * @return the events after the given id, or null when some of them are no longer kept
+     */
+    private List<Event> missedSince(String lastEventId) {
+        long lastSeq;
+        try {
+            lastSeq = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (replay.isEmpty() || lastSeq < replay.getFirst().seq - 1 || lastSeq > replay.getLast().seq) {
+            return null;
+        }
+        List<Event> missed = new ArrayList<>();
+        for (Event event : replay) {
+            if (event.seq > lastSeq) {
+                missed.add(event);
+            }
+        }
+        return missed.size() <= bufferSize ? missed : null;
+    }
+
+    /**
+     * Sends a change to every subscriber. Never blocks on a subscriber.
+     *
+     * @param seq the change's number in the change log, sent as the event id
+     * @param entry the change
+     */
+    public synchronized void publish(long seq, InventoryChangeEntry entry) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change " + seq, e);
+        }
+        Event event = new Event(seq, entry.getDomain(), data);
+        if (replay.size() == REPLAY_CAPACITY) {
+            replay.removeFirst();
+        }
+        replay.addLast(event);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber, so idle connections stay open and dead ones are found.
+     */
+    void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(Event.HEARTBEAT);
+        }
+    }
+
+    /**
+     * @return how many clients are subscribed
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * @return how many subscribers were disconnected for falling behind
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * An event serialized once and sent to every subscriber.
+     */
+    private static final class Event {
+        static final Event HEARTBEAT = new Event(-1, null, null);
+
+        final long seq;
+        final String name;
+        final String data;
+
+        Event(long seq, String name, String data) {
+            this.seq = seq;
+            this.name = name;
+            this.data = data;
+        }
+
+        static Event resync(String since) {
+            return new Event(-1, RESYNC_EVENT, "{\"since\":\"" + since.replaceAll("[^0-9]", "") + "\"}");
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("keepalive");
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (seq >= 0) {
+                builder.id(Long.toString(seq));
+            }
+            return builder.name(name).data(data);
+        }
+    }
+
+    /**
+     * One client, with the events waiting to be written to it.
+     * At most one sender thread drains a subscriber at a time, so its events stay in order.
+     */
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Event> pending = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            if (closed) {
+                return;
+            }
+            if (!pending.offer(event)) {
+                // Fallen too far behind; the client reconnects and resumes from its Last-Event-ID
+                dropped.increment();
+                close();
+                housekeeping.execute(emitter::complete);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                Event event;
+                while (!closed && (event = pending.poll()) != null) {
+                    try {
+                        emitter.send(event.toSse());
+                    } catch (IOException | IllegalStateException e) {
+                        close();
+                    }
+                }
+                draining.set(false);
+                // An event offered after the last poll but before the flag was cleared is drained here
+            } while (!closed && !pending.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.catalyte.demo.codes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The allergens a product or ingredient can declare.
+ * A set of them is stored as one smallint, with bit {@code code} set for each allergen.
+ */
+public enum Allergen implements Coded {
+    DAIRY(0, "Dairy"),
+    SOY(1, "Soy"),
+    GLUTEN(2, "Gluten"),
+    NUTS(3, "Nuts");
+
+    public static final Codes<Allergen> CODES = Codes.of(Allergen.class);
+
+    private final short code;
+    private final String label;
+
+    Allergen(int code, String label) {
+        this.code = (short) code;
+        this.label = label;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @param labels allergen labels, all valid
+     * @return the allergens, or null for a null list
+     * @throws IllegalArgumentException if a label is not an allergen
+     */
+    public static EnumSet<Allergen> setOf(Collection<String> labels) {
+        if (labels == null) {
+            return null;
+        }
+        EnumSet<Allergen> allergens = EnumSet.noneOf(Allergen.class);
+        for (String label : labels) {
+            Allergen allergen = CODES.fromLabel(label);
+            if (allergen == null) {
+                throw new IllegalArgumentException("Unknown allergen " + label);
+            }
+            allergens.add(allergen);
+        }
+        return allergens;
+    }
+
+    /**
+     * @param allergens allergens, or null
+     * @return their labels in declaration order, or null for null
+     */
+    public static List<String> labels(Set<Allergen> allergens) {
+        if (allergens == null) {
+            return null;
+        }
+        List<String> labels = new ArrayList<>(allergens.size());
+        for (Allergen allergen : allergens) {
+            labels.add(allergen.label);
+        }
+        return labels;
+    }
+
+    /**
+     * @param allergens a set of allergens read from the database, or null
+     * @return their labels in declaration order, or null for null
+     */
+    public static List<String> labelsOf(Set<?> allergens) {
+        @SuppressWarnings("unchecked")
+        Set<Allergen> checked = (Set<Allergen>) allergens;
+        return labels(checked);
+    }
+
+    /**
+     * @param allergens allergens, or null
+     * @return the bitmask stored for them, or null for null
+     */
+    public static Short toMask(Set<Allergen> allergens) {
+        if (allergens == null) {
+            return null;
+        }
+        int mask = 0;
+        for (Allergen allergen : allergens) {
+            mask |= 1 << allergen.code;
+        }
+        return (short) mask;
+    }
+
+    /**
+     * @param mask a stored bitmask, or null
+     * @return the allergens whose bits are set, or null for null
+     * @throws IllegalArgumentException if a bit is set that no allergen uses
+     */
+    public static EnumSet<Allergen> fromMask(Short mask) {
+        if (mask == null) {
+            return null;
+        }
+        EnumSet<Allergen> allergens = EnumSet.noneOf(Allergen.class);
+        for (Allergen allergen : values()) {
+            if ((mask & (1 << allergen.code)) != 0) {
+                allergens.add(allergen);
+            }
+        }
+        if (toMask(allergens) != mask.shortValue()) {
+            throw new IllegalArgumentException("Unknown allergen bits in " + mask);
+        }
+        return allergens;
+    }
+}
@@ -0,0 +1,23 @@
+package io.catalyte.demo.codes;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Set;
+
+/**
+ * Stores a set of allergens as a smallint bitmask, see {@link Allergen}.
+ */
+@Converter
+public class AllergenSetConverter implements AttributeConverter<Set<Allergen>, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Set<Allergen> allergens) {
+        return Allergen.toMask(allergens);
+    }
+
+    @Override
+    public Set<Allergen> convertToEntityAttribute(Short mask) {
+        return Allergen.fromMask(mask);
+    }
+}
@@ -0,0 +1,28 @@
+package io.catalyte.demo.codes;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Stores a {@link Coded} enum in a smallint column.
+ * Subclasses only name the enum, so that they can be referenced from {@code @Convert}.
+ *
+ * @param <E> the enum
+ */
+public abstract class CodeConverter<E extends Enum<E> & Coded> implements AttributeConverter<E, Short> {
+
+    private final Codes<E> codes;
+
+    protected CodeConverter(Codes<E> codes) {
+        this.codes = codes;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E value) {
+        return value == null ? null : value.getCode();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        return codes.fromCode(code);
+    }
+}
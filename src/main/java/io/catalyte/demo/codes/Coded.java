@@ -0,0 +1,26 @@
+package io.catalyte.demo.codes;
+
+/**
+ * A value stored as a small number and shown as text, e.g. "Baked Good" stored as 2.
+ * Codes are part of the schema: never renumber one, only add new ones.
+ */
+public interface Coded {
+
+    /**
+     * @return the number stored in the database
+     */
+    short getCode();
+
+    /**
+     * @return the text sent and received in JSON
+     */
+    String getLabel();
+
+    /**
+     * @param value a coded value, or null
+     * @return its label, or null for null
+     */
+    static String labelOf(Coded value) {
+        return value == null ? null : value.getLabel();
+    }
+}
@@ -0,0 +1,82 @@
+package io.catalyte.demo.codes;
+
+import java.lang.reflect.Array;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lookups over the constants of a {@link Coded} enum, built once per enum.
+ *
+ * @param <E> the enum
+ */
+public final class Codes<E extends Enum<E> & Coded> {
+
+    private final Class<E> type;
+    private final E[] byCode;
+    private final Map<String, E> byLabel = new HashMap<>();
+    private final Set<String> labels;
+
+    private Codes(Class<E> type) {
+        this.type = type;
+        E[] constants = type.getEnumConstants();
+        int maxCode = 0;
+        for (E constant : constants) {
+            maxCode = Math.max(maxCode, constant.getCode());
+        }
+        @SuppressWarnings("unchecked")
+        E[] table = (E[]) Array.newInstance(type, maxCode + 1);
+        Set<String> labelsInOrder = new LinkedHashSet<>();
+        for (E constant : constants) {
+            if (constant.getCode() < 0 || table[constant.getCode()] != null) {
+                throw new IllegalStateException("Duplicate or negative code " + constant.getCode() + " in " + type);
+            }
+            table[constant.getCode()] = constant;
+            byLabel.put(constant.getLabel(), constant);
+            labelsInOrder.add(constant.getLabel());
+        }
+        this.byCode = table;
+        this.labels = Collections.unmodifiableSet(labelsInOrder);
+    }
+
+    /**
+     * @param type the enum
+     * @return the enum's lookups
+     */
+    public static <E extends Enum<E> & Coded> Codes<E> of(Class<E> type) {
+        return new Codes<>(type);
+    }
+
+    /**
+     * @param code a stored code, or null
+     * @return the constant with the code, or null for null
+     * @throws IllegalArgumentException if no constant has the code
+     */
+    public E fromCode(Short code) {
+        if (code == null) {
+            return null;
+        }
+        E constant = code >= 0 && code < byCode.length ? byCode[code] : null;
+        if (constant == null) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code " + code);
+        }
+        return constant;
+    }
+
+    /**
+     * @param label a label, matched exactly
+     * @return the constant with the label, or null when there is none
+     */
+    public E fromLabel(String label) {
+        return label == null ? null : byLabel.get(label);
+    }
+
+    /**
+     * @return every label, in declaration order
+     */
+    public Set<String> labels() {
+        return labels;
+    }
+}
@@ -0,0 +1,188 @@
+package io.catalyte.demo.contacts;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.catalyte.demo.movies.moviesEntity.ContactNormalizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Normalizes the phone, email, state and zip code of many supplier contacts.
+ * Records are taken from their source in chunks; each chunk is normalized in parallel
+ * and handed on before the next one is read, so a run holds one chunk at a time.
+ */
+@Service
+public class ContactNormalizationJob {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final ObjectReader recordReader;
+    private final ObjectWriter recordWriter;
+    private final ObjectWriter reportWriter;
+
+    @Autowired
+    public ContactNormalizationJob(ObjectMapper objectMapper) {
+        this.recordReader = objectMapper.readerFor(SupplierContact.class);
+        this.recordWriter = objectMapper.writerFor(SupplierContact.class);
+        this.reportWriter = objectMapper.writerFor(ContactNormalizationReport.class);
+    }
+
+    /**
+     * Normalizes a contact list sent as a JSON array or as newline-delimited JSON.
+     * A malformed row ends the run, as the parser can't resynchronize after it; the rows before it
+     * are still written and the report names it.
+     *
+     * @param body the request body
+     * @return one newline-delimited record per row, in row order, written chunk by chunk while the body is read,
+     * then a last line with the counts and the throughput
+     */
+    public StreamingResponseBody normalize(InputStream body) throws IOException {
+        MappingIterator<SupplierContact> records;
+        try {
+            records = recordReader.readValues(body);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request body is not valid JSON");
+        }
+        return out -> {
+            try (records) {
+                Rows rows = new Rows(records);
+                ContactNormalizationReport report = run(rows, chunk -> write(chunk, out), rows::getError);
+                out.write(reportWriter.writeValueAsBytes(report));
+                out.write('\n');
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * Normalizes records chunk by chunk.
+     *
+     * @param records the records to normalize, read lazily
+     * @param sink receives each normalized chunk, e.g. to write it back
+     * @return the counts and the throughput of the run
+     */
+    public ContactNormalizationReport run(Iterator<SupplierContact> records, Consumer<List<SupplierContact>> sink) {
+        return run(records, sink, () -> null);
+    }
+
+    private ContactNormalizationReport run(Iterator<SupplierContact> records, Consumer<List<SupplierContact>> sink,
+                                           Supplier<String> error) {
+        long started = System.nanoTime();
+        List<SupplierContact> chunk = new ArrayList<>(CHUNK_SIZE);
+        int received = 0;
+        int changed = 0;
+        while (records.hasNext()) {
+            chunk.add(records.next());
+            received++;
+            if (chunk.size() == CHUNK_SIZE) {
+                changed += normalizeChunk(chunk, sink);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            changed += normalizeChunk(chunk, sink);
+        }
+        return new ContactNormalizationReport(received, changed, System.nanoTime() - started, error.get());
+    }
+
+    private int normalizeChunk(List<SupplierContact> chunk, Consumer<List<SupplierContact>> sink) {
+        int changed = (int) IntStream.range(0, chunk.size()).parallel()
+                .filter(i -> normalize(chunk.get(i)))
+                .count();
+        sink.accept(chunk);
+        return changed;
+    }
+
+    private void write(List<SupplierContact> chunk, OutputStream out) {
+        try {
+            for (SupplierContact record : chunk) {
+                out.write(recordWriter.writeValueAsBytes(record));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads records one by one, each before it is asked for, so a malformed row ends the rows
+     * instead of failing the run.
+     */
+    private static final class Rows implements Iterator<SupplierContact> {
+        private final MappingIterator<SupplierContact> records;
+        private int row;
+        private boolean fetched;
+        private SupplierContact next;
+        private String error;
+
+        Rows(MappingIterator<SupplierContact> records) {
+            this.records = records;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched && error == null) {
+                try {
+                    if (records.hasNextValue()) {
+                        next = records.nextValue();
+                        fetched = true;
+                        row++;
+                    }
+                } catch (IOException e) {
+                    String reason = e instanceof JsonProcessingException
+                            ? ((JsonProcessingException) e).getOriginalMessage() : e.getMessage();
+                    error = "Row " + (row + 1) + " could not be parsed: " + reason;
+                }
+            }
+            return fetched;
+        }
+
+        @Override
+        public SupplierContact next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            fetched = false;
+            SupplierContact record = next;
+            next = null;
+            return record;
+        }
+
+        /**
+         * @return why the rows ended early, or null when every row was read
+         */
+        String getError() {
+            return error;
+        }
+    }
+
+    private static boolean normalize(SupplierContact record) {
+        if (record == null) {
+            return false;
+        }
+        // Both halves are normalized even when the first one changed
+        boolean contactChanged = ContactNormalizer.normalize(record.getContact());
+        boolean addressChanged = ContactNormalizer.normalize(record.getAddress());
+        return contactChanged || addressChanged;
+    }
+}
@@ -0,0 +1,45 @@
+package io.catalyte.demo.contacts;
+
+/**
+ * The outcome of a normalization run: how many records were read and changed, and how fast.
+ * A run that ended at a malformed row says which one.
+ */
+public class ContactNormalizationReport {
+
+    private final int received;
+    private final int changed;
+    private final long elapsedMillis;
+    private final long recordsPerSecond;
+    private final String error;
+
+    public ContactNormalizationReport(int received, int changed, long elapsedNanos, String error) {
+        this.received = received;
+        this.changed = changed;
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.recordsPerSecond = elapsedNanos == 0 ? 0 : received * 1_000_000_000L / elapsedNanos;
+        this.error = error;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getChanged() {
+        return changed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRecordsPerSecond() {
+        return recordsPerSecond;
+    }
+
+    /**
+     * @return why the run ended before the last row, or null when every row was read
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,43 @@
+package io.catalyte.demo.contacts;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping(value = "/contacts")
+public class ContactsController {
+    /**
+     * A controller for onboarding supplier contact lists
+     * */
+
+    private final ContactNormalizationJob contactNormalizationJob;
+
+    /**
+     * @param contactNormalizationJob - normalizes contact lists in chunks
+     * */
+    @Autowired
+    public ContactsController(ContactNormalizationJob contactNormalizationJob) {
+        this.contactNormalizationJob = contactNormalizationJob;
+    }
+
+    /**
+     * Normalizes the phone numbers, emails, states and zip codes of a contact list
+     * @param body - a JSON array or newline-delimited JSON of {"contact": {...}, "address": {...}} records
+     * @return one newline-delimited normalized record per row, written while the body is read,
+     * then a line with how many changed and the records per second
+     */
+    @PostMapping(value = "/normalize", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> normalize(InputStream body) throws IOException {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(contactNormalizationJob.normalize(body));
+    }
+}
@@ -0,0 +1,37 @@
+package io.catalyte.demo.contacts;
+
+import io.catalyte.demo.movies.moviesEntity.Address;
+import io.catalyte.demo.movies.moviesEntity.Contact;
+
+/**
+ * One row of a supplier contact list: the person to reach and where.
+ */
+public class SupplierContact {
+
+    private Contact contact;
+    private Address address;
+
+    public SupplierContact() {
+    }
+
+    public SupplierContact(Contact contact, Address address) {
+        this.contact = contact;
+        this.address = address;
+    }
+
+    public Contact getContact() {
+        return contact;
+    }
+
+    public void setContact(Contact contact) {
+        this.contact = contact;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+
+    public void setAddress(Address address) {
+        this.address = address;
+    }
+}
@@ -1,11 +1,19 @@
 package io.catalyte.demo.customer;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.catalyte.demo.uniqueness.UniqueKeyGuard;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "customer_name_key_key", columnNames = "name_key")
+})
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -13,6 +21,12 @@ public class Customer {
 
     private Boolean active;
     private String name;
+
+    // Normalized copy of name that the unique index is built on
+    @JsonIgnore
+    @Column(name = "name_key")
+    private String nameKey;
+
     private String emailAddress;
     private Double lifetimeSpent;
     private String customerSince;
@@ -24,6 +38,7 @@ public class Customer {
         this.id = id;
         this.active = active;
         this.name = name;
+        this.nameKey = UniqueKeyGuard.normalize(name);
         this.emailAddress = emailAddress;
         this.lifetimeSpent = lifetimeSpent;
     }
@@ -50,6 +65,11 @@ public class Customer {
 
     public void setName(String name) {
         this.name = name;
+        this.nameKey = UniqueKeyGuard.normalize(name);
+    }
+
+    public String getNameKey() {
+        return nameKey;
     }
 
     public String getEmailAddress() {
@@ -1,11 +1,17 @@
 package io.catalyte.demo.customer;
 
+import io.catalyte.demo.dryrun.DryRunValidator;
 import io.catalyte.demo.products.Product;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,24 +23,28 @@ public class CustomerController {
      * */
 
     CustomerService customerService;
+    DryRunValidator dryRunValidator;
 
     /**
      * @param customerService - the service for performing CRUD methods on Customer instances
+     * @param dryRunValidator - checks many customers without saving them
      * */
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, DryRunValidator dryRunValidator) {
         this.customerService = customerService;
+        this.dryRunValidator = dryRunValidator;
     }
 
     /**
      * Retrieves a list of all customers.
      *
+     * @param fields Optional comma-separated attributes to return, e.g. "id,name"; only those columns are read.
      * @return A list of all customers in the system.
      */
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<Customer> getCustomers() {
-        return customerService.getCustomers();
+    public List<?> getCustomers(@RequestParam(required = false) String fields) {
+        return customerService.getCustomers(fields);
     }
 
     /**
@@ -73,6 +83,20 @@ public class CustomerController {
         return customerService.createCustomer(customerToCreate);
     }
 
+    /**
+     * Checks many customers like POST /customers without saving any
+     * @param body - a JSON array or newline-delimited JSON of customers, streamed from the request
+     * @param contentType - the type of the body
+     * @return one newline-delimited result per row, in row order, written while the body is read
+     */
+    @PostMapping(value = "/validate", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> validateCustomers(InputStream body,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(dryRunValidator.validate(body, contentType, customerService.getDryRun()));
+    }
+
     /**
      * Updates an existing customer.
      *
@@ -1,8 +1,11 @@
 package io.catalyte.demo.customer;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,4 +15,11 @@ import java.util.List;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Integer> {
     List<Customer> findByNameIgnoreCase(String name);
+
+    boolean existsByNameKey(String nameKey);
+
+    boolean existsByNameKeyAndIdNot(String nameKey, int id);
+
+    @Query("select c.nameKey from Customer c where c.nameKey in :nameKeys")
+    List<String> findExistingNameKeys(@Param("nameKeys") Collection<String> nameKeys);
 }
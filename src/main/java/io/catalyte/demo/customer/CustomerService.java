@@ -1,5 +1,7 @@
 package io.catalyte.demo.customer;
 
+import io.catalyte.demo.dryrun.DryRun;
+
 import java.util.List;
 
 public interface CustomerService {
@@ -8,6 +10,8 @@ public interface CustomerService {
 
     List<Customer> getCustomers();
 
+    List<?> getCustomers(String fields);
+
     Customer getCustomerById(int id);
 
     List<Customer> getCustomerByName(String name);
@@ -17,4 +21,8 @@ public interface CustomerService {
     Customer editCustomer(Customer customerToEdit, int id);
 
     void deleteCustomerById(int id);
+
+    // Bulk validation:
+
+    DryRun<Customer> getDryRun();
 }
@@ -1,12 +1,22 @@
 package io.catalyte.demo.customer;
 
+import io.catalyte.demo.dryrun.DryRun;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.fields.FieldSelection;
+import io.catalyte.demo.fields.SparseFieldsRepository;
+import io.catalyte.demo.uniqueness.UniqueKeyGuard;
+import io.catalyte.demo.validation.FieldError;
+import io.catalyte.demo.validation.ValidationFailedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -15,16 +25,28 @@ import java.util.List;
  */
 @Service
 public class CustomerServiceImpl implements CustomerService {
+    static final List<String> LIST_FIELDS = List.of("id", "active", "name", "emailAddress", "lifetimeSpent",
+            "customerSince");
+    private static final FieldError NAME_EXISTS = new FieldError("name", CustomerValidator.NAME_EXISTS_MESSAGE);
+
     CustomerRepository customerRepository;
+    SparseFieldsRepository sparseFieldsRepository;
+    ApplicationEventPublisher eventPublisher;
+    UniqueKeyGuard uniqueKeyGuard = new UniqueKeyGuard();
 
     /**
      * Constructs a new instance of CustomerServiceImpl with the specified CustomerRepository.
      *
      * @param customerRepository The CustomerRepository instance to be used by this service.
+     * @param sparseFieldsRepository Reads the attributes selected with fields= on the list endpoint.
+     * @param eventPublisher Announces every change after it is saved.
      */
     @Autowired
-    public CustomerServiceImpl(CustomerRepository customerRepository) {
+    public CustomerServiceImpl(CustomerRepository customerRepository, SparseFieldsRepository sparseFieldsRepository,
+                               ApplicationEventPublisher eventPublisher) {
         this.customerRepository = customerRepository;
+        this.sparseFieldsRepository = sparseFieldsRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -36,6 +58,21 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.findAll();
     }
 
+    /**
+     * Retrieves all customers, with only the selected attributes when fields are given.
+     * Only the selected columns are read then; the id is always included.
+     *
+     * @param fields Comma-separated attribute names, e.g. "id,name", or null for whole customers.
+     * @return A list of all customers, or one map of attribute values per customer.
+     */
+    public List<?> getCustomers(String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, LIST_FIELDS);
+        if (selection == null) {
+            return getCustomers();
+        }
+        return sparseFieldsRepository.findAll(Customer.class, selection);
+    }
+
     /**
      * Retrieves a customer by its ID.
      *
@@ -77,6 +114,7 @@ public class CustomerServiceImpl implements CustomerService {
      *                         emailAddress, and lifetimeSpent.
      * @return the created customer
      */
+    @Transactional
     public Customer createCustomer(Customer customerToCreate) {
         CustomerValidator customerValidator = new CustomerValidator(customerToCreate);
         customerToCreate.setCustomerSince(getTimestamp());
@@ -87,20 +125,37 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         // Collecting error messages
-        String errorMessage = customerValidator.validateCustomer(customerToCreate);
-        errorMessage += customerValidator.isUniqueName(customerToCreate.getName(), getCustomers());
+        FieldError[] errors = customerValidator.checkCustomer();
+        if (customerRepository.existsByNameKey(customerToCreate.getNameKey())) {
+            errors = withNameExists(errors);
+        }
 
-        if (!errorMessage.isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    errorMessage);
+        if (errors.length > 0) {
+            throw new ValidationFailedException(errors, "");
         }
 
         Customer formattedCustomer = customerValidator.formatCustomer(customerToCreate);
-        customerRepository.save(formattedCustomer);
+        uniqueKeyGuard.save(() -> customerRepository.saveAndFlush(formattedCustomer),
+                HttpStatus.BAD_REQUEST, CustomerValidator.NAME_EXISTS_MESSAGE);
+        eventPublisher.publishEvent(InventoryChangeEvent.created(Customer.class, formattedCustomer.getId(), formattedCustomer));
         return formattedCustomer;
     }
 
+    /**
+     * The checks of createCustomer, for validating many customers without saving them.
+     * A missing lifetimeSpent is checked as 0.0, the value createCustomer saves.
+     *
+     * @return the rules of a new customer, and its name, which must not be taken
+     */
+    public DryRun<Customer> getDryRun() {
+        return DryRun.of(Customer.class, (Customer customer) -> {
+            if (customer.getLifetimeSpent() == null) {
+                customer.setLifetimeSpent(0.0);
+            }
+            return new CustomerValidator(customer).checkCustomer();
+        }).unique(Customer::getNameKey, customerRepository::findExistingNameKeys, NAME_EXISTS);
+    }
+
     /**
      * Updates an existing customer.
      *
@@ -108,6 +163,7 @@ public class CustomerServiceImpl implements CustomerService {
      * @param customerToEdit The updated customer data.
      * @return The updated customer.
      */
+    @Transactional
     public Customer editCustomer(Customer customerToEdit, int id) {
 
         try {
@@ -131,17 +187,19 @@ public class CustomerServiceImpl implements CustomerService {
         CustomerValidator customerValidator = new CustomerValidator(customerToEdit);
 
         // Collecting error messages
-        String errorMessage = customerValidator.validateCustomer(customerToEdit);
-        errorMessage += customerValidator.isUniqueName(customerToEdit.getName(), getCustomers(), id);
+        FieldError[] errors = customerValidator.checkCustomer();
+        if (customerRepository.existsByNameKeyAndIdNot(customerToEdit.getNameKey(), id)) {
+            errors = withNameExists(errors);
+        }
 
-        if (!errorMessage.isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    errorMessage);
+        if (errors.length > 0) {
+            throw new ValidationFailedException(errors, "");
         }
 
         Customer formattedCustomer = customerValidator.formatCustomer(customerToEdit);
-        customerRepository.save(formattedCustomer);
+        uniqueKeyGuard.save(() -> customerRepository.saveAndFlush(formattedCustomer),
+                HttpStatus.BAD_REQUEST, CustomerValidator.NAME_EXISTS_MESSAGE);
+        eventPublisher.publishEvent(InventoryChangeEvent.updated(Customer.class, id, formattedCustomer, null));
         return formattedCustomer;
     }
 
@@ -150,9 +208,11 @@ public class CustomerServiceImpl implements CustomerService {
      *
      * @param id The ID of the customer to delete.
      */
+    @Transactional
     public void deleteCustomerById(int id) {
         if (getCustomerById(id) != null) {
             customerRepository.deleteById(id);
+            eventPublisher.publishEvent(InventoryChangeEvent.deleted(Customer.class, id, null));
         }
     }
 
@@ -165,4 +225,13 @@ public class CustomerServiceImpl implements CustomerService {
     public String getTimestamp () {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("MM-yyyy"));
     }
+
+    /**
+     * Adds the duplicate name error after the field errors, where its message has always been reported.
+     */
+    private static FieldError[] withNameExists(FieldError[] errors) {
+        FieldError[] withName = Arrays.copyOf(errors, errors.length + 1);
+        withName[errors.length] = NAME_EXISTS;
+        return withName;
+    }
 }
@@ -1,13 +1,39 @@
 package io.catalyte.demo.customer;
 
-import java.text.DecimalFormat;
-import java.util.List;
+import io.catalyte.demo.money.MoneyRounding;
+import io.catalyte.demo.validation.FieldError;
+import io.catalyte.demo.validation.Rule;
+import io.catalyte.demo.validation.RuleSet;
+import io.catalyte.demo.validation.Rules;
+import io.catalyte.demo.validation.TextRule;
 
 /**
  * This class provides validation methods for a Customer object.
+ * The rules are compiled once, when the class is loaded.
  */
 public class CustomerValidator {
-    DecimalFormat df = new DecimalFormat("#.00");
+    public static final String NAME_EXISTS_MESSAGE = " Customer with matching name already exists.";
+
+    private static final Rule<Customer> ACTIVE = Rules.on(Customer::getActive,
+            Rules.notNull(" Customer Active Status is null."));
+    private static final Rule<Customer> NAME = Rules.on(Customer::getName, Rules.text()
+            .whenNull(" Customer Name is null.")
+            .whenEmpty(" Customer Name is blank.")
+            .whenLongerThan(50, " Customer Name must be less than 50 characters.")
+            .build());
+    private static final TextRule EMAIL_ADDRESS = Rules.text()
+            .whenNull(" Email Address is null.")
+            .whenNotEmailAddress(" Email Address must be in the following format: x@x.x")
+            .build();
+    // Unboxes like the comparison it replaces; the service defaults a missing value to zero first
+    private static final Rule<Customer> LIFETIME_SPENT = customer -> customer.getLifetimeSpent() < 0
+            ? " Lifetime Spent must be a non-negative value." : null;
+    private static final RuleSet<Customer> RULES = RuleSet.of(
+            Rules.field("active", ACTIVE),
+            Rules.field("name", NAME),
+            Rules.field("emailAddress", Customer::getEmailAddress, EMAIL_ADDRESS),
+            Rules.field("lifetimeSpent", LIFETIME_SPENT));
+
     private Customer customerToValidate;
 
     public CustomerValidator(Customer customerToValidate) {
@@ -20,10 +46,7 @@ public class CustomerValidator {
      * @return an error message if the active status is null, otherwise an empty string
      */
     public String validateCustomerActiveStatus() {
-        if (customerToValidate.getActive() == null) {
-            return " Customer Active Status is null.";
-        }
-        return "";
+        return Rules.orEmpty(ACTIVE.check(customerToValidate));
     }
 
     /**
@@ -32,15 +55,7 @@ public class CustomerValidator {
      * @return an error message if the name is null, empty, or exceeds 50 characters, otherwise an empty string
      */
     public String validateCustomerName() {
-        String name = customerToValidate.getName();
-        if (name == null) {
-            return " Customer Name is null.";
-        } else if (name.isEmpty()) {
-            return " Customer Name is blank.";
-        } else if (name.length() > 50) {
-            return " Customer Name must be less than 50 characters.";
-        }
-        return "";
+        return Rules.orEmpty(NAME.check(customerToValidate));
     }
 
     /**
@@ -49,24 +64,7 @@ public class CustomerValidator {
      * @return an error message if the email address is null or invalid, otherwise an empty string
      */
     public String validateCustomerEmailAddress() {
-        String email = customerToValidate.getEmailAddress();
-        if (email == null) {
-            return " Email Address is null.";
-        } else if (!isValidEmail(email)) {
-            return " Email Address must be in the following format: x@x.x";
-        }
-        return "";
-    }
-
-    /**
-     * Checks if the provided email address is in a valid format.
-     *
-     * @param email the email address to validate
-     * @return true if the email address is valid, otherwise false
-     */
-    private Boolean isValidEmail(String email) {
-        String emailRegex = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
-        return email.matches(emailRegex);
+        return Rules.orEmpty(EMAIL_ADDRESS.check(customerToValidate.getEmailAddress()));
     }
 
     /**
@@ -75,11 +73,7 @@ public class CustomerValidator {
      * @return an error message if the lifetime spent is negative, otherwise an empty string
      */
     public String validateCustomerLifeTimeSpent() {
-        Double lifetimeSpent = customerToValidate.getLifetimeSpent();
-        if (lifetimeSpent < 0) {
-            return " Lifetime Spent must be a non-negative value.";
-        }
-        return "";
+        return Rules.orEmpty(LIFETIME_SPENT.check(customerToValidate));
     }
 
 
@@ -90,12 +84,16 @@ public class CustomerValidator {
      * @return concatenated error messages if any field is invalid, otherwise an empty string
      */
     public String validateCustomer(Customer customerToValidate) {
-        String error1 = validateCustomerActiveStatus();
-        String error2 = validateCustomerName();
-        String error3 = validateCustomerEmailAddress();
-        String error4 = validateCustomerLifeTimeSpent();
+        return RULES.concatenate(this.customerToValidate);
+    }
 
-        return error1 + error2 + error3 + error4;
+    /**
+     * Validates all fields of the customer, naming the field of each error.
+     *
+     * @return the errors of invalid fields, otherwise an empty array
+     */
+    public FieldError[] checkCustomer() {
+        return RULES.check(customerToValidate);
     }
 
     /**
@@ -105,29 +103,7 @@ public class CustomerValidator {
      * @return the formatted Customer object
      */
     public Customer formatCustomer(Customer customerToFormat) {
-        customerToFormat.setLifetimeSpent(
-                Double.valueOf(
-                        df.format(customerToFormat.getLifetimeSpent())));
+        customerToFormat.setLifetimeSpent(MoneyRounding.round(customerToFormat.getLifetimeSpent()));
         return customerToFormat;
     }
-
-    /**
-     * Checks if a customer name is unique in the list of customers.
-     *
-     * @param customerName the customer name to check
-     * @param listOfCustomers the list of customers to check against
-     *                        optional @param customerId utilized in editCustomer
-     * @return an error message if a matching name already exists, otherwise an empty string
-     */
-    public String isUniqueName(String customerName, List<Customer> listOfCustomers) {
-        return isUniqueName(customerName, listOfCustomers, -1);
-    }
-    public String isUniqueName(String customerName, List<Customer> listOfCustomers, Integer customerId) {
-        for (Customer customer : listOfCustomers) {
-            if (customer.getId() != (customerId) && customer.getName().equalsIgnoreCase(customerName)) {
-                return " Customer with matching name already exists.";
-            }
-        }
-        return "";
-    }
 }
@@ -0,0 +1,76 @@
+package io.catalyte.demo.dryrun;
+
+import io.catalyte.demo.validation.FieldError;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * What a dry run checks for one kind of entity: the rules its create endpoint applies and,
+ * when it has one, the key that must be unique in the table and within the batch.
+ * Rows are checked on many threads at once, so the check must not share mutable state.
+ *
+ * @param <T> the entity
+ */
+public final class DryRun<T> {
+
+    private final Class<T> type;
+    private final Function<? super T, FieldError[]> check;
+    private final Function<? super T, String> uniqueKey;
+    private final Function<Collection<String>, ? extends Collection<String>> findExistingKeys;
+    private final FieldError keyExists;
+
+    private DryRun(Class<T> type, Function<? super T, FieldError[]> check, Function<? super T, String> uniqueKey,
+                   Function<Collection<String>, ? extends Collection<String>> findExistingKeys, FieldError keyExists) {
+        this.type = type;
+        this.check = check;
+        this.uniqueKey = uniqueKey;
+        this.findExistingKeys = findExistingKeys;
+        this.keyExists = keyExists;
+    }
+
+    /**
+     * @param type the entity rows are read as
+     * @param check the rules of the create endpoint; may prepare the row first, as the endpoint does
+     * @return a dry run without a uniqueness check
+     */
+    public static <T> DryRun<T> of(Class<T> type, Function<? super T, FieldError[]> check) {
+        return new DryRun<>(type, check, null, null, null);
+    }
+
+    /**
+     * @param uniqueKey the key of a row, or null when it has none to check
+     * @param findExistingKeys the given keys that are already in the table, read with one query
+     * @param keyExists the error of a row whose key is taken
+     * @return this dry run, also checking that the key is unique
+     */
+    public DryRun<T> unique(Function<? super T, String> uniqueKey,
+                            Function<Collection<String>, ? extends Collection<String>> findExistingKeys,
+                            FieldError keyExists) {
+        return new DryRun<>(type, check, uniqueKey, findExistingKeys, keyExists);
+    }
+
+    Class<T> getType() {
+        return type;
+    }
+
+    FieldError[] check(T row) {
+        return check.apply(row);
+    }
+
+    boolean isUnique() {
+        return uniqueKey != null;
+    }
+
+    String uniqueKey(T row) {
+        return uniqueKey.apply(row);
+    }
+
+    Collection<String> findExistingKeys(Collection<String> keys) {
+        return findExistingKeys.apply(keys);
+    }
+
+    FieldError getKeyExists() {
+        return keyExists;
+    }
+}
@@ -0,0 +1,40 @@
+package io.catalyte.demo.dryrun;
+
+import io.catalyte.demo.validation.FieldError;
+
+import java.util.List;
+
+/**
+ * The outcome of one row of a dry run, written as one line of the response.
+ */
+public class DryRunResult {
+
+    private final int row;
+    private final List<FieldError> errors;
+
+    public DryRunResult(int row, FieldError[] errors) {
+        this.row = row;
+        this.errors = List.of(errors);
+    }
+
+    /**
+     * @return the 1-based position of the row in the request
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return true when the row would be saved
+     */
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    /**
+     * @return why the row would be rejected, empty when it is valid
+     */
+    public List<FieldError> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,203 @@
+package io.catalyte.demo.dryrun;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.catalyte.demo.validation.FieldError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Validates many rows without saving any of them.
+ * Rows are read from the request stream in chunks; each chunk is checked in parallel on the common
+ * fork-join pool, checked for taken keys against the batch and the table with a single query, and its
+ * results are written out before the next chunk is read. Newline-delimited rows are also parsed in
+ * parallel, one line per row; a JSON array can only be parsed in order.
+ */
+@Service
+public class DryRunValidator {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final FieldError[] ROW_IS_EMPTY = {new FieldError(null, "Row is empty")};
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+
+    @Autowired
+    public DryRunValidator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(DryRunResult.class);
+    }
+
+    /**
+     * Reads rows from a JSON array or from newline-delimited JSON and checks each one like its create endpoint.
+     * Nothing is written to the database.
+     *
+     * @param body the request body
+     * @param contentType the type of the request body
+     * @param dryRun the checks to apply
+     * @return one newline-delimited result per row, in row order, written while the body is read
+     */
+    public <T> StreamingResponseBody validate(InputStream body, MediaType contentType, DryRun<T> dryRun)
+            throws IOException {
+        ObjectReader reader = objectMapper.readerFor(dryRun.getType());
+        if (contentType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            return out -> {
+                try (lines) {
+                    validateLines(lines, reader, dryRun, out);
+                }
+            };
+        }
+
+        MappingIterator<T> values;
+        try {
+            values = reader.readValues(body);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request body is not valid JSON");
+        }
+        return out -> {
+            try (values) {
+                validateValues(values, dryRun, out);
+            }
+        };
+    }
+
+    private <T> void validateLines(BufferedReader lines, ObjectReader reader, DryRun<T> dryRun, OutputStream out)
+            throws IOException {
+        Set<String> batchKeys = new HashSet<>();
+        List<Row<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+        int received = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String text = line;
+            received++;
+            chunk.add(() -> reader.readValue(text));
+            if (chunk.size() == CHUNK_SIZE) {
+                validateChunk(chunk, received - chunk.size() + 1, dryRun, batchKeys, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            validateChunk(chunk, received - chunk.size() + 1, dryRun, batchKeys, out);
+        }
+    }
+
+    private <T> void validateValues(MappingIterator<T> values, DryRun<T> dryRun, OutputStream out) throws IOException {
+        Set<String> batchKeys = new HashSet<>();
+        List<Row<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+        int received = 0;
+        while (true) {
+            T value;
+            try {
+                if (!values.hasNextValue()) {
+                    break;
+                }
+                value = values.nextValue();
+            } catch (JsonProcessingException e) {
+                // The parser can't resynchronize after malformed input, so the dry run stops here
+                received++;
+                chunk.add(() -> {
+                    throw e;
+                });
+                break;
+            }
+            received++;
+            chunk.add(() -> value);
+            if (chunk.size() == CHUNK_SIZE) {
+                validateChunk(chunk, received - chunk.size() + 1, dryRun, batchKeys, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            validateChunk(chunk, received - chunk.size() + 1, dryRun, batchKeys, out);
+        }
+    }
+
+    private <T> void validateChunk(List<Row<T>> chunk, int firstRow, DryRun<T> dryRun, Set<String> batchKeys,
+                                   OutputStream out) throws IOException {
+        FieldError[][] rowErrors = new FieldError[chunk.size()][];
+        String[] keys = new String[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> {
+            T value;
+            try {
+                value = chunk.get(i).read();
+            } catch (JsonProcessingException e) {
+                rowErrors[i] = new FieldError[] {new FieldError(null, "Row could not be parsed: " + e.getOriginalMessage())};
+                return;
+            }
+            if (value == null) {
+                rowErrors[i] = ROW_IS_EMPTY;
+                return;
+            }
+            rowErrors[i] = dryRun.check(value);
+            keys[i] = dryRun.isUnique() ? dryRun.uniqueKey(value) : null;
+        });
+
+        if (dryRun.isUnique()) {
+            checkKeys(rowErrors, keys, dryRun, batchKeys);
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            out.write(resultWriter.writeValueAsBytes(new DryRunResult(firstRow + i, rowErrors[i])));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static <T> void checkKeys(FieldError[][] rowErrors, String[] keys, DryRun<T> dryRun, Set<String> batchKeys) {
+        Set<String> candidateKeys = new HashSet<>();
+        for (String key : keys) {
+            if (key != null) {
+                candidateKeys.add(key);
+            }
+        }
+        Set<String> existingKeys = candidateKeys.isEmpty()
+                ? Set.of()
+                : new HashSet<>(dryRun.findExistingKeys(candidateKeys));
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null) {
+                continue;
+            }
+            if (existingKeys.contains(keys[i]) || batchKeys.contains(keys[i])) {
+                FieldError[] withKeyExists = Arrays.copyOf(rowErrors[i], rowErrors[i].length + 1);
+                withKeyExists[rowErrors[i].length] = dryRun.getKeyExists();
+                rowErrors[i] = withKeyExists;
+            } else if (rowErrors[i].length == 0) {
+                // Only a row that would be saved takes its key from the rows after it
+                batchKeys.add(keys[i]);
+            }
+        }
+    }
+
+    /**
+     * A row as read from the request, parsed when it is checked.
+     */
+    private interface Row<T> {
+        T read() throws JsonProcessingException;
+    }
+}
@@ -0,0 +1,80 @@
+package io.catalyte.demo.events;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+/**
+ * Published after an inventory entity has been written, in the transaction of the write.
+ * Listeners that must only see committed changes use {@code @TransactionalEventListener}, and can
+ * declare the entity type they care about, e.g.
+ * {@code @TransactionalEventListener(fallbackExecution = true) void on(InventoryChangeEvent<Movies> event)}.
+ *
+ * @param <T> the entity type
+ */
+public class InventoryChangeEvent<T> implements ResolvableTypeProvider {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Class<T> entityType;
+    private final Type type;
+    private final int id;
+    private final T entity;
+    private final T previous;
+
+    /**
+     * @param entityType the class of the changed entity
+     * @param type what happened to the entity
+     * @param id the id of the changed entity
+     * @param entity the entity as saved, or null when it was deleted
+     * @param previous a copy of the entity as it was read before the write, or null when it was created
+     *                 or the publisher doesn't keep one
+     */
+    public InventoryChangeEvent(Class<T> entityType, Type type, int id, T entity, T previous) {
+        this.entityType = entityType;
+        this.type = type;
+        this.id = id;
+        this.entity = entity;
+        this.previous = previous;
+    }
+
+    public static <T> InventoryChangeEvent<T> created(Class<T> entityType, int id, T entity) {
+        return new InventoryChangeEvent<>(entityType, Type.CREATED, id, entity, null);
+    }
+
+    public static <T> InventoryChangeEvent<T> updated(Class<T> entityType, int id, T entity, T previous) {
+        return new InventoryChangeEvent<>(entityType, Type.UPDATED, id, entity, previous);
+    }
+
+    public static <T> InventoryChangeEvent<T> deleted(Class<T> entityType, int id, T previous) {
+        return new InventoryChangeEvent<>(entityType, Type.DELETED, id, null, previous);
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    public T getPrevious() {
+        return previous;
+    }
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forClass(entityType));
+    }
+}
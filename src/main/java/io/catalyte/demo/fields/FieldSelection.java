@@ -0,0 +1,71 @@
+package io.catalyte.demo.fields;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The attributes a client asked for with the fields= query parameter of a list endpoint.
+ * Names are checked against the attributes the endpoint offers, so they are safe to put in a query.
+ * The id is always selected.
+ */
+public class FieldSelection {
+
+    private final List<String> fields;
+
+    private FieldSelection(List<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a comma-separated list of attribute names, e.g. "id,title".
+     *
+     * @param fields the fields= parameter, or null
+     * @param available the attributes the endpoint offers, in the order they are returned; the first is the id
+     * @return the selection in the order of available, or null when no fields were asked for
+     */
+    public static FieldSelection parse(String fields, List<String> available) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                requested.add(field.trim());
+            }
+        }
+        List<String> unknown = new ArrayList<>();
+        for (String field : requested) {
+            if (!available.contains(field)) {
+                unknown.add(field);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown fields: " + String.join(", ", unknown)
+                    + ". Available fields are " + String.join(", ", available));
+        }
+
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < available.size(); i++) {
+            if (i == 0 || requested.contains(available.get(i))) {
+                selected.add(available.get(i));
+            }
+        }
+        return new FieldSelection(selected);
+    }
+
+    /**
+     * @return the selected attributes, id first
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public boolean contains(String field) {
+        return fields.contains(field);
+    }
+}
@@ -0,0 +1,35 @@
+package io.catalyte.demo.fields;
+
+import java.util.function.Function;
+
+/**
+ * A field of an entity's JSON that is stored in another attribute, in another form,
+ * e.g. a price shown as "5.25" and stored as 525 cents.
+ */
+public final class MappedField {
+    private final String attribute;
+    private final Function<Object, Object> toJson;
+
+    private MappedField(String attribute, Function<Object, Object> toJson) {
+        this.attribute = attribute;
+        this.toJson = toJson;
+    }
+
+    /**
+     * @param attribute the persistent attribute the field is read from
+     * @param type the attribute's Java type
+     * @param toJson converts the attribute's value to the field's value
+     * @return the mapping
+     */
+    public static <A> MappedField of(String attribute, Class<A> type, Function<? super A, ?> toJson) {
+        return new MappedField(attribute, value -> toJson.apply(type.cast(value)));
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    Object toJson(Object value) {
+        return toJson.apply(value);
+    }
+}
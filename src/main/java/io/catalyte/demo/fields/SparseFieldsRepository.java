@@ -0,0 +1,115 @@
+package io.catalyte.demo.fields;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads only the selected attributes of every row of an entity, instead of whole entities.
+ * Plain attributes come from one query that selects just their columns; each selected
+ * element collection is read with one more query for all rows, and unselected ones not at all.
+ */
+@Repository
+public class SparseFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param entityClass the entity to read
+     * @param selection the attributes to read; the first is the id
+     * @return one map per row from attribute name to value, ordered by id
+     */
+    public List<Map<String, Object>> findAll(Class<?> entityClass, FieldSelection selection) {
+        return findAll(entityClass, selection, Map.of());
+    }
+
+    /**
+     * @param entityClass the entity to read
+     * @param selection the attributes to read; the first is the id
+     * @param mappedFields the selectable fields that are not attributes themselves, by field name
+     * @return one map per row from field name to value, ordered by id
+     */
+    public List<Map<String, Object>> findAll(Class<?> entityClass, FieldSelection selection,
+                                             Map<String, MappedField> mappedFields) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+        String idField = selection.getFields().get(0);
+        List<String> columns = new ArrayList<>();
+        List<String> collections = new ArrayList<>();
+        for (String field : selection.getFields()) {
+            if (!mappedFields.containsKey(field) && entityType.getAttribute(field).isCollection()) {
+                collections.add(field);
+            } else {
+                columns.add(field);
+            }
+        }
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<?> root = query.from(entityClass);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            MappedField mapped = mappedFields.get(column);
+            selections.add(root.get(mapped == null ? column : mapped.getAttribute()).alias(column));
+        }
+        query.multiselect(selections).orderBy(builder.asc(root.get(idField)));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<Object, Map<String, Object>> rowsById = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : selection.getFields()) {
+                MappedField mapped = mappedFields.get(field);
+                if (mapped != null) {
+                    row.put(field, mapped.toJson(tuple.get(field)));
+                } else {
+                    row.put(field, collections.contains(field) ? new ArrayList<>() : tuple.get(field));
+                }
+            }
+            rows.add(row);
+            rowsById.put(row.get(idField), row);
+        }
+
+        for (String collection : collections) {
+            // Names were checked against the entity's attributes by FieldSelection
+            String jpql = "select e." + idField + ", c from " + entityType.getName() + " e join e." + collection + " c";
+            for (Object[] element : entityManager.createQuery(jpql, Object[].class).getResultList()) {
+                Map<String, Object> row = rowsById.get(element[0]);
+                if (row != null) {
+                    @SuppressWarnings("unchecked")
+                    List<Object> elements = (List<Object>) row.get(collection);
+                    elements.add(element[1]);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Copies the selected attributes of a tuple into a map, in selection order.
+     * Tuple elements must be aliased with their attribute names, and none may be a collection.
+     *
+     * @param tuple a row that may hold more attributes than were selected
+     * @param selection the attributes to copy
+     * @return the attribute values by name
+     */
+    public static Map<String, Object> toRow(Tuple tuple, FieldSelection selection) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : selection.getFields()) {
+            row.put(field, tuple.get(field));
+        }
+        return row;
+    }
+}
@@ -1,9 +1,14 @@
 package io.catalyte.demo.ingredient;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.catalyte.demo.codes.Allergen;
+import io.catalyte.demo.codes.AllergenSetConverter;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 public class Ingredient {
@@ -14,9 +19,20 @@ public class Ingredient {
     private String name;
     private BigDecimal purchasingCost;
     private BigDecimal amount;
-    private String unitOfMeasure;
 
-    @ElementCollection
+    // The unit and allergens are stored as smallint codes and shown as the text fields below
+    @JsonIgnore
+    @Column(name = "unit_of_measure_code")
+    @Convert(converter = UnitOfMeasure.Converter.class)
+    private UnitOfMeasure unitOfMeasureCode;
+    @JsonIgnore
+    @Column(name = "allergen_mask")
+    @Convert(converter = AllergenSetConverter.class)
+    private Set<Allergen> allergenSet;
+
+    @Transient
+    private String unitOfMeasure;
+    @Transient
     private List<String> allergens;
 
     public Ingredient() {}
@@ -87,4 +103,30 @@ public class Ingredient {
     public void setAllergens(List<String> allergens) {
         this.allergens = allergens;
     }
+
+    public UnitOfMeasure getUnitOfMeasureCode() {
+        return unitOfMeasureCode;
+    }
+
+    public Set<Allergen> getAllergenSet() {
+        return allergenSet;
+    }
+
+    /**
+     * Sets the stored codes and the text fields shown for them.
+     *
+     * @param unitOfMeasureCode the unit of measure
+     * @param allergenSet the allergens
+     */
+    public void setCodes(UnitOfMeasure unitOfMeasureCode, EnumSet<Allergen> allergenSet) {
+        this.unitOfMeasureCode = unitOfMeasureCode;
+        this.allergenSet = allergenSet;
+        showCodes();
+    }
+
+    @PostLoad
+    void showCodes() {
+        this.unitOfMeasure = unitOfMeasureCode == null ? null : unitOfMeasureCode.getLabel();
+        this.allergens = Allergen.labels(allergenSet);
+    }
 }
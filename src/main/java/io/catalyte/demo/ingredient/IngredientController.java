@@ -1,10 +1,17 @@
 package io.catalyte.demo.ingredient;
 
+import io.catalyte.demo.dryrun.DryRunValidator;
 import io.catalyte.demo.ingredient.Ingredient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,23 +23,27 @@ public class IngredientController {
      * */
 
     IngredientService ingredientService;
+    DryRunValidator dryRunValidator;
 
     /**
      * @param ingredientService - the service for performing CRUD methods on Ingredient instances
+     * @param dryRunValidator - checks many ingredients without saving them
      * */
     @Autowired
-    public IngredientController(IngredientService ingredientService) {
+    public IngredientController(IngredientService ingredientService, DryRunValidator dryRunValidator) {
         this.ingredientService = ingredientService;
+        this.dryRunValidator = dryRunValidator;
     }
 
     /**
      * Retrieves all ingredients
+     * @param fields optional comma-separated attributes to return, e.g. "id,name"; only those columns are read
      * @return list of all ingredients
      */
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<Ingredient> getIngredients() {
-        return ingredientService.getIngredients();
+    public List<?> getIngredients(@RequestParam(required = false) String fields) {
+        return ingredientService.getIngredients(fields);
     }
 
     /**
@@ -59,6 +70,20 @@ public class IngredientController {
         return ingredientService.createIngredient(ingredientToCreate);
     }
 
+    /**
+     * Checks many ingredients like POST /ingredients without saving any
+     * @param body - a JSON array or newline-delimited JSON of ingredients, streamed from the request
+     * @param contentType - the type of the body
+     * @return one newline-delimited result per row, in row order, written while the body is read
+     */
+    @PostMapping(value = "/validate", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> validateIngredients(InputStream body,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(dryRunValidator.validate(body, contentType, ingredientService.getDryRun()));
+    }
+
     /**
      * Deletes a ingredient from the system.
      *
@@ -1,5 +1,7 @@
 package io.catalyte.demo.ingredient;
 
+import io.catalyte.demo.dryrun.DryRun;
+
 import java.util.List;
 
 public interface IngredientService {
@@ -9,6 +11,8 @@ public interface IngredientService {
 
     List<Ingredient> getIngredients();
 
+    List<?> getIngredients(String fields);
+
     Ingredient getIngredientById(int id);
 
 //    List<Ingredient> getIngredientByName(String name);
@@ -18,4 +22,8 @@ public interface IngredientService {
     Ingredient editIngredient(Ingredient ingredientToEdit, int id);
 
     void deleteIngredientById(int id);
+
+    // Bulk validation:
+
+    DryRun<Ingredient> getDryRun();
 }
@@ -1,12 +1,25 @@
 package io.catalyte.demo.ingredient;
 
+import io.catalyte.demo.codes.Allergen;
+import io.catalyte.demo.codes.Coded;
+import io.catalyte.demo.dryrun.DryRun;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.fields.FieldSelection;
+import io.catalyte.demo.fields.MappedField;
+import io.catalyte.demo.fields.SparseFieldsRepository;
+import io.catalyte.demo.validation.FieldError;
+import io.catalyte.demo.validation.ValidationFailedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service implementation & business logic layer.
@@ -14,17 +27,31 @@ import java.util.List;
  */
 @Service
 public class IngredientServiceImpl implements IngredientService {
+    static final List<String> LIST_FIELDS = List.of("id", "active", "name", "purchasingCost", "amount",
+            "unitOfMeasure", "allergens");
+    // The unit and allergens are shown as text but stored as small numbers
+    static final Map<String, MappedField> MAPPED_FIELDS = Map.of(
+            "unitOfMeasure", MappedField.of("unitOfMeasureCode", UnitOfMeasure.class, Coded::labelOf),
+            "allergens", MappedField.of("allergenSet", Set.class, Allergen::labelsOf));
+
     IngredientRepository ingredientRepository;
+    SparseFieldsRepository sparseFieldsRepository;
+    ApplicationEventPublisher eventPublisher;
     IngredientValidator ingredientValidator = new IngredientValidator();
 
     /**
      * Constructs a new instance of IngredientServiceImpl with the specified IngredientRepository.
      *
      * @param ingredientRepository The IngredientRepository instance to be used by this service.
+     * @param sparseFieldsRepository Reads the attributes selected with fields= on the list endpoint.
+     * @param eventPublisher Announces every change after it is saved.
      */
     @Autowired
-    public IngredientServiceImpl(IngredientRepository ingredientRepository) {
+    public IngredientServiceImpl(IngredientRepository ingredientRepository, SparseFieldsRepository sparseFieldsRepository,
+                                 ApplicationEventPublisher eventPublisher) {
         this.ingredientRepository = ingredientRepository;
+        this.sparseFieldsRepository = sparseFieldsRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -36,6 +63,21 @@ public class IngredientServiceImpl implements IngredientService {
         return ingredientRepository.findAll();
     }
 
+    /**
+     * Retrieves all ingredients, with only the selected attributes when fields are given.
+     * Only the selected columns are read then; the id is always included.
+     *
+     * @param fields Comma-separated attribute names, e.g. "id,name", or null for whole ingredients.
+     * @return A list of all ingredients, or one map of attribute values per ingredient.
+     */
+    public List<?> getIngredients(String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, LIST_FIELDS);
+        if (selection == null) {
+            return getIngredients();
+        }
+        return sparseFieldsRepository.findAll(Ingredient.class, selection, MAPPED_FIELDS);
+    }
+
     /**
      * Retrieves an ingredient by its ID.
      *
@@ -70,6 +112,7 @@ public class IngredientServiceImpl implements IngredientService {
      *                           purchasing cost, amount, and unit of measurement.
      * @return the created ingredient
      */
+    @Transactional
     public Ingredient createIngredient(Ingredient ingredientToCreate) {
         // Format the amount before saving
         BigDecimal formattedAmount = ingredientValidator.formatBigDecimal(ingredientToCreate.getAmount());
@@ -85,13 +128,30 @@ public class IngredientServiceImpl implements IngredientService {
         ingredientToCreate.setUnitOfMeasure(formattedUnitOfMeasure);
 
         // Validate ingredient information
-        String [] errorArray = ingredientValidator.validateIngredient(ingredientToCreate);
-        String errors = String.join(", ", errorArray); // Join array elements
-        if(!errors.isBlank()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errors);
+        FieldError[] errors = ingredientValidator.checkIngredient(ingredientToCreate);
+        if (errors.length > 0) {
+            throw new ValidationFailedException(errors, ", ");
         }
+        ingredientValidator.storeCodes(ingredientToCreate);
+
+        Ingredient createdIngredient = ingredientRepository.save(ingredientToCreate);
+        eventPublisher.publishEvent(InventoryChangeEvent.created(Ingredient.class, createdIngredient.getId(), createdIngredient));
+        return createdIngredient;
+    }
 
-        return ingredientRepository.save(ingredientToCreate);
+    /**
+     * The checks of createIngredient, for validating many ingredients without saving them.
+     * The unit of measure is upper-cased first, as createIngredient does; names need not be unique.
+     *
+     * @return the rules of a new ingredient
+     */
+    public DryRun<Ingredient> getDryRun() {
+        return DryRun.of(Ingredient.class, (Ingredient ingredient) -> {
+            if (ingredient.getUnitOfMeasure() != null) {
+                ingredient.setUnitOfMeasure(ingredient.getUnitOfMeasure().toUpperCase());
+            }
+            return ingredientValidator.checkIngredient(ingredient);
+        });
     }
 
     /**
@@ -101,10 +161,20 @@ public class IngredientServiceImpl implements IngredientService {
      * @param ingredientToEdit The updated ingredient data.
      * @return The updated ingredient.
      */
+    @Transactional
     public Ingredient editIngredient(Ingredient ingredientToEdit, int id) {
         if (ingredientRepository.findById(id).isPresent()) {
             ingredientToEdit.setId(id);
+            if (ingredientToEdit.getUnitOfMeasure() != null) {
+                ingredientToEdit.setUnitOfMeasure(ingredientToEdit.getUnitOfMeasure().toUpperCase());
+            }
+            FieldError[] errors = ingredientValidator.checkCodedFields(ingredientToEdit);
+            if (errors.length > 0) {
+                throw new ValidationFailedException(errors, ", ");
+            }
+            ingredientValidator.storeCodes(ingredientToEdit);
             ingredientRepository.save(ingredientToEdit);
+            eventPublisher.publishEvent(InventoryChangeEvent.updated(Ingredient.class, id, ingredientToEdit, null));
             return ingredientToEdit;
         } else throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Ingredient was not found.");
     }
@@ -115,9 +185,11 @@ public class IngredientServiceImpl implements IngredientService {
      * @param id The ID of the ingredient to delete.
      * @throws ResponseStatusException NOT_FOUND when an invalid ID is provided.
      */
+    @Transactional
     public void deleteIngredientById(int id) {
         if (getIngredientById(id) != null) {
             ingredientRepository.deleteById(id);
+            eventPublisher.publishEvent(InventoryChangeEvent.deleted(Ingredient.class, id, null));
         }
     }
 }
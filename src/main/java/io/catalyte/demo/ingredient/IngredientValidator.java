@@ -1,31 +1,61 @@
 package io.catalyte.demo.ingredient;
 
+import io.catalyte.demo.codes.Allergen;
+import io.catalyte.demo.validation.FieldError;
+import io.catalyte.demo.validation.Rule;
+import io.catalyte.demo.validation.RuleSet;
+import io.catalyte.demo.validation.Rules;
+import io.catalyte.demo.validation.TextRule;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * Formats BigDecimal variable types to be stored with two decimal places
+ * and validates Ingredients. The rules are compiled once, when the class is loaded.
  */
 public class IngredientValidator {
-    List<String> possibleMeasurements = Arrays.asList(
-            "OZ",
-            "ML",
-            "KG",
-            "LB",
-            "TSP",
-            "TBSP",
-            "CUPS"
-    );
-
-    List<String> possibleAllergens = Arrays.asList(
-            "Dairy",
-            "Soy",
-            "Gluten",
-            "Nuts"
-    );
+    private static final Rule<BigDecimal> AMOUNT = amount -> {
+        if (amount == null) {
+            return "Amount is null. Please add an amount greater than 0.";
+        }
+        return amount.doubleValue() <= 0 ? "Please add an amount greater than 0." : null;
+    };
+    private static final TextRule NAME = Rules.text()
+            .whenNull("Name field is null")
+            .whenBlank("Name field is empty")
+            .whenLongerThan(49, "Please enter an ingredient name shorter than 50 characters")
+            .build();
+    private static final Rule<Boolean> ACTIVE =
+            Rules.notNull("Null value not allowed. Please type 'true' for active OR 'false' for inactive.");
+    private static final Rule<BigDecimal> PURCHASING_COST = purchasingCost -> {
+        if (purchasingCost == null) {
+            return "The cost is null. Input a valid number";
+        }
+        return purchasingCost.compareTo(BigDecimal.ZERO) <= 0 ? "The cost must be greater than 0" : null;
+    };
+    private static final Rule<List<String>> ALLERGENS = Rules.elementsOf(
+            "Null values are not allowed. Please choose at least one allergen, if applicable: Dairy, Soy, Gluten, Nuts.",
+            Allergen.CODES.labels(),
+            "If this ingredient has an allergen, it must be one or more of the following: Dairy, Soy, Gluten, or Nuts. Values are case sensitive.");
+    private static final TextRule UNIT_OF_MEASURE = Rules.text()
+            .whenNull("Null values are not allowed. Please use one of the following: oz, ml, kg, lb, tsp, tbsp, cups.")
+            .whenEmpty("A unit of measure is required. Please use one of the following: oz, ml, kg, lb, tsp, tbsp, cups.")
+            .whenNotOneOf(UnitOfMeasure.CODES.labels(),
+                    "Invalid unit of measure. Please use one of the following: oz, ml, kg, lb, tsp, tbsp, cups.")
+            .build();
+    private static final RuleSet<Ingredient> RULES = RuleSet.of(
+            Rules.field("name", Ingredient::getName, NAME),
+            Rules.field("amount", Ingredient::getAmount, AMOUNT),
+            Rules.field("active", Ingredient::getActive, ACTIVE),
+            Rules.field("purchasingCost", Ingredient::getPurchasingCost, PURCHASING_COST),
+            Rules.field("allergens", Ingredient::getAllergens, ALLERGENS),
+            Rules.field("unitOfMeasure", Ingredient::getUnitOfMeasure, UNIT_OF_MEASURE));
+    // Edits aren't validated, but the unit and allergens can only be stored as one of their codes
+    private static final RuleSet<Ingredient> CODED_RULES = RuleSet.of(
+            Rules.field("allergens", Ingredient::getAllergens, ALLERGENS),
+            Rules.field("unitOfMeasure", Ingredient::getUnitOfMeasure, UNIT_OF_MEASURE));
 
     public BigDecimal formatBigDecimal(BigDecimal amount) {
         return amount.setScale(2, RoundingMode.HALF_UP);
@@ -38,13 +68,7 @@ public class IngredientValidator {
      * @return an error message for null, empty, zero, or non-numeric values
      */
     public String amountValidation(BigDecimal amount) {
-        String error = "";
-        if (amount == null) {
-            error = "Amount is null. Please add an amount greater than 0.";
-        } else if (amount.doubleValue() <= 0) {
-            error = "Please add an amount greater than 0.";
-        }
-        return error;
+        return Rules.orEmpty(AMOUNT.check(amount));
     }
 
     /**
@@ -54,15 +78,7 @@ public class IngredientValidator {
      * @return a list of error messages if the name is invalid; otherwise, an empty list
      */
     public String nameValidation(String name) {
-        String error = "";;
-        if (name == null) {
-            error = "Name field is null";
-        } else if (name.isBlank()) {
-            error = "Name field is empty";
-        } else if (name.length() >= 50) {
-            error = "Please enter an ingredient name shorter than 50 characters";
-        }
-        return error;
+        return Rules.orEmpty(NAME.check(name));
     }
 
     /**
@@ -72,11 +88,7 @@ public class IngredientValidator {
      * @return an error message if the status is null; only true or false are allowed
      */
     public String activeOrInactiveValidation(Boolean active) {
-        String error = "";
-        if (active == null) {
-            error = "Null value not allowed. Please type 'true' for active OR 'false' for inactive.";
-        }
-        return error;
+        return Rules.orEmpty(ACTIVE.check(active));
     }
 
     /**
@@ -85,13 +97,7 @@ public class IngredientValidator {
      * @return an error message if the cost is null or less than 0
      */
     public String purchasingCostValidation(BigDecimal purchasingCost) {
-        String error = "";
-        if(purchasingCost == null) {
-            error = "The cost is null. Input a valid number";
-        } else if (purchasingCost.compareTo(BigDecimal.ZERO) <= 0) {
-            error = "The cost must be greater than 0";
-        }
-        return error;
+        return Rules.orEmpty(PURCHASING_COST.check(purchasingCost));
     }
 
     /**
@@ -102,19 +108,7 @@ public class IngredientValidator {
      *         or an allergen not listed above.
      */
     public String allergenListValidation(List<String> allergens) {
-        String error = "";
-
-        if (allergens == null) {
-            error = "Null values are not allowed. Please choose at least one allergen, if applicable: Dairy, Soy, Gluten, Nuts.";
-        } else if (!allergens.isEmpty()) {
-            for (String allergen : allergens) {
-                if (!possibleAllergens.contains(allergen)) {
-                    error = "If this ingredient has an allergen, it must be one or more of the following: Dairy, Soy, Gluten, or Nuts. Values are case sensitive.";
-                    break;
-                }
-            }
-        }
-        return error;
+        return Rules.orEmpty(ALLERGENS.check(allergens));
     }
 
     /**
@@ -123,16 +117,7 @@ public class IngredientValidator {
      * @return an error message if one of the above measurements is not used, or a null or empty value is found
      */
     public String unitOfMeasurementValidation(String unitOfMeasure) {
-        String error = "";
-
-        if (unitOfMeasure == null) {
-            error = "Null values are not allowed. Please use one of the following: oz, ml, kg, lb, tsp, tbsp, cups.";
-        } else if (unitOfMeasure.isEmpty()) {
-            error = "A unit of measure is required. Please use one of the following: oz, ml, kg, lb, tsp, tbsp, cups.";
-        } else if (!possibleMeasurements.contains(unitOfMeasure)) {
-            error = "Invalid unit of measure. Please use one of the following: oz, ml, kg, lb, tsp, tbsp, cups.";
-        }
-        return error;
+        return Rules.orEmpty(UNIT_OF_MEASURE.check(unitOfMeasure));
     }
 
     /**
@@ -142,26 +127,36 @@ public class IngredientValidator {
      * @return an array of error messages for invalid fields; otherwise, an empty array
      */
     public String[] validateIngredient(Ingredient ingredient) {
-        List<String> errors = new ArrayList<>();
+        return RULES.validate(ingredient);
+    }
 
-        if(!nameValidation(ingredient.getName()).isEmpty()) {
-            errors.add(nameValidation(ingredient.getName()));
-        }
-        if(!amountValidation(ingredient.getAmount()).isEmpty()) {
-            errors.add(amountValidation(ingredient.getAmount()));
-        }
-        if(!activeOrInactiveValidation(ingredient.getActive()).isEmpty()) {
-            errors.add(activeOrInactiveValidation(ingredient.getActive()));
-        }
-        if(!purchasingCostValidation(ingredient.getPurchasingCost()).isEmpty()) {
-            errors.add(purchasingCostValidation(ingredient.getPurchasingCost()));
-        }
-        if(!allergenListValidation(ingredient.getAllergens()).isEmpty()) {
-            errors.add(allergenListValidation(ingredient.getAllergens()));
-        }
-        if(!unitOfMeasurementValidation(ingredient.getUnitOfMeasure()).isEmpty()) {
-            errors.add(unitOfMeasurementValidation(ingredient.getUnitOfMeasure()));
-        }
-        return errors.toArray(new String[0]);
+    /**
+     * Validates an ingredient's details, naming the field of each error.
+     *
+     * @param ingredient the ingredient to be validated
+     * @return the errors of invalid fields; otherwise, an empty array
+     */
+    public FieldError[] checkIngredient(Ingredient ingredient) {
+        return RULES.check(ingredient);
+    }
+
+    /**
+     * Validates only the unit of measure and allergens, which are stored as codes.
+     *
+     * @param ingredient the ingredient to be validated
+     * @return the errors of invalid fields; otherwise, an empty array
+     */
+    public FieldError[] checkCodedFields(Ingredient ingredient) {
+        return CODED_RULES.check(ingredient);
+    }
+
+    /**
+     * Stores the unit of measure and allergens of a validated ingredient as codes.
+     *
+     * @param ingredient an ingredient whose unit of measure and allergens are valid
+     */
+    public void storeCodes(Ingredient ingredient) {
+        ingredient.setCodes(UnitOfMeasure.CODES.fromLabel(ingredient.getUnitOfMeasure()),
+                Allergen.setOf(ingredient.getAllergens()));
     }
 }
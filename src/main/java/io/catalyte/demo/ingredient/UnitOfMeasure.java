@@ -0,0 +1,48 @@
+package io.catalyte.demo.ingredient;
+
+import io.catalyte.demo.codes.CodeConverter;
+import io.catalyte.demo.codes.Coded;
+import io.catalyte.demo.codes.Codes;
+
+/**
+ * The units an ingredient's amount is measured in, labelled in upper case as they are stored.
+ */
+public enum UnitOfMeasure implements Coded {
+    OZ(1, "OZ"),
+    ML(2, "ML"),
+    KG(3, "KG"),
+    LB(4, "LB"),
+    TSP(5, "TSP"),
+    TBSP(6, "TBSP"),
+    CUPS(7, "CUPS");
+
+    public static final Codes<UnitOfMeasure> CODES = Codes.of(UnitOfMeasure.class);
+
+    private final short code;
+    private final String label;
+
+    UnitOfMeasure(int code, String label) {
+        this.code = (short) code;
+        this.label = label;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Stores the unit in a smallint column.
+     */
+    @jakarta.persistence.Converter
+    public static class Converter extends CodeConverter<UnitOfMeasure> {
+        public Converter() {
+            super(CODES);
+        }
+    }
+}
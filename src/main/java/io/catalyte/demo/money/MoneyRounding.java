@@ -0,0 +1,85 @@
+package io.catalyte.demo.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Rounds amounts to two decimal places exactly like parsing what {@code new DecimalFormat("#.00")} prints:
+ * half-even rounding of the double's value, keeping the sign of negative amounts that round to zero.
+ * <p>
+ * Unlike DecimalFormat it holds no mutable state, so it is safe to share between request threads
+ * without locking. Amounts below 10^13 are rounded with integer arithmetic and nothing is allocated;
+ * larger amounts and exact ties below one are rare and fall back to BigDecimal.
+ * Prices stored as cents are formatted by {@link Pricing#formatCents(long)}.
+ */
+public final class MoneyRounding {
+    private static final double FAST_PATH_LIMIT = 1e13;
+    private static final BigDecimal HALF_CENT = new BigDecimal("0.005");
+
+    private MoneyRounding() {
+    }
+
+    /**
+     * Rounds an amount to two decimal places.
+     *
+     * @param amount the amount
+     * @return the double nearest to the amount as DecimalFormat "#.00" would print it;
+     *         NaN and infinite amounts are returned as they are
+     */
+    public static double round(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            return amount;
+        }
+        double magnitude = Math.abs(amount);
+        long cents = magnitude < FAST_PATH_LIMIT ? roundToCents(magnitude) : -1;
+        // Both operands are exact, so the division is correctly rounded like parsing the formatted text
+        double rounded = cents >= 0 ? cents / 100.0 : roundSlowly(magnitude).doubleValue();
+        return Math.copySign(rounded, amount);
+    }
+
+    /**
+     * Rounds a non-negative amount below 10^13 to whole cents, half to even.
+     *
+     * @return the cents, or -1 if the amount is an exact tie that needs the slow path
+     */
+    private static long roundToCents(double magnitude) {
+        long cents = (long) (magnitude * 100);
+        // The fused remainder is computed from the exact product; correct the truncated estimate by one cent
+        double remainder = Math.fma(magnitude, 100, -cents);
+        if (remainder < 0) {
+            cents--;
+            remainder = Math.fma(magnitude, 100, -cents);
+        } else if (remainder >= 1) {
+            cents++;
+            remainder = Math.fma(magnitude, 100, -cents);
+        }
+        if (remainder > 0.5) {
+            return cents + 1;
+        }
+        if (remainder < 0.5) {
+            return cents;
+        }
+        // From one up the remainder fits in a double, so 0.5 is an exact tie; below one it may be rounded
+        if (magnitude < 1) {
+            return -1;
+        }
+        return (cents & 1) == 0 ? cents : cents + 1;
+    }
+
+    /**
+     * DecimalFormat rounds the shortest decimal representation of the double and only looks at its exact
+     * binary value when that representation ends in an exact half cent.
+     */
+    private static BigDecimal roundSlowly(double magnitude) {
+        BigDecimal shortest = new BigDecimal(Double.toString(magnitude));
+        BigDecimal down = shortest.setScale(2, RoundingMode.DOWN);
+        if (shortest.subtract(down).compareTo(HALF_CENT) != 0) {
+            return shortest.setScale(2, RoundingMode.HALF_EVEN);
+        }
+        int exact = new BigDecimal(magnitude).compareTo(shortest);
+        if (exact == 0) {
+            return shortest.setScale(2, RoundingMode.HALF_EVEN);
+        }
+        return shortest.setScale(2, exact > 0 ? RoundingMode.UP : RoundingMode.DOWN);
+    }
+}
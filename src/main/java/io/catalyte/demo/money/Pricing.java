@@ -0,0 +1,165 @@
+package io.catalyte.demo.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point prices: amounts are whole cents and markups are basis points (hundredths of a percent),
+ * both held in a long, so sale prices are computed with exact integer arithmetic.
+ * Rounding to a cent or basis point is half-even, as DecimalFormat rounded the formatted prices.
+ */
+public final class Pricing {
+    private static final long BASIS_POINTS_PER_WHOLE = 10_000;
+
+    private Pricing() {
+    }
+
+    /**
+     * Parses an amount to cents.
+     *
+     * @param amount a number as {@link Double#parseDouble} accepts it, e.g. "5", "5.0" or "4.995"
+     * @return the amount in cents, rounded half-even from the exact decimal text
+     * @throws NumberFormatException if the text is not a finite number that fits in a long of cents
+     */
+    public static long parseCents(String amount) {
+        return parseHundredths(amount);
+    }
+
+    /**
+     * Parses a markup percentage to basis points.
+     *
+     * @param percent a percentage, e.g. "25" or "12.5"
+     * @return the markup in basis points, e.g. 2500 or 1250
+     * @throws NumberFormatException if the text is not a finite number that fits in a long of basis points
+     */
+    public static long parseBasisPoints(String percent) {
+        return parseHundredths(percent);
+    }
+
+    /**
+     * Computes the sale price of a cost with a markup: {@code cost + cost * markup / 100%}, rounded half-even
+     * to a cent.
+     *
+     * @param costCents the cost in cents
+     * @param markupBasisPoints the markup in basis points
+     * @return the sale price in cents
+     * @throws ArithmeticException if the sale price does not fit in a long of cents
+     */
+    public static long salePriceCents(long costCents, long markupBasisPoints) {
+        long scaled = Math.multiplyExact(costCents, Math.addExact(BASIS_POINTS_PER_WHOLE, markupBasisPoints));
+        long cents = scaled / BASIS_POINTS_PER_WHOLE;
+        long remainder = Math.abs(scaled % BASIS_POINTS_PER_WHOLE);
+        long half = BASIS_POINTS_PER_WHOLE / 2;
+        if (remainder > half || remainder == half && (cents & 1) != 0) {
+            cents += scaled < 0 ? -1 : 1;
+        }
+        return cents;
+    }
+
+    /**
+     * Formats cents like DecimalFormat "#.00" formats the amount, e.g. "12.35", ".50" or "-3.00".
+     *
+     * @param cents the amount in cents
+     * @return the formatted amount
+     */
+    public static String formatCents(long cents) {
+        // Parsed and computed amounts never reach Long.MIN_VALUE, so the magnitude fits
+        long magnitude = Math.abs(cents);
+        long whole = magnitude / 100;
+        char tenths = (char) ('0' + magnitude / 10 % 10);
+        char hundredths = (char) ('0' + magnitude % 10);
+        if (whole == 0) {
+            return cents < 0 ? "-." + tenths + hundredths : "." + tenths + hundredths;
+        }
+        return cents < 0 ? "-" + whole + '.' + tenths + hundredths : "" + whole + '.' + tenths + hundredths;
+    }
+
+    /**
+     * Formats basis points as a percentage without trailing zeros, e.g. "25", "12.5" or "0.25".
+     *
+     * @param basisPoints the markup in basis points
+     * @return the percentage
+     */
+    public static String formatPercent(long basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2).stripTrailingZeros().toPlainString();
+    }
+
+    private static long parseHundredths(String text) {
+        long parsed = parsePlainDecimal(text);
+        if (parsed != Long.MIN_VALUE) {
+            return parsed;
+        }
+        // Exponents, hex and surrounding whitespace are parsed as before, through the shortest decimal of the double
+        double value = Double.parseDouble(text);
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException("Not a finite number: \"" + text + "\"");
+        }
+        try {
+            return new BigDecimal(Double.toString(value)).setScale(2, RoundingMode.HALF_EVEN).unscaledValue()
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Out of range: \"" + text + "\"");
+        }
+    }
+
+    /**
+     * Parses {@code [+-]digits[.digits]} to hundredths, rounding half-even on the digits after the second decimal.
+     *
+     * @return the hundredths, or Long.MIN_VALUE if the text has another form or does not fit
+     */
+    private static long parsePlainDecimal(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long hundredths = 0;
+        int digits = 0;
+        int decimals = -1;
+        int roundingDigit = 0;
+        boolean sticky = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                return Long.MIN_VALUE;
+            }
+            digits++;
+            if (decimals < 0 || decimals < 2) {
+                if (hundredths > (Long.MAX_VALUE - 9) / 10) {
+                    return Long.MIN_VALUE;
+                }
+                hundredths = hundredths * 10 + (c - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else if (decimals == 2) {
+                roundingDigit = c - '0';
+                decimals++;
+            } else {
+                sticky |= c != '0';
+            }
+        }
+        if (digits == 0) {
+            return Long.MIN_VALUE;
+        }
+        for (int scale = Math.max(decimals, 0); scale < 2; scale++) {
+            if (hundredths > Long.MAX_VALUE / 10) {
+                return Long.MIN_VALUE;
+            }
+            hundredths *= 10;
+        }
+        if (roundingDigit > 5 || roundingDigit == 5 && (sticky || (hundredths & 1) != 0)) {
+            if (hundredths == Long.MAX_VALUE) {
+                return Long.MIN_VALUE;
+            }
+            hundredths++;
+        }
+        return negative ? -hundredths : hundredths;
+    }
+}
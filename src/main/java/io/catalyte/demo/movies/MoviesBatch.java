@@ -0,0 +1,33 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+
+import java.util.List;
+
+/**
+ * Movies requested together by id, and the ids that matched no movie.
+ */
+public class MoviesBatch {
+
+    private final List<Movies> movies;
+    private final List<Integer> missingIds;
+
+    public MoviesBatch(List<Movies> movies, List<Integer> missingIds) {
+        this.movies = movies;
+        this.missingIds = missingIds;
+    }
+
+    /**
+     * @return the movies found, in the order their ids were requested
+     */
+    public List<Movies> getMovies() {
+        return movies;
+    }
+
+    /**
+     * @return the requested ids with no movie, in request order
+     */
+    public List<Integer> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,179 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process read-through cache of movies by id.
+ * Entries are evicted least-recently-used once the cache is full, and expire after a fixed
+ * time to live. Writes made through MoviesServiceImpl invalidate the affected id.
+ * The cache keeps its own copy of each movie and hands every caller a new copy, so a caller
+ * that changes the movie it was given never changes what other readers see.
+ */
+public class MoviesCache {
+
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoTime;
+
+    // Access-ordered, so the first entry is always the least recently used
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped by every invalidation; a load that overlaps one is not cached, as it may have read the old row
+    private long invalidationCount;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MoviesCache(int maximumSize, Duration timeToLive) {
+        this(maximumSize, timeToLive, System::nanoTime);
+    }
+
+    MoviesCache(int maximumSize, Duration timeToLive, LongSupplier nanoTime) {
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the cached movie for an id, loading and caching it on a miss.
+     *
+     * @param id the ID of the movie
+     * @param loader reads the movie from the database
+     * @return the movie, or empty if the loader found none
+     */
+    public Optional<Movies> get(int id, IntFunction<Optional<Movies>> loader) {
+        long stamp;
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (nanoTime.getAsLong() - entry.loadedAt < timeToLiveNanos) {
+                    hits.increment();
+                    return Optional.of(copyOf(entry.movie));
+                }
+                entries.remove(id);
+                evictions.increment();
+            }
+            stamp = invalidationCount;
+        }
+
+        misses.increment();
+        Optional<Movies> loaded = loader.apply(id);
+        if (loaded.isPresent()) {
+            synchronized (this) {
+                if (stamp == invalidationCount) {
+                    entries.put(id, new Entry(copyOf(loaded.get()), nanoTime.getAsLong()));
+                    evictOverflow();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the cached movies for many ids, loading every miss with a single call to the loader.
+     *
+     * @param ids the IDs of the movies, without duplicates
+     * @param loader reads the missing movies from the database in one query
+     * @return the movies found, by id; ids with no movie are absent
+     */
+    public Map<Integer, Movies> getAll(Collection<Integer> ids, Function<List<Integer>, List<Movies>> loader) {
+        Map<Integer, Movies> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        long stamp;
+        synchronized (this) {
+            long now = nanoTime.getAsLong();
+            for (Integer id : ids) {
+                Entry entry = entries.get(id);
+                if (entry != null && now - entry.loadedAt < timeToLiveNanos) {
+                    found.put(id, copyOf(entry.movie));
+                    continue;
+                }
+                if (entry != null) {
+                    entries.remove(id);
+                    evictions.increment();
+                }
+                missing.add(id);
+            }
+            stamp = invalidationCount;
+        }
+        hits.add(found.size());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        misses.add(missing.size());
+        List<Movies> loaded = loader.apply(missing);
+        synchronized (this) {
+            long now = nanoTime.getAsLong();
+            for (Movies movie : loaded) {
+                found.put(movie.getId(), movie);
+                if (stamp == invalidationCount) {
+                    entries.put(movie.getId(), new Entry(copyOf(movie), now));
+                }
+            }
+            evictOverflow();
+        }
+        return found;
+    }
+
+    /**
+     * Drops a movie from the cache after it has been edited or deleted.
+     *
+     * @param id the ID of the movie
+     */
+    public synchronized void invalidate(int id) {
+        invalidationCount++;
+        entries.remove(id);
+    }
+
+    /**
+     * @return a snapshot of the hit, miss and eviction counters
+     */
+    public MoviesCacheStats getStats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new MoviesCacheStats(hits.sum(), misses.sum(), evictions.sum(), size, maximumSize);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Integer, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maximumSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static Movies copyOf(Movies movie) {
+        Movies copy = new Movies(movie.getTitle(), movie.getGenre(), movie.getDirector(), movie.getDailyRentalCost());
+        copy.setId(movie.getId());
+        copy.setVersion(movie.getVersion());
+        return copy;
+    }
+
+    private static final class Entry {
+        private final Movies movie;
+        private final long loadedAt;
+
+        private Entry(Movies movie, long loadedAt) {
+            this.movie = movie;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.catalyte.demo.movies;
+
+/**
+ * Counters of the movie cache, as reported by GET /movies/cache-stats.
+ */
+public class MoviesCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final int maximumSize;
+
+    public MoviesCacheStats(long hits, long misses, long evictions, int size, int maximumSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.maximumSize = maximumSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return entries dropped because the cache was full or their time to live ran out
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+}
@@ -0,0 +1,176 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Versions of the movie catalog and of each movie, for conditional GET requests.
+ * Every create, edit, delete or import moves the catalog forward; its version numbers every write,
+ * and a written movie is tagged with the version of its write, so no two tags of an instance are alike.
+ * Versions are counted in memory, so ETags include the time this instance started:
+ * an ETag handed out before a restart never matches afterwards.
+ * Only the tags of the most recently written movies are kept. A movie without one, because it was
+ * never written, was deleted or was dropped to keep the map bounded, shares the floor tag, and the floor
+ * moves forward whenever a tag is removed, so an old ETag never matches again.
+ * Tags must be read before the data they describe, so a response is never labelled newer than its body.
+ */
+@Component
+public class MoviesCatalogVersion {
+
+    static final int MAX_MOVIE_TAGS = 10_000;
+
+    private final LongSupplier clock;
+    private final String epoch;
+    private final Map<Integer, Tag> movieTags = new ConcurrentHashMap<>();
+    private volatile Tag catalogTag;
+    // Version and time of every movie without a tag of its own
+    private volatile Tag floor;
+
+    public MoviesCatalogVersion() {
+        this(System::currentTimeMillis);
+    }
+
+    MoviesCatalogVersion(LongSupplier clock) {
+        this.clock = clock;
+        long startedAt = clock.getAsLong();
+        this.epoch = Long.toString(startedAt, 36);
+        this.catalogTag = new Tag(0, "\"c." + epoch + ".0\"", startedAt, false);
+        this.floor = catalogTag;
+    }
+
+    /**
+     * Moves the catalog and the changed movie to a new version.
+     *
+     * @param event the change, received once its write has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMovieChanged(InventoryChangeEvent<Movies> event) {
+        long now = clock.getAsLong();
+        int id = event.getId();
+        Tag previous = getMovieTag(id);
+        catalogTag = catalogTag.next(catalogTag.version + 1, "\"c." + epoch + "." + (catalogTag.version + 1) + "\"", now);
+        long version = catalogTag.version;
+
+        if (event.getType() == InventoryChangeEvent.Type.DELETED) {
+            raiseFloor(version, now, previous.lastModified);
+            movieTags.remove(id);
+            return;
+        }
+        movieTags.put(id, previous.next(version, movieETag(id, version), now));
+        if (movieTags.size() > MAX_MOVIE_TAGS) {
+            // Written during this second, so If-Modified-Since can't tell the floor from it
+            raiseFloor(version, now, now);
+            movieTags.clear();
+        }
+    }
+
+    /**
+     * @return the tag of the movie list
+     */
+    public Tag getCatalogTag() {
+        return catalogTag;
+    }
+
+    /**
+     * @param id the movie id
+     * @return the tag of the movie
+     */
+    public Tag getMovieTag(int id) {
+        Tag tag = movieTags.get(id);
+        if (tag != null) {
+            return tag;
+        }
+        Tag floorTag = floor;
+        return new Tag(floorTag.version, movieETag(id, floorTag.version), floorTag.lastModified, floorTag.sharesSecond);
+    }
+
+    int getMovieTagCount() {
+        return movieTags.size();
+    }
+
+    private String movieETag(int id, long version) {
+        return "\"m." + epoch + "." + id + "." + version + "\"";
+    }
+
+    /**
+     * Moves every movie without a tag of its own to a new version.
+     *
+     * @param latestRemoved when the newest of the tags being removed was written
+     */
+    private void raiseFloor(long version, long now, long latestRemoved) {
+        Tag previousFloor = floor;
+        floor = new Tag(version, null, now,
+                Tag.sameSecond(now, previousFloor.lastModified) || Tag.sameSecond(now, latestRemoved));
+    }
+
+    /**
+     * Strong ETag and Last-Modified time of one version.
+     */
+    public static final class Tag {
+        private final long version;
+        private final String eTag;
+        private final long lastModified;
+        // An earlier version was written in the same second; If-Modified-Since only has whole seconds
+        private final boolean sharesSecond;
+
+        Tag(long version, String eTag, long lastModified, boolean sharesSecond) {
+            this.version = version;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.sharesSecond = sharesSecond;
+        }
+
+        private Tag next(long version, String eTag, long lastModified) {
+            return new Tag(version, eTag, lastModified, sameSecond(lastModified, this.lastModified));
+        }
+
+        private static boolean sameSecond(long a, long b) {
+            return a / 1000 == b / 1000;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * Tags another representation of the same version, e.g. one with only some fields.
+         *
+         * @param variant names the representation; characters other than letters and digits are replaced
+         * @return a tag with the same version whose ETag differs for every variant
+         */
+        public Tag withVariant(String variant) {
+            String safeVariant = variant.replaceAll("[^A-Za-z0-9]", "-");
+            return new Tag(version, eTag.substring(0, eTag.length() - 1) + ";" + safeVariant + "\"", lastModified,
+                    sharesSecond);
+        }
+
+        /**
+         * @return when the version was written, or when this instance started, in epoch milliseconds
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Checks a conditional request against this version and sets the ETag and Last-Modified headers.
+         * If-Modified-Since is only honored when no earlier version was written in the same second,
+         * since the client may hold either; If-None-Match always is.
+         *
+         * @param request the request with its If-None-Match and If-Modified-Since headers
+         * @return true when the client is current and a 304 has been prepared
+         */
+        public boolean checkNotModified(WebRequest request) {
+            if (sharesSecond) {
+                return request.checkNotModified(eTag);
+            }
+            return request.checkNotModified(eTag, lastModified);
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package io.catalyte.demo.movies;
 
-import java.util.List;
-
+import io.catalyte.demo.dryrun.DryRunValidator;
+import io.catalyte.demo.movies.bulk.MoviesImportReport;
+import io.catalyte.demo.movies.bulk.MoviesImportService;
+import io.catalyte.demo.movies.export.MoviesExporter;
+import io.catalyte.demo.movies.facets.MoviesFacets;
+import io.catalyte.demo.movies.facets.MoviesFacetsService;
 import io.catalyte.demo.movies.moviesEntity.Movies;
+import io.catalyte.demo.movies.search.MoviesSearchService;
+import io.catalyte.demo.movies.suggest.MoviesSuggestService;
+import io.catalyte.demo.movies.suggest.MoviesSuggestStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 @RestController
 @RequestMapping(value = "/movies")
@@ -17,35 +33,183 @@ public class MoviesController {
      * */
 
     private final MoviesService moviesService;
+    private final MoviesExporter moviesExporter;
+    private final MoviesImportService moviesImportService;
+    private final DryRunValidator dryRunValidator;
+    private final MoviesSearchService moviesSearchService;
+    private final MoviesSuggestService moviesSuggestService;
+    private final MoviesFacetsService moviesFacetsService;
+    private final MoviesCatalogVersion moviesCatalogVersion;
+    private final boolean unpaginatedListEnabled;
 
     /**
      * Injecting MoviesService implementation
      * @param moviesService - the service for performing CRUD methods on Movies instances
+     * @param moviesExporter - streams the catalog export
+     * @param moviesImportService - loads movies in bulk
+     * @param dryRunValidator - checks many movies without saving them
+     * @param moviesSearchService - searches the in-memory movie index
+     * @param moviesSuggestService - completes movie titles
+     * @param moviesFacetsService - keeps per-genre and per-director totals
+     * @param moviesCatalogVersion - versions for conditional GET requests
+     * @param unpaginatedListEnabled - whether GET /movies without paging parameters returns every movie
      * */
     @Autowired
-    public MoviesController(MoviesService moviesService) {
+    public MoviesController(MoviesService moviesService, MoviesExporter moviesExporter,
+                            MoviesImportService moviesImportService, DryRunValidator dryRunValidator,
+                            MoviesSearchService moviesSearchService,
+                            MoviesSuggestService moviesSuggestService, MoviesFacetsService moviesFacetsService,
+                            MoviesCatalogVersion moviesCatalogVersion,
+                            @Value("${movies.unpaginated-list-enabled:false}") boolean unpaginatedListEnabled) {
         this.moviesService = moviesService;
+        this.moviesExporter = moviesExporter;
+        this.moviesImportService = moviesImportService;
+        this.dryRunValidator = dryRunValidator;
+        this.moviesSearchService = moviesSearchService;
+        this.moviesSuggestService = moviesSuggestService;
+        this.moviesFacetsService = moviesFacetsService;
+        this.moviesCatalogVersion = moviesCatalogVersion;
+        this.unpaginatedListEnabled = unpaginatedListEnabled;
     }
 
     /**
-     * Retrieves all movies
-     * @return list of all movies
+     * Retrieves movies one page at a time.
+     * Small deployments can set movies.unpaginated-list-enabled to get the full list
+     * when no paging parameters are supplied.
+     * Answers 304 without reading the database when If-None-Match or If-Modified-Since shows the client is current.
+     * @param sort attribute to sort by: id, title, genre, director or dailyRentalCost
+     * @param direction asc or desc
+     * @param pageToken token returned with the previous page
+     * @param limit page size
+     * @param fields comma-separated attributes to return, e.g. "id,title"; only those columns are read
+     * @return a page of movies with the next page token, or the list of all movies
      */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<Movies> getMovies() {
-        return moviesService.getMovies();
+    public ResponseEntity<?> getMovies(@RequestParam(required = false) String sort,
+                                       @RequestParam(required = false) String direction,
+                                       @RequestParam(required = false) String pageToken,
+                                       @RequestParam(required = false) Integer limit,
+                                       @RequestParam(required = false) String fields,
+                                       WebRequest webRequest) {
+        MoviesCatalogVersion.Tag tag = moviesCatalogVersion.getCatalogTag();
+        if (fields != null) {
+            tag = tag.withVariant(fields);
+        }
+        if (tag.checkNotModified(webRequest)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(tag.getETag()).lastModified(tag.getLastModified());
+        boolean paged = sort != null || direction != null || pageToken != null || limit != null;
+        if (!paged && unpaginatedListEnabled) {
+            return response.body(moviesService.getMovies(fields));
+        }
+        return response.body(moviesService.getMoviesPage(sort, direction, pageToken, limit, fields));
     }
 
     /**
      * Retrieves a movies of specified ID
+     * Answers 304 without reading the database when If-None-Match or If-Modified-Since shows the client is current.
      * @param id is ID of movies
      * @return movies with specified ID
      */
     @GetMapping("/{id}")
+    public ResponseEntity<Movies> getMovieById(@PathVariable int id, WebRequest webRequest) {
+        MoviesCatalogVersion.Tag tag = moviesCatalogVersion.getMovieTag(id);
+        if (tag.checkNotModified(webRequest)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(tag.getETag()).lastModified(tag.getLastModified())
+                .body(moviesService.getMoviesById(id));
+    }
+
+    /**
+     * Retrieves many movies in one request, e.g. /movies/batch?ids=3,1,2
+     * @param ids IDs of the movies, at most 500
+     * @return movies in request order and the ids that were not found
+     */
+    @GetMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public MoviesBatch getMoviesByIds(@RequestParam List<Integer> ids) {
+        return moviesService.getMoviesByIds(ids);
+    }
+
+    /**
+     * Retrieves many movies in one request, for id lists too long for a URL
+     * @param ids - JSON array of the IDs of the movies, at most 500
+     * @return movies in request order and the ids that were not found
+     */
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public MoviesBatch postMoviesByIds(@RequestBody List<Integer> ids) {
+        return moviesService.getMoviesByIds(ids);
+    }
+
+    /**
+     * Searches movie titles, directors and genres without reading the database
+     * @param q words that must all appear; each word also matches longer words it starts
+     * @param limit maximum number of movies returned
+     * @return matching movies, best match first
+     */
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Movies> searchMovies(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return moviesSearchService.search(q, limit);
+    }
+
+    /**
+     * Completes a movie title as it is typed
+     * @param prefix start of the title, case is ignored
+     * @param limit maximum number of titles returned
+     * @return matching titles in alphabetical order
+     */
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public List<String> suggestTitles(@RequestParam String prefix, @RequestParam(required = false) Integer limit) {
+        return moviesSuggestService.suggest(prefix, limit);
+    }
+
+    /**
+     * Retrieves the memory use and lookup latency of title suggestions
+     * @return suggestion statistics
+     */
+    @GetMapping("/suggest/stats")
     @ResponseStatus(HttpStatus.OK)
-    public Movies getMovieById(@PathVariable int id) {
-        return moviesService.getMoviesById(id);
+    public MoviesSuggestStats getSuggestStats() {
+        return moviesSuggestService.getStats();
+    }
+
+    /**
+     * Retrieves movie counts and daily rental cost statistics per genre and per director
+     * @return facets, largest first
+     */
+    @GetMapping("/facets")
+    @ResponseStatus(HttpStatus.OK)
+    public MoviesFacets getFacets() {
+        return moviesFacetsService.getFacets();
+    }
+
+    /**
+     * Streams the whole catalog as a gzip-compressed columnar file,
+     * see MoviesColumnarFormat for the layout
+     * @return the export, written while it is read from the database
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMovies() {
+        StreamingResponseBody body = moviesExporter::export;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"movies.mvcf.gz\"")
+                .body(body);
+    }
+
+    /**
+     * Retrieves the hit, miss and eviction counters of the movie cache
+     * @return cache statistics
+     */
+    @GetMapping("/cache-stats")
+    @ResponseStatus(HttpStatus.OK)
+    public MoviesCacheStats getCacheStats() {
+        return moviesService.getCacheStats();
     }
 
     /**
@@ -59,8 +223,34 @@ public class MoviesController {
         return moviesService.createMovie(moviesToCreate);
     }
 
+    /**
+     * Creates many movies at once from a JSON array or newline-delimited JSON
+     * @param body - the movies to import, streamed from the request
+     * @return how many movies were read and saved, and the errors of each rejected row
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.OK)
+    public MoviesImportReport importMovies(InputStream body) throws IOException {
+        return moviesImportService.importMovies(body);
+    }
+
+    /**
+     * Checks many movies like POST /movies without saving any
+     * @param body - a JSON array or newline-delimited JSON of movies, streamed from the request
+     * @param contentType - the type of the body
+     * @return one newline-delimited result per row, in row order, written while the body is read
+     */
+    @PostMapping(value = "/validate", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> validateMovies(InputStream body,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(dryRunValidator.validate(body, contentType, moviesService.getDryRun()));
+    }
+
     /**
      * Edits a movies with specified ID
+     * When the body carries the version last read, an edit made in between is not overwritten (409)
      * @param id is ID of movies
      * @return edited movies and its ID
      * */
@@ -70,14 +260,28 @@ public class MoviesController {
         return moviesService.editMovie(moviesToEdit, id);
     }
 
+    /**
+     * Changes only the fields sent, e.g. {"dailyRentalCost": "4.99"}
+     * When the body carries the version last read, an edit made in between is not overwritten (409)
+     * @param id is ID of movies
+     * @param patch - the fields to change
+     * @return the whole movie after the change
+     */
+    @PatchMapping(value = "/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Movies patchMovie(@RequestBody MoviesPatch patch, @PathVariable int id) {
+        return moviesService.patchMovie(patch, id);
+    }
+
     /**
      * Deletes a movies with specified ID
      * @param id is ID of movies
+     * @param version the version last read; when given, a movie edited since is not deleted (409)
      */
     @DeleteMapping(value = "/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteMovieById(@PathVariable int id) {
-        moviesService.deleteMovieById(id);
+    public void deleteMovieById(@PathVariable int id, @RequestParam(required = false) Integer version) {
+        moviesService.deleteMovieById(id, version);
     }
 }
 
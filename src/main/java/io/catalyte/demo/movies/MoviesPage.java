@@ -0,0 +1,30 @@
+package io.catalyte.demo.movies;
+
+import java.util.List;
+
+/**
+ * One page of movies and the token to request the page after it.
+ *
+ * @param <T> whole movies, or maps holding only the selected fields
+ */
+public class MoviesPage<T> {
+
+    private final List<T> movies;
+    private final String nextPageToken;
+
+    public MoviesPage(List<T> movies, String nextPageToken) {
+        this.movies = movies;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<T> getMovies() {
+        return movies;
+    }
+
+    /**
+     * @return the token for the next page, or null when this is the last page
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+}
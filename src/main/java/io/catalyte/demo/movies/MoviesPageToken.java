@@ -0,0 +1,83 @@
+package io.catalyte.demo.movies;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The position of the last movie on a page, handed to clients as an opaque token.
+ * The next page is read by seeking past this position instead of skipping rows,
+ * so every page costs the same no matter how deep the client is.
+ */
+public class MoviesPageToken {
+
+    private static final String SEPARATOR = "|";
+
+    private final MoviesSortField sort;
+    private final boolean descending;
+    private final int lastId;
+    private final String lastValue;
+
+    public MoviesPageToken(MoviesSortField sort, boolean descending, int lastId, String lastValue) {
+        this.sort = sort;
+        this.descending = descending;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public MoviesSortField getSort() {
+        return sort;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getLastId() {
+        return lastId;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * Encodes this position as a URL-safe string.
+     *
+     * @return the opaque token
+     */
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + (descending ? "D" : "A") + SEPARATOR + lastId
+                + (lastValue == null ? "" : SEPARATOR + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the opaque token sent back by a client
+     * @return the decoded position
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static MoviesPageToken decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        // The sort value goes last so it may itself contain the separator
+        String[] parts = raw.split("\\|", 4);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Malformed page token");
+        }
+        MoviesSortField sort = MoviesSortField.valueOf(parts[0]);
+        if (!parts[1].equals("A") && !parts[1].equals("D")) {
+            throw new IllegalArgumentException("Malformed page token");
+        }
+        int lastId = Integer.parseInt(parts[2]);
+        String lastValue = parts.length == 4 ? parts[3] : null;
+        if ((sort == MoviesSortField.ID) != (lastValue == null)) {
+            throw new IllegalArgumentException("Malformed page token");
+        }
+        if (lastValue != null) {
+            // Rejects a cost that is not a number here rather than in the query
+            sort.parseValue(lastValue);
+        }
+        return new MoviesPageToken(sort, parts[1].equals("D"), lastId, lastValue);
+    }
+}
@@ -0,0 +1,110 @@
+package io.catalyte.demo.movies;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The body of PATCH /movies/{id}: only the fields present in the JSON are validated and written.
+ * Unknown fields are collected so they can be rejected; a misspelled field must not silently change nothing.
+ */
+public class MoviesPatch {
+
+    private String title;
+    private String genre;
+    private String director;
+    private BigDecimal dailyRentalCost;
+    private Integer version;
+    private boolean hasTitle;
+    private boolean hasGenre;
+    private boolean hasDirector;
+    private boolean hasDailyRentalCost;
+    private final List<String> unknownFields = new ArrayList<>();
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.hasTitle = true;
+    }
+
+    public boolean hasTitle() {
+        return hasTitle;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+        this.hasGenre = true;
+    }
+
+    public boolean hasGenre() {
+        return hasGenre;
+    }
+
+    public String getDirector() {
+        return director;
+    }
+
+    public void setDirector(String director) {
+        this.director = director;
+        this.hasDirector = true;
+    }
+
+    public boolean hasDirector() {
+        return hasDirector;
+    }
+
+    public BigDecimal getDailyRentalCost() {
+        return dailyRentalCost;
+    }
+
+    public void setDailyRentalCost(BigDecimal dailyRentalCost) {
+        this.dailyRentalCost = dailyRentalCost;
+        this.hasDailyRentalCost = true;
+    }
+
+    public boolean hasDailyRentalCost() {
+        return hasDailyRentalCost;
+    }
+
+    /**
+     * @return the version last read, or null to patch whatever version is stored
+     */
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    @JsonAnySetter
+    public void setUnknownField(String name, Object value) {
+        unknownFields.add(name);
+    }
+
+    /**
+     * @return the names of fields in the body that a movie doesn't have
+     */
+    @JsonIgnore
+    public List<String> getUnknownFields() {
+        return unknownFields;
+    }
+
+    /**
+     * @return whether no movie field is present
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return !hasTitle && !hasGenre && !hasDirector && !hasDailyRentalCost;
+    }
+}
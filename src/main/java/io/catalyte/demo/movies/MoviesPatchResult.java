@@ -0,0 +1,25 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+
+/**
+ * A movie after a patch, together with the values the patch replaced.
+ */
+public class MoviesPatchResult {
+
+    private final Movies movie;
+    private final Movies previous;
+
+    public MoviesPatchResult(Movies movie, Movies previous) {
+        this.movie = movie;
+        this.previous = previous;
+    }
+
+    public Movies getMovie() {
+        return movie;
+    }
+
+    public Movies getPrevious() {
+        return previous;
+    }
+}
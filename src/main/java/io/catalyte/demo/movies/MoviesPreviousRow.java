@@ -0,0 +1,27 @@
+package io.catalyte.demo.movies;
+
+import java.math.BigDecimal;
+
+/**
+ * A movie row as it was before a conditional update or delete, returned by the same statement.
+ */
+public interface MoviesPreviousRow {
+
+    String getTitle();
+
+    String getGenre();
+
+    String getDirector();
+
+    BigDecimal getCost();
+
+    /**
+     * @return the version after an update, or the version of the deleted row
+     */
+    Integer getVersion();
+
+    /**
+     * @return the version before the update or delete, null when the row had none
+     */
+    Integer getPreviousVersion();
+}
@@ -1,10 +1,17 @@
 package io.catalyte.demo.movies;
 
+import io.catalyte.demo.movies.facets.MoviesFacetRow;
 import io.catalyte.demo.movies.moviesEntity.Movies;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for accessing Movies entities in the database
@@ -13,6 +20,58 @@ import java.util.List;
 
 @Repository
 public interface MoviesRepository extends
-        JpaRepository<Movies, Integer> {
+        JpaRepository<Movies, Integer>, MoviesRepositoryCustom {
     List<Movies> findByTitleIgnoreCase(String title);
+
+    boolean existsByTitle(String title);
+
+    @Query("select m.title from Movies m where m.title in :titles")
+    List<String> findExistingTitles(@Param("titles") Collection<String> titles);
+
+    List<MoviesTitle> findTitlesBy();
+
+    /**
+     * Reads many movies by id with a single array parameter, so every list length shares one statement.
+     *
+     * @param ids the IDs of the movies
+     * @return the movies found, in no particular order
+     */
+    @Query(value = "SELECT * FROM movies WHERE id = ANY(:ids)", nativeQuery = true)
+    List<Movies> findAllByIdIn(@Param("ids") Integer[] ids);
+
+    @Query("select m.genre as genre, m.director as director, m.dailyRentalCost as dailyRentalCost, count(m) as movies"
+            + " from Movies m group by m.genre, m.director, m.dailyRentalCost")
+    List<MoviesFacetRow> countByGenreDirectorAndDailyRentalCost();
+
+    /**
+     * Updates a movie in one round trip, only if it still has the expected version.
+     * The row is locked by the subquery so the values returned are the ones replaced.
+     *
+     * @param version the version the client last read, or null to update whatever version is stored
+     * @return the previous values and the new version, or empty when no row matched
+     */
+    @Transactional
+    @Query(value = "UPDATE movies m SET title = :title, genre = :genre, director = :director,"
+            + " daily_rental_cost = :dailyRentalCost, version = COALESCE(m.version, 0) + 1"
+            + " FROM (SELECT id, title, genre, director, daily_rental_cost, version FROM movies WHERE id = :id FOR UPDATE) old"
+            + " WHERE m.id = old.id AND (CAST(:version AS integer) IS NULL OR m.version = :version)"
+            + " RETURNING old.title AS title, old.genre AS genre, old.director AS director,"
+            + " old.daily_rental_cost AS cost, m.version AS version, old.version AS previousVersion",
+            nativeQuery = true)
+    Optional<MoviesPreviousRow> updateIfVersionMatches(@Param("id") int id, @Param("version") Integer version,
+                                                       @Param("title") String title, @Param("genre") String genre,
+                                                       @Param("director") String director,
+                                                       @Param("dailyRentalCost") BigDecimal dailyRentalCost);
+
+    /**
+     * Deletes a movie in one round trip, only if it still has the expected version.
+     *
+     * @param version the version the client last read, or null to delete whatever version is stored
+     * @return the deleted values, or empty when no row matched
+     */
+    @Transactional
+    @Query(value = "DELETE FROM movies WHERE id = :id AND (CAST(:version AS integer) IS NULL OR version = :version)"
+            + " RETURNING title, genre, director, daily_rental_cost AS cost, version, version AS previousVersion",
+            nativeQuery = true)
+    Optional<MoviesPreviousRow> deleteIfVersionMatches(@Param("id") int id, @Param("version") Integer version);
 }
@@ -0,0 +1,44 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import jakarta.persistence.Tuple;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries on Movies that can't be expressed as derived query methods.
+ */
+public interface MoviesRepositoryCustom {
+
+    /**
+     * Reads movies in (sort, id) order starting right after the given position.
+     *
+     * @param sort the column to sort by
+     * @param descending whether to sort from high to low
+     * @param after the position of the last movie already returned, or null for the first page
+     * @param limit the maximum number of movies to return
+     * @return up to limit movies following the position
+     */
+    List<Movies> findPageAfter(MoviesSortField sort, boolean descending, MoviesPageToken after, int limit);
+
+    /**
+     * Reads only some columns of movies in (sort, id) order starting right after the given position.
+     *
+     * @param attributes the Movies attributes to select; each is aliased with its own name
+     * @return up to limit rows following the position
+     */
+    List<Tuple> findPageAfter(MoviesSortField sort, boolean descending, MoviesPageToken after, int limit,
+                              Collection<String> attributes);
+
+    /**
+     * Writes only the fields present in the patch, in one statement,
+     * and only if the movie still has the patch's version when it carries one.
+     *
+     * @param id the id of the movie to patch
+     * @param patch the fields to write
+     * @return the patched movie and the values it replaced, or empty when no row matched
+     */
+    Optional<MoviesPatchResult> patchIfVersionMatches(int id, MoviesPatch patch);
+}
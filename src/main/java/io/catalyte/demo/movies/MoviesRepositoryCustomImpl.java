@@ -0,0 +1,139 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implements the custom Movies queries with the JPA EntityManager.
+ */
+public class MoviesRepositoryCustomImpl implements MoviesRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Seeks with a row-value comparison on (sort column, id) so the database can walk
+     * the matching index from the last position instead of counting off an offset.
+     * The attribute names come from MoviesSortField, never from user input.
+     */
+    @Override
+    public List<Movies> findPageAfter(MoviesSortField sort, boolean descending, MoviesPageToken after, int limit) {
+        return pageQuery("select m", Movies.class, sort, descending, after, limit).getResultList();
+    }
+
+    /**
+     * Same seek as the entity page, but selects only the given columns.
+     * The attribute names come from FieldSelection and MoviesSortField, never from raw user input.
+     */
+    @Override
+    public List<Tuple> findPageAfter(MoviesSortField sort, boolean descending, MoviesPageToken after, int limit,
+                                     Collection<String> attributes) {
+        StringBuilder select = new StringBuilder("select ");
+        for (String attribute : attributes) {
+            if (select.length() > "select ".length()) {
+                select.append(", ");
+            }
+            select.append("m.").append(attribute).append(" as ").append(attribute);
+        }
+        return pageQuery(select.toString(), Tuple.class, sort, descending, after, limit).getResultList();
+    }
+
+    private <T> TypedQuery<T> pageQuery(String select, Class<T> resultType, MoviesSortField sort, boolean descending,
+                                        MoviesPageToken after, int limit) {
+        String column = "m." + sort.getAttribute();
+        String direction = descending ? " desc" : " asc";
+        String comparison = descending ? " < " : " > ";
+
+        StringBuilder jpql = new StringBuilder(select).append(" from Movies m");
+        if (after != null) {
+            if (sort == MoviesSortField.ID) {
+                jpql.append(" where m.id").append(comparison).append(":lastId");
+            } else {
+                jpql.append(" where (").append(column).append(", m.id)")
+                        .append(comparison).append("(:lastValue, :lastId)");
+            }
+        }
+        jpql.append(" order by ");
+        if (sort != MoviesSortField.ID) {
+            jpql.append(column).append(direction).append(", ");
+        }
+        jpql.append("m.id").append(direction);
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+        if (after != null) {
+            query.setParameter("lastId", after.getLastId());
+            if (sort != MoviesSortField.ID) {
+                query.setParameter("lastValue", sort.parseValue(after.getLastValue()));
+            }
+        }
+        return query.setMaxResults(limit);
+    }
+
+    /**
+     * Builds an UPDATE that sets only the patched columns, so unchanged columns are neither
+     * sent nor rewritten. The previous row is locked in a subquery and returned with the new one,
+     * so the caller learns both without reading the movie first.
+     */
+    @Override
+    @Transactional
+    public Optional<MoviesPatchResult> patchIfVersionMatches(int id, MoviesPatch patch) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        if (patch.hasTitle()) {
+            columns.put("title", patch.getTitle());
+        }
+        if (patch.hasGenre()) {
+            columns.put("genre", patch.getGenre());
+        }
+        if (patch.hasDirector()) {
+            columns.put("director", patch.getDirector());
+        }
+        if (patch.hasDailyRentalCost()) {
+            columns.put("daily_rental_cost", patch.getDailyRentalCost());
+        }
+
+        StringBuilder sql = new StringBuilder("UPDATE movies m SET ");
+        for (String column : columns.keySet()) {
+            sql.append(column).append(" = :").append(column).append(", ");
+        }
+        sql.append("version = COALESCE(m.version, 0) + 1")
+                .append(" FROM (SELECT id, title, genre, director, daily_rental_cost, version FROM movies")
+                .append(" WHERE id = :id FOR UPDATE) old WHERE m.id = old.id");
+        if (patch.getVersion() != null) {
+            sql.append(" AND m.version = :version");
+        }
+        sql.append(" RETURNING m.title, m.genre, m.director, m.daily_rental_cost, m.version,")
+                .append(" old.title, old.genre, old.director, old.daily_rental_cost, old.version");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        columns.forEach(query::setParameter);
+        query.setParameter("id", id);
+        if (patch.getVersion() != null) {
+            query.setParameter("version", patch.getVersion());
+        }
+
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        Movies movie = new Movies((String) row[0], (String) row[1], (String) row[2], (BigDecimal) row[3]);
+        movie.setId(id);
+        movie.setVersion(((Number) row[4]).intValue());
+        Movies previous = new Movies((String) row[5], (String) row[6], (String) row[7], (BigDecimal) row[8]);
+        previous.setId(id);
+        previous.setVersion(row[9] == null ? null : ((Number) row[9]).intValue());
+        return Optional.of(new MoviesPatchResult(movie, previous));
+    }
+}
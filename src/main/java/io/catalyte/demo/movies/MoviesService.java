@@ -1,5 +1,6 @@
 package io.catalyte.demo.movies;
 
+import io.catalyte.demo.dryrun.DryRun;
 import io.catalyte.demo.movies.moviesEntity.Movies;
 
 import java.util.List;
@@ -10,11 +11,29 @@ public interface MoviesService {
 
     List<Movies> getMovies();
 
+    List<?> getMovies(String fields);
+
+    MoviesPage<Movies> getMoviesPage(String sort, String direction, String pageToken, Integer limit);
+
+    MoviesPage<?> getMoviesPage(String sort, String direction, String pageToken, Integer limit, String fields);
+
     Movies getMoviesById(int id);
 
+    MoviesBatch getMoviesByIds(List<Integer> ids);
+
+    MoviesCacheStats getCacheStats();
+
     Movies createMovie(Movies movieToCreate);
 
     Movies editMovie(Movies movieToEdit, int id);
 
+    Movies patchMovie(MoviesPatch patch, int id);
+
     void deleteMovieById(int id);
+
+    void deleteMovieById(int id, Integer version);
+
+    // Bulk validation:
+
+    DryRun<Movies> getDryRun();
 }
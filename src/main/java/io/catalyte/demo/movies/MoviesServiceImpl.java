@@ -1,12 +1,30 @@
 package io.catalyte.demo.movies;
 
+import io.catalyte.demo.dryrun.DryRun;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.fields.FieldSelection;
+import io.catalyte.demo.fields.SparseFieldsRepository;
 import io.catalyte.demo.movies.moviesEntity.Movies;
+import io.catalyte.demo.uniqueness.UniqueKeyGuard;
+import io.catalyte.demo.validation.FieldError;
+import io.catalyte.demo.validation.ValidationFailedException;
+import jakarta.persistence.Tuple;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service implementation & business logic layer.
@@ -15,11 +33,28 @@ import java.util.List;
 @Service
 public class MoviesServiceImpl implements MoviesService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 500;
+    static final List<String> LIST_FIELDS = List.of("id", "title", "genre", "director", "dailyRentalCost", "version");
+    static final int CACHE_MAXIMUM_SIZE = 10_000;
+    static final Duration CACHE_TIME_TO_LIVE = Duration.ofMinutes(5);
+    static final String VERSION_CONFLICT_MESSAGE = "The movie was changed by another request; reload it and try again";
+    private static final FieldError TITLE_EXISTS = new FieldError("title", TitleUniqueValidator.TITLE_EXISTS_MESSAGE);
+
     private final MoviesRepository moviesRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SparseFieldsRepository sparseFieldsRepository;
+    private final UniqueKeyGuard uniqueKeyGuard = new UniqueKeyGuard();
+    private final MoviesValidation moviesValidation = new MoviesValidation();
+    private final MoviesCache moviesCache = new MoviesCache(CACHE_MAXIMUM_SIZE, CACHE_TIME_TO_LIVE);
 
     @Autowired
-    public MoviesServiceImpl(MoviesRepository moviesRepository) {
+    public MoviesServiceImpl(MoviesRepository moviesRepository, ApplicationEventPublisher eventPublisher,
+                             SparseFieldsRepository sparseFieldsRepository) {
         this.moviesRepository = moviesRepository;
+        this.eventPublisher = eventPublisher;
+        this.sparseFieldsRepository = sparseFieldsRepository;
     }
 
     /**
@@ -32,16 +67,132 @@ public class MoviesServiceImpl implements MoviesService {
     }
 
     /**
-     * Retrieves a movies by its ID.
+     * Retrieves all movies, with only the selected attributes when fields are given.
+     *
+     * @param fields comma-separated attribute names, e.g. "id,title", or null for whole movies
+     * @return a list of all movies, or one map of attribute values per movie
+     */
+    @Override
+    public List<?> getMovies(String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, LIST_FIELDS);
+        if (selection == null) {
+            return getMovies();
+        }
+        return sparseFieldsRepository.findAll(Movies.class, selection);
+    }
+
+    /**
+     * Retrieves one page of movies using keyset pagination.
+     * When a page token is given, the sort and direction are taken from the token.
+     *
+     * @param sort the attribute to sort by: id, title, genre, director or dailyRentalCost; defaults to id
+     * @param direction asc or desc; defaults to asc
+     * @param pageToken the token returned with the previous page, or null for the first page
+     * @param limit the page size; defaults to 50, at most 500
+     * @return the page of movies and the token for the next page
+     */
+    @Override
+    public MoviesPage<Movies> getMoviesPage(String sort, String direction, String pageToken, Integer limit) {
+        PageQuery page = PageQuery.parse(sort, direction, pageToken, limit);
+
+        // Read one extra row to learn whether another page follows
+        List<Movies> movies = moviesRepository.findPageAfter(page.sort, page.descending, page.after, page.size + 1);
+        if (movies.size() <= page.size) {
+            return new MoviesPage<>(movies, null);
+        }
+        Movies last = movies.get(page.size - 1);
+        return new MoviesPage<>(movies.subList(0, page.size), page.nextToken(last.getId(), page.sort.valueOf(last)));
+    }
+
+    /**
+     * Retrieves one page of movies using keyset pagination, with only the selected attributes when fields are given.
+     * Only the selected columns, and those the page token needs, are read.
+     *
+     * @param fields comma-separated attribute names, e.g. "id,title", or null for whole movies
+     * @return the page of movies or of maps of attribute values, and the token for the next page
+     */
+    @Override
+    public MoviesPage<?> getMoviesPage(String sort, String direction, String pageToken, Integer limit, String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, LIST_FIELDS);
+        if (selection == null) {
+            return getMoviesPage(sort, direction, pageToken, limit);
+        }
+        PageQuery page = PageQuery.parse(sort, direction, pageToken, limit);
+
+        Set<String> attributes = new LinkedHashSet<>(selection.getFields());
+        attributes.add(page.sort.getAttribute());
+        List<Tuple> rows = moviesRepository.findPageAfter(page.sort, page.descending, page.after, page.size + 1,
+                attributes);
+        String nextPageToken = null;
+        if (rows.size() > page.size) {
+            rows = rows.subList(0, page.size);
+            Tuple last = rows.get(page.size - 1);
+            nextPageToken = page.nextToken(last.get("id", Integer.class), page.sort.valueOf(last));
+        }
+        List<Map<String, Object>> movies = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            movies.add(SparseFieldsRepository.toRow(row, selection));
+        }
+        return new MoviesPage<>(movies, nextPageToken);
+    }
+
+    /**
+     * Retrieves a movies by its ID, from the cache when it holds the movie.
      * Throws a ResponseStatusException if the movies is not found.
      * @param id the ID of the movies to retrieve
      * @return the movies with the specified ID
      */
     public Movies getMoviesById(int id) {
-        return moviesRepository.findById(id)
+        return moviesCache.get(id, moviesRepository::findById)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Movie not found."));
     }
 
+    /**
+     * Retrieves many movies by id, taking cached movies from the cache and the rest with one query.
+     * A repeated id is only returned once.
+     *
+     * @param ids the IDs of the movies; at most 500 different ids
+     * @return the movies in request order, and the ids that matched no movie
+     */
+    @Override
+    public MoviesBatch getMoviesByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one id is required");
+        }
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ids must be whole numbers");
+        }
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+
+        Map<Integer, Movies> found = moviesCache.getAll(distinctIds,
+                missing -> moviesRepository.findAllByIdIn(missing.toArray(new Integer[0])));
+        List<Movies> movies = new ArrayList<>(found.size());
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer id : distinctIds) {
+            Movies movie = found.get(id);
+            if (movie != null) {
+                movies.add(movie);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MoviesBatch(movies, missingIds);
+    }
+
+    /**
+     * Retrieves the hit, miss and eviction counters of the movie cache.
+     *
+     * @return the cache statistics
+     */
+    @Override
+    public MoviesCacheStats getCacheStats() {
+        return moviesCache.getStats();
+    }
+
     /**
      * Creates a new movie in the repository
      *
@@ -49,58 +200,216 @@ public class MoviesServiceImpl implements MoviesService {
      * @return the created movie
      */
     @Override
+    @Transactional
     public Movies createMovie(Movies movieToCreate) {
-        MoviesValidation validator = new MoviesValidation();
-        TitleUniqueValidator titleValidator = new TitleUniqueValidator();
-
-        List<String> errors = List.of(validator.validateMovie(movieToCreate));
-        if (!errors.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.join(", ", errors));
+        FieldError[] errors = moviesValidation.checkMovie(movieToCreate);
+        if (errors.length > 0) {
+            throw new ValidationFailedException(errors, ", ");
         }
 
-        String titleValidationMessage = titleValidator.isTitleUnique(movieToCreate.getTitle(), getMovies());
-        if (!titleValidationMessage.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, titleValidationMessage);
+        if (moviesRepository.existsByTitle(movieToCreate.getTitle())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, TitleUniqueValidator.TITLE_EXISTS_MESSAGE);
         }
 
-        return moviesRepository.save(movieToCreate);
+        // Ids come from the sequence and versions start at zero; neither is taken from the client
+        movieToCreate.setId(0);
+        movieToCreate.setVersion(null);
+        Movies createdMovie = uniqueKeyGuard.save(() -> moviesRepository.saveAndFlush(movieToCreate),
+                HttpStatus.CONFLICT, TitleUniqueValidator.TITLE_EXISTS_MESSAGE);
+        eventPublisher.publishEvent(InventoryChangeEvent.created(Movies.class, createdMovie.getId(), createdMovie));
+        return createdMovie;
     }
 
     /**
-     * Edits an existing movies.
+     * The checks of createMovie, for validating many movies without saving them.
+     *
+     * @return the rules of a new movie, and its title, which must not be taken
+     */
+    @Override
+    public DryRun<Movies> getDryRun() {
+        return DryRun.of(Movies.class, moviesValidation::checkMovie)
+                .unique(Movies::getTitle, moviesRepository::findExistingTitles, TITLE_EXISTS);
+    }
+
+    /**
+     * Edits an existing movies with a single conditional UPDATE.
+     * When the movie carries a version, the edit only applies if that is still the stored version.
+     * A missing movie is reported before validation errors, so an invalid body for an unknown id is a 404.
      *
      * @param movieToEdit the movies with updated details
      * @param id the ID of the movies to update
-     * @return the updated movies
+     * @return the updated movies, with its new version
      */
+    @Transactional
     public Movies editMovie(Movies movieToEdit, int id) {
-        MoviesValidation validator = new MoviesValidation();
+        movieToEdit.setId(id);
+        FieldError[] errors = moviesValidation.checkMovie(movieToEdit);
+        if (errors.length > 0) {
+            // Only rejected bodies pay for the lookup; valid ones learn it from the UPDATE
+            if (!moviesRepository.existsById(id)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The movie was not found");
+            }
+            throw new ValidationFailedException(errors, ", ");
+        }
 
-        if (moviesRepository.findById(id).isPresent()) {
-            movieToEdit.setId(id);
+        Optional<MoviesPreviousRow> previousRow = uniqueKeyGuard.save(() -> moviesRepository.updateIfVersionMatches(
+                        id, movieToEdit.getVersion(), movieToEdit.getTitle(), movieToEdit.getGenre(),
+                        movieToEdit.getDirector(), movieToEdit.getDailyRentalCost()),
+                HttpStatus.CONFLICT, TitleUniqueValidator.TITLE_EXISTS_MESSAGE);
+        if (previousRow.isEmpty()) {
+            throw missingOrChanged(id, movieToEdit.getVersion(), "The movie was not found");
+        }
+        movieToEdit.setVersion(previousRow.get().getVersion());
+        invalidateCachedMovie(id);
+        eventPublisher.publishEvent(InventoryChangeEvent.updated(Movies.class, id, movieToEdit,
+                toMovie(id, previousRow.get())));
+        return movieToEdit;
+    }
 
-            List<String> errors = List.of(validator.validateMovie(movieToEdit));
-            if (!errors.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.join(", ", errors));
-            }
-            return moviesRepository.save(movieToEdit);
-        } else {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The movie was not found");
+    /**
+     * Changes only the fields present in the patch.
+     * Only those fields are validated, and the UPDATE only writes their columns.
+     *
+     * @param patch the fields to change, and optionally the version last read
+     * @param id the ID of the movies to update
+     * @return the whole movie after the patch, with its new version
+     */
+    @Override
+    @Transactional
+    public Movies patchMovie(MoviesPatch patch, int id) {
+        if (!patch.getUnknownFields().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown fields: " + String.join(", ", patch.getUnknownFields()));
+        }
+        if (patch.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No fields to update");
+        }
+        FieldError[] errors = moviesValidation.checkPatch(patch);
+        if (errors.length > 0) {
+            throw new ValidationFailedException(errors, ", ");
         }
+
+        Optional<MoviesPatchResult> result = uniqueKeyGuard.save(() -> moviesRepository.patchIfVersionMatches(id, patch),
+                HttpStatus.CONFLICT, TitleUniqueValidator.TITLE_EXISTS_MESSAGE);
+        if (result.isEmpty()) {
+            throw missingOrChanged(id, patch.getVersion(), "The movie was not found");
+        }
+        Movies patchedMovie = result.get().getMovie();
+        invalidateCachedMovie(id);
+        eventPublisher.publishEvent(InventoryChangeEvent.updated(Movies.class, id, patchedMovie,
+                result.get().getPrevious()));
+        return patchedMovie;
     }
 
     /**
-     * Deletes a movies by its ID
+     * Deletes a movies by its ID, whatever its version
      * Throws a ResponseStatusException if the movies is not found.
      * @param id the ID of the movies to retrieve
      */
+    @Transactional
     public void deleteMovieById(int id) {
-        if (moviesRepository.findById(id).isPresent()) {
-            moviesRepository.deleteById(id);
-        } else {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Movie with matching id could not be found.");
+        deleteMovieById(id, null);
+    }
+
+    /**
+     * Deletes a movies by its ID with a single conditional DELETE
+     * Throws a ResponseStatusException if the movies is not found, or has moved past the given version.
+     * @param id the ID of the movies to retrieve
+     * @param version the version the client last read, or null to delete any version
+     */
+    @Override
+    @Transactional
+    public void deleteMovieById(int id, Integer version) {
+        Optional<MoviesPreviousRow> deletedRow = moviesRepository.deleteIfVersionMatches(id, version);
+        if (deletedRow.isEmpty()) {
+            throw missingOrChanged(id, version, "Movie with matching id could not be found.");
         }
+        invalidateCachedMovie(id);
+        eventPublisher.publishEvent(InventoryChangeEvent.deleted(Movies.class, id, toMovie(id, deletedRow.get())));
     }
 
-}
+    /**
+     * Explains why a conditional write matched no row.
+     * Only this failure path pays for the extra query.
+     */
+    private ResponseStatusException missingOrChanged(int id, Integer version, String notFoundMessage) {
+        if (version != null && moviesRepository.existsById(id)) {
+            return new ResponseStatusException(HttpStatus.CONFLICT, VERSION_CONFLICT_MESSAGE);
+        }
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, notFoundMessage);
+    }
+
+    /**
+     * Drops a movie from the cache now and again once the write's transaction has ended,
+     * so a read of the old row that overlaps the commit isn't cached.
+     */
+    private void invalidateCachedMovie(int id) {
+        moviesCache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    moviesCache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private static Movies toMovie(int id, MoviesPreviousRow row) {
+        Movies movie = new Movies(row.getTitle(), row.getGenre(), row.getDirector(), row.getCost());
+        movie.setId(id);
+        movie.setVersion(row.getPreviousVersion());
+        return movie;
+    }
+
+    /**
+     * The position, order and size of a requested page, from the query parameters or the page token.
+     */
+    private static final class PageQuery {
+        private final MoviesSortField sort;
+        private final boolean descending;
+        private final MoviesPageToken after;
+        private final int size;
+
+        private PageQuery(MoviesSortField sort, boolean descending, MoviesPageToken after, int size) {
+            this.sort = sort;
+            this.descending = descending;
+            this.after = after;
+            this.size = size;
+        }
+
+        static PageQuery parse(String sort, String direction, String pageToken, Integer limit) {
+            int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+
+            if (pageToken != null && !pageToken.isEmpty()) {
+                MoviesPageToken after;
+                try {
+                    after = MoviesPageToken.decode(pageToken);
+                } catch (IllegalArgumentException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page token");
+                }
+                return new PageQuery(after.getSort(), after.isDescending(), after, pageSize);
+            }
+
+            MoviesSortField sortField = sort == null ? MoviesSortField.ID : MoviesSortField.fromAttribute(sort);
+            if (sortField == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Sort must be one of id, title, genre, director or dailyRentalCost");
+            }
+            if (direction == null || direction.equalsIgnoreCase("asc")) {
+                return new PageQuery(sortField, false, null, pageSize);
+            } else if (direction.equalsIgnoreCase("desc")) {
+                return new PageQuery(sortField, true, null, pageSize);
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Direction must be asc or desc");
+        }
 
+        String nextToken(int lastId, String lastValue) {
+            return new MoviesPageToken(sort, descending, lastId, lastValue).encode();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import jakarta.persistence.Tuple;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * The columns GET /movies can be sorted by when paging.
+ * Every sort is made unique by using the movie id as a tie-breaker.
+ */
+public enum MoviesSortField {
+    ID("id", Movies::getId),
+    TITLE("title", Movies::getTitle),
+    GENRE("genre", Movies::getGenre),
+    DIRECTOR("director", Movies::getDirector),
+    DAILY_RENTAL_COST("dailyRentalCost", Movies::getDailyRentalCost);
+
+    private final String attribute;
+    private final Function<Movies, Object> accessor;
+
+    MoviesSortField(String attribute, Function<Movies, Object> accessor) {
+        this.attribute = attribute;
+        this.accessor = accessor;
+    }
+
+    /**
+     * @return the name of the Movies attribute this field sorts on
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Reads the sort value of a movie, as written into a page token.
+     *
+     * @param movie the movie to read from
+     * @return the value of the sort column as a string, or null when sorting by id only
+     */
+    public String valueOf(Movies movie) {
+        if (this == ID) {
+            return null;
+        }
+        Object value = accessor.apply(movie);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Reads the sort value of a row that selected this field's attribute, as written into a page token.
+     *
+     * @param row a row read with only some of the movie's columns
+     * @return the value as a string, or null when sorting by id
+     */
+    public String valueOf(Tuple row) {
+        if (this == ID) {
+            return null;
+        }
+        Object value = row.get(attribute);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Converts a sort value read back from a page token to the attribute's type.
+     *
+     * @param value the value as written by {@link #valueOf(Movies)}
+     * @return the value typed for use as a query parameter
+     */
+    public Object parseValue(String value) {
+        if (this == DAILY_RENTAL_COST) {
+            return new BigDecimal(value);
+        }
+        return value;
+    }
+
+    /**
+     * Looks up a sort field by its attribute name, case-insensitively.
+     *
+     * @param attribute the attribute name, e.g. "dailyRentalCost"
+     * @return the matching sort field, or null if there is none
+     */
+    public static MoviesSortField fromAttribute(String attribute) {
+        for (MoviesSortField field : values()) {
+            if (field.attribute.equalsIgnoreCase(attribute)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
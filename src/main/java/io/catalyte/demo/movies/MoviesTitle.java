@@ -0,0 +1,11 @@
+package io.catalyte.demo.movies;
+
+/**
+ * Projection of a movie to its id and title, for loading titles without the other columns.
+ */
+public interface MoviesTitle {
+
+    int getId();
+
+    String getTitle();
+}
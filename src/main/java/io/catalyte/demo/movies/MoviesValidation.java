@@ -1,17 +1,71 @@
 package io.catalyte.demo.movies;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
 import java.util.List;
 
 import io.catalyte.demo.movies.moviesEntity.Movies;
+import io.catalyte.demo.validation.CharClass;
+import io.catalyte.demo.validation.FieldError;
+import io.catalyte.demo.validation.Rule;
+import io.catalyte.demo.validation.RuleSet;
+import io.catalyte.demo.validation.Rules;
+import io.catalyte.demo.validation.TextRule;
 import org.springframework.stereotype.Component;
 
 /**
  * Provides various validation methods for validating movies details.
+ * The rules are compiled once, when the class is loaded.
  */
 @Component
 public class MoviesValidation {
+    private static final CharClass NAME_CHARS = CharClass.of(CharClass.WHITESPACE + "-',.")
+            .plusRange('A', 'Z').plusRange('a', 'z');
+    private static final BigDecimal MAX_DAILY_RENTAL_COST = new BigDecimal("19.99");
+
+    private static final TextRule TITLE = Rules.text()
+            .whenNull("Title field is null")
+            .whenBlank("Title field is empty")
+            .whenLongerThan(50, "Please enter a tile shorter than 50 characters")
+            .whenContainsOtherThan(NAME_CHARS, "Title contains invalid characters")
+            .build();
+    private static final TextRule GENRE = Rules.text()
+            .whenNull("Genre field is null")
+            .whenBlank("Genre field is empty")
+            .whenLongerThan(20, "Please enter a genre less than 50 characters")
+            .whenContainsOtherThan(NAME_CHARS, "Genre contains invalid characters")
+            .build();
+    private static final TextRule DIRECTOR = Rules.text()
+            .whenNull("Director field is null")
+            .whenBlank("Director field is empty")
+            .whenLongerThan(50, "Please enter a director name shorter than 50 characters")
+            .whenContainsOtherThan(NAME_CHARS, "Director name contains invalid characters")
+            .build();
+    // A missing cost reaches these as the text "null", so it is reported as not a number
+    private static final Rule<BigDecimal> DAILY_RENTAL_COST_SCALE = cost -> {
+        if (cost == null) {
+            return "Daily rental cost is not a valid decimal number";
+        }
+        return cost.scale() > 2 ? "Daily rental cost can only have up to two decimal places" : null;
+    };
+    private static final Rule<BigDecimal> DAILY_RENTAL_COST_MAX = cost ->
+            cost != null && cost.compareTo(MAX_DAILY_RENTAL_COST) > 0
+                    ? "Daily rental cost exceeds the maximum allowed value of 19.99" : null;
+
+    private static final RuleSet<Movies> MOVIE_RULES = RuleSet.of(
+            Rules.field("title", Movies::getTitle, TITLE),
+            Rules.field("genre", Movies::getGenre, GENRE),
+            Rules.field("director", Movies::getDirector, DIRECTOR),
+            Rules.field("dailyRentalCost", Movies::getDailyRentalCost, DAILY_RENTAL_COST_SCALE),
+            Rules.field("dailyRentalCost", Movies::getDailyRentalCost, DAILY_RENTAL_COST_MAX));
+    private static final RuleSet<MoviesPatch> PATCH_RULES = RuleSet.of(
+            Rules.field("title", Rules.when(MoviesPatch::hasTitle, Rules.on(MoviesPatch::getTitle, TITLE))),
+            Rules.field("genre", Rules.when(MoviesPatch::hasGenre, Rules.on(MoviesPatch::getGenre, GENRE))),
+            Rules.field("director",
+                    Rules.when(MoviesPatch::hasDirector, Rules.on(MoviesPatch::getDirector, DIRECTOR))),
+            Rules.field("dailyRentalCost", Rules.when(MoviesPatch::hasDailyRentalCost,
+                    Rules.on(MoviesPatch::getDailyRentalCost, DAILY_RENTAL_COST_SCALE))),
+            Rules.field("dailyRentalCost", Rules.when(MoviesPatch::hasDailyRentalCost,
+                    Rules.on(MoviesPatch::getDailyRentalCost, DAILY_RENTAL_COST_MAX))));
 
     /**
      * Validates the movie's tile.
@@ -20,65 +74,33 @@ public class MoviesValidation {
      * @return a list of error messages if the tile is invalid; otherwise, an empty list
      */
     public List<String> titleValidation(String title) {
-        List<String> errors = new ArrayList<>();
-        if (title == null) {
-            errors.add("Title field is null");
-        } else if (title.isBlank()) {
-            errors.add("Title field is empty");
-        } else if (title.length() > 50) {
-            errors.add("Please enter a tile shorter than 50 characters");
-        } else if (!title.matches("[A-Za-z\\s\\-',.]*")) {
-            errors.add("Title contains invalid characters");
-        }
-        return errors;
+        return Rules.asList(TITLE.check(title));
     }
 
     public List<String> genreValidation(String genre) {
-        List<String> errors = new ArrayList<>();
-        if  (genre == null) {
-            errors.add("Genre field is null");
-        } else if (genre.isBlank()) {
-            errors.add("Genre field is empty");
-        } else if (genre.length() > 20) {
-            errors.add("Please enter a genre less than 50 characters");
-        } else if (!genre.matches("[A-Za-z\\s\\-',.]*")) {
-            errors.add("Genre contains invalid characters");
-        }
-        return errors;
+        return Rules.asList(GENRE.check(genre));
     }
 
     public List<String> directorValidation(String director) {
-        List<String> errors = new ArrayList<>();
-        if (director == null) {
-            errors.add("Director field is null");
-        } else if (director.isBlank()) {
-            errors.add("Director field is empty");
-        } else if (director.length() > 50) {
-            errors.add("Please enter a director name shorter than 50 characters");
-        } else if (!director.matches("[A-Za-z\\s\\-',.]*")) {
-            errors.add("Director name contains invalid characters");
-        }
-        return errors;
+        return Rules.asList(DIRECTOR.check(director));
     }
 
     public List<String> dailyRentalCostValidation(String dailyRentalCost) {
-        List<String> errors = new ArrayList<>();
         if (dailyRentalCost == null) {
-            errors.add("Daily rental cost field is null");
-        } else {
-            try {
-                BigDecimal cost = new BigDecimal(dailyRentalCost);
-                if (cost.scale() > 2) {
-                    errors.add("Daily rental cost can only have up to two decimal places");
-                }
-                if (cost.compareTo(new BigDecimal("19.99")) > 0) {
-                    errors.add("Daily rental cost exceeds the maximum allowed value of 19.99");
-                }
-            } catch (NumberFormatException e) {
-                errors.add("Daily rental cost is not a valid decimal number");
-            }
+            return List.of("Daily rental cost field is null");
+        }
+        BigDecimal cost;
+        try {
+            cost = new BigDecimal(dailyRentalCost);
+        } catch (NumberFormatException e) {
+            return List.of("Daily rental cost is not a valid decimal number");
         }
-        return errors;
+        String scaleError = DAILY_RENTAL_COST_SCALE.check(cost);
+        String maxError = DAILY_RENTAL_COST_MAX.check(cost);
+        if (scaleError != null && maxError != null) {
+            return List.of(scaleError, maxError);
+        }
+        return Rules.asList(scaleError != null ? scaleError : maxError);
     }
 
     /**
@@ -88,11 +110,36 @@ public class MoviesValidation {
      * @return an array of error messages for invalid fields; otherwise, an empty array
      */
     public String[] validateMovie(Movies movies) {
-        List<String> errors = new ArrayList<>();
-        errors.addAll(titleValidation(movies.getTitle()));
-        errors.addAll(genreValidation(movies.getGenre()));
-        errors.addAll(directorValidation(movies.getDirector()));
-        errors.addAll(dailyRentalCostValidation(String.valueOf(movies.getDailyRentalCost())));
-        return errors.toArray(new String[0]);
+        return MOVIE_RULES.validate(movies);
+    }
+
+    /**
+     * Validates only the fields present in a patch, with the same rules as a whole movie.
+     *
+     * @param patch the fields to change
+     * @return an array of error messages for invalid fields; otherwise, an empty array
+     */
+    public String[] validatePatch(MoviesPatch patch) {
+        return PATCH_RULES.validate(patch);
+    }
+
+    /**
+     * Validates the movie's details, naming the field of each error.
+     *
+     * @param movies the movies to be validated
+     * @return the errors of invalid fields; otherwise, an empty array
+     */
+    public FieldError[] checkMovie(Movies movies) {
+        return MOVIE_RULES.check(movies);
+    }
+
+    /**
+     * Validates only the fields present in a patch, naming the field of each error.
+     *
+     * @param patch the fields to change
+     * @return the errors of invalid fields; otherwise, an empty array
+     */
+    public FieldError[] checkPatch(MoviesPatch patch) {
+        return PATCH_RULES.check(patch);
     }
 }
@@ -0,0 +1,34 @@
+package io.catalyte.demo.movies.bulk;
+
+import java.util.List;
+
+/**
+ * The reasons one row of a bulk import was rejected.
+ */
+public class MoviesImportError {
+
+    private final int row;
+    private final String title;
+    private final List<String> errors;
+
+    public MoviesImportError(int row, String title, List<String> errors) {
+        this.row = row;
+        this.title = title;
+        this.errors = errors;
+    }
+
+    /**
+     * @return the 1-based position of the row in the request body
+     */
+    public int getRow() {
+        return row;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,31 @@
+package io.catalyte.demo.movies.bulk;
+
+import java.util.List;
+
+/**
+ * The outcome of a bulk import: how many rows were read and saved, and why the others were rejected.
+ */
+public class MoviesImportReport {
+
+    private final int received;
+    private final int imported;
+    private final List<MoviesImportError> errors;
+
+    public MoviesImportReport(int received, int imported, List<MoviesImportError> errors) {
+        this.received = received;
+        this.imported = imported;
+        this.errors = errors;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public List<MoviesImportError> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,184 @@
+package io.catalyte.demo.movies.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.MoviesValidation;
+import io.catalyte.demo.movies.TitleUniqueValidator;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import io.catalyte.demo.uniqueness.UniqueKeyGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Loads many movies in one request.
+ * Rows are read from the request stream in chunks; each chunk is validated in parallel,
+ * checked for duplicate titles against the batch and the table with a single query,
+ * and inserted in one transaction so Hibernate can batch the inserts. The chunk's change events are
+ * published in the same transaction, so the change log records the whole chunk with one batch as well.
+ */
+@Service
+public class MoviesImportService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final MoviesRepository moviesRepository;
+    private final ObjectReader movieReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MoviesValidation validator = new MoviesValidation();
+    private final UniqueKeyGuard uniqueKeyGuard = new UniqueKeyGuard();
+
+    @Autowired
+    public MoviesImportService(MoviesRepository moviesRepository, ObjectMapper objectMapper,
+                               ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.moviesRepository = moviesRepository;
+        this.movieReader = objectMapper.readerFor(Movies.class);
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Imports movies from a JSON array or from newline-delimited JSON.
+     * Valid rows are saved even when other rows are rejected.
+     *
+     * @param body the request body
+     * @return the number of rows read and saved, and the errors of every rejected row
+     */
+    public MoviesImportReport importMovies(InputStream body) throws IOException {
+        List<MoviesImportError> errors = new ArrayList<>();
+        Set<String> batchTitles = new HashSet<>();
+        List<Movies> chunk = new ArrayList<>(CHUNK_SIZE);
+        int received = 0;
+        int imported = 0;
+
+        MappingIterator<Movies> rows;
+        try {
+            rows = movieReader.readValues(body);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Request body is not valid JSON");
+        }
+        try (rows) {
+            while (true) {
+                Movies movie;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    movie = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // The parser can't resynchronize after malformed input, so the import stops here
+                    received++;
+                    errors.add(new MoviesImportError(received, null,
+                            List.of("Row could not be parsed: " + e.getOriginalMessage())));
+                    break;
+                }
+                received++;
+                chunk.add(movie);
+                if (chunk.size() == CHUNK_SIZE) {
+                    imported += importChunk(chunk, received - chunk.size() + 1, batchTitles, errors);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, received - chunk.size() + 1, batchTitles, errors);
+        }
+
+        errors.sort(Comparator.comparingInt(MoviesImportError::getRow));
+        return new MoviesImportReport(received, imported, errors);
+    }
+
+    private int importChunk(List<Movies> chunk, int firstRow, Set<String> batchTitles, List<MoviesImportError> errors) {
+        String[][] rowErrors = new String[chunk.size()][];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> {
+            Movies movie = chunk.get(i);
+            rowErrors[i] = movie == null ? new String[] {"Row is empty"} : validator.validateMovie(movie);
+        });
+
+        List<String> candidateTitles = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (rowErrors[i].length == 0) {
+                candidateTitles.add(chunk.get(i).getTitle());
+            }
+        }
+        Set<String> existingTitles = candidateTitles.isEmpty()
+                ? Set.of()
+                : new HashSet<>(moviesRepository.findExistingTitles(candidateTitles));
+
+        List<Movies> accepted = new ArrayList<>();
+        List<Integer> acceptedRows = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Movies movie = chunk.get(i);
+            int row = firstRow + i;
+            if (rowErrors[i].length > 0) {
+                errors.add(new MoviesImportError(row, movie == null ? null : movie.getTitle(), List.of(rowErrors[i])));
+            } else if (existingTitles.contains(movie.getTitle()) || !batchTitles.add(movie.getTitle())) {
+                errors.add(new MoviesImportError(row, movie.getTitle(), List.of(TitleUniqueValidator.TITLE_EXISTS_MESSAGE)));
+            } else {
+                // Ids come from the sequence; a client-supplied id or version must not turn the insert into an update
+                movie.setId(0);
+                movie.setVersion(null);
+                accepted.add(movie);
+                acceptedRows.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Movies saved : moviesRepository.saveAllAndFlush(accepted)) {
+                    eventPublisher.publishEvent(InventoryChangeEvent.created(Movies.class, saved.getId(), saved));
+                }
+            });
+            return accepted.size();
+        } catch (DataIntegrityViolationException e) {
+            if (!uniqueKeyGuard.isUniqueViolation(e)) {
+                throw e;
+            }
+            // A concurrent writer took a title after the check and the chunk was rolled back;
+            // fall back to saving row by row to find out which ones collide
+            return importRowByRow(accepted, acceptedRows, errors);
+        }
+    }
+
+    private int importRowByRow(List<Movies> accepted, List<Integer> acceptedRows, List<MoviesImportError> errors) {
+        int imported = 0;
+        for (int i = 0; i < accepted.size(); i++) {
+            Movies movie = accepted.get(i);
+            movie.setId(0);
+            movie.setVersion(null);
+            try {
+                uniqueKeyGuard.save(() -> transactionTemplate.execute(status -> {
+                    Movies saved = moviesRepository.saveAndFlush(movie);
+                    eventPublisher.publishEvent(InventoryChangeEvent.created(Movies.class, saved.getId(), saved));
+                    return saved;
+                }), HttpStatus.CONFLICT, TitleUniqueValidator.TITLE_EXISTS_MESSAGE);
+                imported++;
+            } catch (ResponseStatusException e) {
+                errors.add(new MoviesImportError(acceptedRows.get(i), movie.getTitle(), List.of(e.getReason())));
+            }
+        }
+        return imported;
+    }
+}
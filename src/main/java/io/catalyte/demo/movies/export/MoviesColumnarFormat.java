@@ -0,0 +1,81 @@
+package io.catalyte.demo.movies.export;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitive encodings of the movie catalog export format.
+ *
+ * <p>An export is a gzip stream holding:
+ * <pre>
+ * magic "MVCF", version byte
+ * row group*        rows are buffered into groups and written column by column
+ *   varint rowCount
+ *   varint n, n strings      genre values first seen in this group, appended to the genre dictionary
+ *   varint n, n strings      director values first seen in this group, appended to the director dictionary
+ *   rowCount strings         title column
+ *   rowCount varints         genre column, as dictionary ids
+ *   rowCount varints         director column, as dictionary ids
+ *   rowCount varints         dailyRentalCost column, as zigzag(cents) &lt;&lt; 1 | present
+ * varint 0                   end of export
+ * </pre>
+ * Strings are a varint byte length followed by UTF-8 bytes. Dictionary id 0 stands for null.
+ */
+public final class MoviesColumnarFormat {
+
+    static final byte[] MAGIC = {'M', 'V', 'C', 'F'};
+    static final int VERSION = 1;
+    static final int ROW_GROUP_SIZE = 4096;
+
+    private MoviesColumnarFormat() {
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated export");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(InputStream in) throws IOException {
+        int length = (int) readVarint(in);
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Truncated export");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,77 @@
+package io.catalyte.demo.movies.export;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static io.catalyte.demo.movies.export.MoviesColumnarFormat.*;
+
+/**
+ * Reads an export written by {@link MoviesColumnarWriter}, one row group at a time.
+ */
+public class MoviesColumnarReader {
+
+    /**
+     * Decodes an export and hands every movie to the consumer in export order.
+     *
+     * @param source the gzip-compressed export
+     * @param consumer receives each movie; ids are not part of the export
+     * @return the number of movies read
+     */
+    public long read(InputStream source, Consumer<Movies> consumer) throws IOException {
+        InputStream in = new BufferedInputStream(new GZIPInputStream(source, 64 * 1024), 64 * 1024);
+        byte[] magic = in.readNBytes(MAGIC.length);
+        if (!Arrays.equals(magic, MAGIC) || in.read() != VERSION) {
+            throw new IOException("Not a movie catalog export");
+        }
+
+        List<String> genres = new ArrayList<>();
+        List<String> directors = new ArrayList<>();
+        genres.add(null);
+        directors.add(null);
+
+        long total = 0;
+        int rowCount;
+        while ((rowCount = (int) readVarint(in)) != 0) {
+            readDictionary(in, genres);
+            readDictionary(in, directors);
+            String[] titles = new String[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                titles[i] = readString(in);
+            }
+            int[] genreIds = readIds(in, rowCount);
+            int[] directorIds = readIds(in, rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                long cost = readVarint(in);
+                BigDecimal dailyRentalCost = (cost & 1) == 0 ? null : BigDecimal.valueOf(unzigzag(cost >>> 1), 2);
+                consumer.accept(new Movies(titles[i], genres.get(genreIds[i]),
+                        directors.get(directorIds[i]), dailyRentalCost));
+            }
+            total += rowCount;
+        }
+        return total;
+    }
+
+    private static void readDictionary(InputStream in, List<String> dictionary) throws IOException {
+        long additions = readVarint(in);
+        for (long i = 0; i < additions; i++) {
+            dictionary.add(readString(in));
+        }
+    }
+
+    private static int[] readIds(InputStream in, int rowCount) throws IOException {
+        int[] ids = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            ids[i] = (int) readVarint(in);
+        }
+        return ids;
+    }
+}
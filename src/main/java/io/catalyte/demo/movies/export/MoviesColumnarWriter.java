@@ -0,0 +1,132 @@
+package io.catalyte.demo.movies.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static io.catalyte.demo.movies.export.MoviesColumnarFormat.*;
+
+/**
+ * Writes movies in the columnar export format described in {@link MoviesColumnarFormat}.
+ * Only one row group is buffered at a time, so memory stays constant apart from the
+ * genre and director dictionaries, which grow with the number of distinct values.
+ */
+public class MoviesColumnarWriter implements AutoCloseable {
+
+    private final GZIPOutputStream gzip;
+    private final OutputStream out;
+
+    private final Dictionary genres = new Dictionary();
+    private final Dictionary directors = new Dictionary();
+
+    private final String[] titles = new String[ROW_GROUP_SIZE];
+    private final int[] genreIds = new int[ROW_GROUP_SIZE];
+    private final int[] directorIds = new int[ROW_GROUP_SIZE];
+    private final long[] costs = new long[ROW_GROUP_SIZE];
+    private int rowCount;
+    private long totalRows;
+
+    public MoviesColumnarWriter(OutputStream target) throws IOException {
+        this.gzip = new GZIPOutputStream(target, 64 * 1024);
+        this.out = new BufferedOutputStream(gzip, 64 * 1024);
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    /**
+     * Adds one movie to the export.
+     *
+     * @param title the movie title
+     * @param genre the movie genre
+     * @param director the movie director
+     * @param dailyRentalCost the daily rental cost, or null
+     */
+    public void write(String title, String genre, String director, BigDecimal dailyRentalCost) throws IOException {
+        titles[rowCount] = title == null ? "" : title;
+        genreIds[rowCount] = genres.idOf(genre);
+        directorIds[rowCount] = directors.idOf(director);
+        costs[rowCount] = dailyRentalCost == null
+                ? 0
+                : zigzag(dailyRentalCost.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact()) << 1 | 1;
+        rowCount++;
+        totalRows++;
+        if (rowCount == ROW_GROUP_SIZE) {
+            flushRowGroup();
+        }
+    }
+
+    /**
+     * @return the number of movies written so far
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rowCount == 0) {
+            return;
+        }
+        writeVarint(out, rowCount);
+        genres.writePending(out);
+        directors.writePending(out);
+        for (int i = 0; i < rowCount; i++) {
+            writeString(out, titles[i]);
+            titles[i] = null;
+        }
+        for (int i = 0; i < rowCount; i++) {
+            writeVarint(out, genreIds[i]);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            writeVarint(out, directorIds[i]);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            writeVarint(out, costs[i]);
+        }
+        rowCount = 0;
+    }
+
+    /**
+     * Writes the last row group and the end marker, and finishes the gzip stream
+     * without closing the target.
+     */
+    @Override
+    public void close() throws IOException {
+        flushRowGroup();
+        writeVarint(out, 0);
+        out.flush();
+        gzip.finish();
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> pending = new ArrayList<>();
+
+        private int idOf(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = ids.size() + 1;
+                ids.put(value, id);
+                pending.add(value);
+            }
+            return id;
+        }
+
+        private void writePending(OutputStream out) throws IOException {
+            writeVarint(out, pending.size());
+            for (String value : pending) {
+                writeString(out, value);
+            }
+            pending.clear();
+        }
+    }
+}
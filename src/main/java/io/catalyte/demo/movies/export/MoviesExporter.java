@@ -0,0 +1,60 @@
+package io.catalyte.demo.movies.export;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams the movie catalog from a database cursor into the columnar export format.
+ */
+@Component
+public class MoviesExporter {
+
+    static final int FETCH_SIZE = 1000;
+    private static final String EXPORT_QUERY =
+            "SELECT title, genre, director, daily_rental_cost FROM movies ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public MoviesExporter(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Postgres only streams with a cursor when a fetch size is set inside a transaction
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes every movie to the output stream as a gzip-compressed columnar export.
+     *
+     * @param output the stream to write to; it is not closed
+     * @return the number of movies exported
+     */
+    public long export(OutputStream output) throws IOException {
+        MoviesColumnarWriter writer = new MoviesColumnarWriter(output);
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(EXPORT_QUERY, resultSet -> {
+                try {
+                    writer.write(resultSet.getString(1), resultSet.getString(2),
+                            resultSet.getString(3), resultSet.getBigDecimal(4));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // Only a complete export gets its end marker, so a failed one can't be mistaken for a short catalog
+        writer.close();
+        return writer.getTotalRows();
+    }
+}
@@ -0,0 +1,45 @@
+package io.catalyte.demo.movies.facets;
+
+import java.math.BigDecimal;
+
+/**
+ * Movie count and daily rental cost statistics for one genre or director.
+ * The cost statistics are null when none of the movies has a cost.
+ */
+public class MoviesFacet {
+
+    private final String value;
+    private final long count;
+    private final BigDecimal minDailyRentalCost;
+    private final BigDecimal maxDailyRentalCost;
+    private final BigDecimal avgDailyRentalCost;
+
+    public MoviesFacet(String value, long count, BigDecimal minDailyRentalCost,
+                       BigDecimal maxDailyRentalCost, BigDecimal avgDailyRentalCost) {
+        this.value = value;
+        this.count = count;
+        this.minDailyRentalCost = minDailyRentalCost;
+        this.maxDailyRentalCost = maxDailyRentalCost;
+        this.avgDailyRentalCost = avgDailyRentalCost;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal getMinDailyRentalCost() {
+        return minDailyRentalCost;
+    }
+
+    public BigDecimal getMaxDailyRentalCost() {
+        return maxDailyRentalCost;
+    }
+
+    public BigDecimal getAvgDailyRentalCost() {
+        return avgDailyRentalCost;
+    }
+}
@@ -0,0 +1,97 @@
+package io.catalyte.demo.movies.facets;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running movie counts and daily rental cost statistics per genre and per director.
+ * Each group keeps the number of movies at every cost, so the minimum and maximum
+ * stay exact when movies are removed, without rescanning the catalog.
+ */
+public class MoviesFacetCounts {
+
+    private final Map<String, Group> genres = new HashMap<>();
+    private final Map<String, Group> directors = new HashMap<>();
+
+    /**
+     * Counts movies with the given genre, director and cost.
+     *
+     * @param count how many such movies to add
+     */
+    public synchronized void add(String genre, String director, BigDecimal dailyRentalCost, long count) {
+        genres.computeIfAbsent(genre, key -> new Group()).add(dailyRentalCost, count);
+        directors.computeIfAbsent(director, key -> new Group()).add(dailyRentalCost, count);
+    }
+
+    /**
+     * Stops counting one movie with the given genre, director and cost.
+     */
+    public synchronized void remove(String genre, String director, BigDecimal dailyRentalCost) {
+        remove(genres, genre, dailyRentalCost);
+        remove(directors, director, dailyRentalCost);
+    }
+
+    /**
+     * @return the current facets, ordered by movie count, largest first
+     */
+    public synchronized MoviesFacets snapshot() {
+        return new MoviesFacets(toFacets(genres), toFacets(directors));
+    }
+
+    private static void remove(Map<String, Group> groups, String value, BigDecimal dailyRentalCost) {
+        Group group = groups.get(value);
+        if (group != null && group.remove(dailyRentalCost) == 0) {
+            groups.remove(value);
+        }
+    }
+
+    private static List<MoviesFacet> toFacets(Map<String, Group> groups) {
+        List<MoviesFacet> facets = new ArrayList<>(groups.size());
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            facets.add(entry.getValue().toFacet(entry.getKey()));
+        }
+        facets.sort(Comparator.comparingLong(MoviesFacet::getCount).reversed()
+                .thenComparing(MoviesFacet::getValue, Comparator.nullsLast(Comparator.naturalOrder())));
+        return facets;
+    }
+
+    private static final class Group {
+        long count;
+        long pricedCount;
+        BigDecimal sum = BigDecimal.ZERO;
+        final TreeMap<BigDecimal, Long> moviesByCost = new TreeMap<>();
+
+        void add(BigDecimal dailyRentalCost, long movies) {
+            count += movies;
+            if (dailyRentalCost != null) {
+                pricedCount += movies;
+                sum = sum.add(dailyRentalCost.multiply(BigDecimal.valueOf(movies)));
+                moviesByCost.merge(dailyRentalCost, movies, Long::sum);
+            }
+        }
+
+        long remove(BigDecimal dailyRentalCost) {
+            count--;
+            if (dailyRentalCost != null) {
+                pricedCount--;
+                sum = sum.subtract(dailyRentalCost);
+                moviesByCost.computeIfPresent(dailyRentalCost, (cost, movies) -> movies == 1 ? null : movies - 1);
+            }
+            return count;
+        }
+
+        MoviesFacet toFacet(String value) {
+            if (pricedCount == 0) {
+                return new MoviesFacet(value, count, null, null, null);
+            }
+            return new MoviesFacet(value, count, moviesByCost.firstKey(), moviesByCost.lastKey(),
+                    sum.divide(BigDecimal.valueOf(pricedCount), 2, RoundingMode.HALF_EVEN));
+        }
+    }
+}
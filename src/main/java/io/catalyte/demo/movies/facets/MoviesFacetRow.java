@@ -0,0 +1,17 @@
+package io.catalyte.demo.movies.facets;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of movies sharing a genre, director and daily rental cost, as read by the facet seed query.
+ */
+public interface MoviesFacetRow {
+
+    String getGenre();
+
+    String getDirector();
+
+    BigDecimal getDailyRentalCost();
+
+    long getMovies();
+}
@@ -0,0 +1,26 @@
+package io.catalyte.demo.movies.facets;
+
+import java.util.List;
+
+/**
+ * Facets of the movie catalog, as returned by GET /movies/facets.
+ * Each list is ordered by movie count, largest first.
+ */
+public class MoviesFacets {
+
+    private final List<MoviesFacet> genres;
+    private final List<MoviesFacet> directors;
+
+    public MoviesFacets(List<MoviesFacet> genres, List<MoviesFacet> directors) {
+        this.genres = genres;
+        this.directors = directors;
+    }
+
+    public List<MoviesFacet> getGenres() {
+        return genres;
+    }
+
+    public List<MoviesFacet> getDirectors() {
+        return directors;
+    }
+}
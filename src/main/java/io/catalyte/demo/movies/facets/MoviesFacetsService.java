@@ -0,0 +1,61 @@
+package io.catalyte.demo.movies.facets;
+
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serves per-genre and per-director facets from running totals.
+ * The totals are seeded with one aggregate query and then follow the change events
+ * published by the movie services, so reading them never scans the catalog.
+ */
+@Service
+public class MoviesFacetsService {
+
+    private final MoviesRepository moviesRepository;
+    private final MoviesFacetCounts facetCounts = new MoviesFacetCounts();
+
+    @Autowired
+    public MoviesFacetsService(MoviesRepository moviesRepository) {
+        this.moviesRepository = moviesRepository;
+    }
+
+    /**
+     * Seeds the totals while the context starts, before the web server accepts requests.
+     * Aggregates can't tell which movies a concurrent write touched, so the seed must not race one.
+     */
+    @PostConstruct
+    public void loadFacets() {
+        for (MoviesFacetRow row : moviesRepository.countByGenreDirectorAndDailyRentalCost()) {
+            facetCounts.add(row.getGenre(), row.getDirector(), row.getDailyRentalCost(), row.getMovies());
+        }
+    }
+
+    /**
+     * Moves a saved or deleted movie between the totals.
+     *
+     * @param event the change, received once its write has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(InventoryChangeEvent<Movies> event) {
+        Movies previous = event.getPrevious();
+        if (previous != null) {
+            facetCounts.remove(previous.getGenre(), previous.getDirector(), previous.getDailyRentalCost());
+        }
+        Movies movie = event.getEntity();
+        if (movie != null) {
+            facetCounts.add(movie.getGenre(), movie.getDirector(), movie.getDailyRentalCost(), 1);
+        }
+    }
+
+    /**
+     * @return movie counts and daily rental cost statistics per genre and per director
+     */
+    public MoviesFacets getFacets() {
+        return facetCounts.snapshot();
+    }
+}
@@ -0,0 +1,232 @@
+package io.catalyte.demo.movies.moviesEntity;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Normalizes the phone, email, state and zip code of contacts and addresses.
+ * Each value is checked in one scan without regex; a value that is already normalized is returned as it is,
+ * so only values that change are read again or allocate their replacement.
+ */
+public final class ContactNormalizer {
+
+    // Looked up case-insensitively, so the raw value needs no lowercase copy
+    private static final Map<String, String> STATE_CODES = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        String[] states = {
+                "AL", "Alabama", "AK", "Alaska", "AZ", "Arizona", "AR", "Arkansas", "CA", "California",
+                "CO", "Colorado", "CT", "Connecticut", "DE", "Delaware", "FL", "Florida", "GA", "Georgia",
+                "HI", "Hawaii", "ID", "Idaho", "IL", "Illinois", "IN", "Indiana", "IA", "Iowa",
+                "KS", "Kansas", "KY", "Kentucky", "LA", "Louisiana", "ME", "Maine", "MD", "Maryland",
+                "MA", "Massachusetts", "MI", "Michigan", "MN", "Minnesota", "MS", "Mississippi", "MO", "Missouri",
+                "MT", "Montana", "NE", "Nebraska", "NV", "Nevada", "NH", "New Hampshire", "NJ", "New Jersey",
+                "NM", "New Mexico", "NY", "New York", "NC", "North Carolina", "ND", "North Dakota", "OH", "Ohio",
+                "OK", "Oklahoma", "OR", "Oregon", "PA", "Pennsylvania", "RI", "Rhode Island", "SC", "South Carolina",
+                "SD", "South Dakota", "TN", "Tennessee", "TX", "Texas", "UT", "Utah", "VT", "Vermont",
+                "VA", "Virginia", "WA", "Washington", "WV", "West Virginia", "WI", "Wisconsin", "WY", "Wyoming",
+                "DC", "District of Columbia", "AS", "American Samoa", "GU", "Guam", "MP", "Northern Mariana Islands",
+                "PR", "Puerto Rico", "VI", "U.S. Virgin Islands"
+        };
+        for (int i = 0; i < states.length; i += 2) {
+            STATE_CODES.put(states[i], states[i]);
+            STATE_CODES.put(states[i + 1], states[i]);
+        }
+    }
+
+    private ContactNormalizer() {
+    }
+
+    /**
+     * Normalizes a contact's phone and email in place.
+     *
+     * @param contact the contact, may be null
+     * @return true if a value changed
+     */
+    public static boolean normalize(Contact contact) {
+        if (contact == null) {
+            return false;
+        }
+        String phone = normalizePhone(contact.getPhone());
+        String email = normalizeEmail(contact.getEmail());
+        boolean changed = phone != contact.getPhone() || email != contact.getEmail();
+        contact.setPhone(phone);
+        contact.setEmail(email);
+        return changed;
+    }
+
+    /**
+     * Normalizes an address's state and zip code in place.
+     *
+     * @param address the address, may be null
+     * @return true if a value changed
+     */
+    public static boolean normalize(Address address) {
+        if (address == null) {
+            return false;
+        }
+        String state = normalizeState(address.getState());
+        String zipCode = normalizeZipCode(address.getZipCode());
+        boolean changed = state != address.getState() || zipCode != address.getZipCode();
+        address.setState(state);
+        address.setZipCode(zipCode);
+        return changed;
+    }
+
+    /**
+     * Writes a North American number as xxx-xxx-xxxx, ignoring spaces, dots, dashes, parentheses
+     * and a leading +1 or 1. The digits are written by PhoneNumberFormatter, like every other phone number.
+     *
+     * @param phone the phone number, may be null
+     * @return the formatted number, or the value itself if it is not a ten-digit number
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        int digits = 0;
+        char firstDigit = 0;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits++ == 0) {
+                    firstDigit = c;
+                }
+            } else if (c != ' ' && c != '.' && c != '-' && c != '(' && c != ')' && !(c == '+' && digits == 0)) {
+                return phone;
+            }
+        }
+        if (digits == 10 && phone.length() == 12 && phone.charAt(3) == '-' && phone.charAt(7) == '-') {
+            return phone;
+        }
+        int skip;
+        if (digits == 10) {
+            skip = 0;
+        } else if (digits == 11 && firstDigit == '1') {
+            skip = 1;
+        } else {
+            return phone;
+        }
+        // Only a number that changes is read again to copy its digits
+        StringBuilder formatted = new StringBuilder(12);
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    formatted.append(c);
+                }
+            }
+        }
+        PhoneNumberFormatter.insertDashes(formatted, 0);
+        return formatted.toString();
+    }
+
+    /**
+     * Trims an email address and lowercases its ASCII letters.
+     *
+     * @param email the email address, may be null
+     * @return the normalized address, or the value itself if it already is
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        int start = 0;
+        int end = email.length();
+        while (start < end && email.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && email.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        boolean upperCase = false;
+        for (int i = start; i < end && !upperCase; i++) {
+            char c = email.charAt(i);
+            upperCase = c >= 'A' && c <= 'Z';
+        }
+        if (!upperCase) {
+            return start == 0 && end == email.length() ? email : email.substring(start, end);
+        }
+        char[] normalized = new char[end - start];
+        for (int i = start; i < end; i++) {
+            char c = email.charAt(i);
+            normalized[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(normalized);
+    }
+
+    /**
+     * Converts a US state or territory, by code or name in any case, to its two-letter postal code.
+     *
+     * @param state the state, may be null
+     * @return the postal code, or the value itself if it is not a known state
+     */
+    public static String normalizeState(String state) {
+        if (state == null) {
+            return null;
+        }
+        String key = state;
+        if (!state.isEmpty() && (state.charAt(0) <= ' ' || state.charAt(state.length() - 1) <= ' ')) {
+            key = state.trim();
+        }
+        String code = STATE_CODES.get(key);
+        if (code == null) {
+            return state;
+        }
+        return code.equals(state) ? state : code;
+    }
+
+    /**
+     * Writes a US zip code as 12345 or 12345-6789. Separators between the two parts may be a dash or a space,
+     * and a zip code that lost its leading zero in a spreadsheet (four or eight digits) gets it back.
+     *
+     * @param zipCode the zip code, may be null
+     * @return the normalized zip code, or the value itself if it is not a zip code
+     */
+    public static String normalizeZipCode(String zipCode) {
+        if (zipCode == null) {
+            return null;
+        }
+        int digits = 0;
+        int separators = 0;
+        for (int i = 0; i < zipCode.length(); i++) {
+            char c = zipCode.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if ((c == '-' || c == ' ') && digits > 0) {
+                separators++;
+            } else if (c != ' ') {
+                return zipCode;
+            }
+        }
+        int padding;
+        if (digits == 5 || digits == 9) {
+            padding = 0;
+        } else if ((digits == 4 || digits == 8) && separators == 0) {
+            padding = 1;
+        } else {
+            return zipCode;
+        }
+        int length = digits + padding == 9 ? 10 : 5;
+        if (zipCode.length() == length && padding == 0 && (length == 5 || zipCode.charAt(5) == '-')) {
+            return zipCode;
+        }
+        char[] normalized = new char[length];
+        int written = 0;
+        if (padding == 1) {
+            normalized[written++] = '0';
+        }
+        for (int i = 0; i < zipCode.length(); i++) {
+            char c = zipCode.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (written == 5 && length == 10) {
+                    normalized[written++] = '-';
+                }
+                normalized[written++] = c;
+            }
+        }
+        return new String(normalized);
+    }
+}
@@ -1,25 +1,51 @@
 package io.catalyte.demo.movies.moviesEntity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name="movies")
+// Updates made through Hibernate write only the columns that changed
+@DynamicUpdate
+@Table(name="movies", uniqueConstraints = {
+        @UniqueConstraint(name = "movies_title_key", columnNames = "title")
+}, indexes = {
+        // (sort column, id) pairs back the keyset pagination in MoviesRepositoryCustomImpl
+        @Index(name = "movies_title_id_idx", columnList = "title, id"),
+        @Index(name = "movies_genre_id_idx", columnList = "genre, id"),
+        @Index(name = "movies_director_id_idx", columnList = "director, id"),
+        @Index(name = "movies_daily_rental_cost_id_idx", columnList = "daily_rental_cost, id")
+})
 public class Movies {
 
+    // The pooled movies_seq sequence that @GeneratedValue's AUTO strategy already used, named here so bulk
+    // imports can rely on it: one round trip reserves 50 ids, and inserts without IDENTITY can be batched
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movies_seq")
+    @SequenceGenerator(name = "movies_seq", sequenceName = "movies_seq", allocationSize = 50)
     private int id;
 
     private String title;
     private String genre;
     private String director;
+
+    @Column(name = "daily_rental_cost")
     private BigDecimal dailyRentalCost;
 
+    // Moves forward on every update; an edit that sends an older version is rejected with 409
+    @Version
+    private Integer version;
+
 
     // Constructor - empty params
     public Movies() {}
@@ -73,4 +99,12 @@ public class Movies {
     public void setDailyRentalCost(BigDecimal dailyRentalCost) {
         this.dailyRentalCost = dailyRentalCost;
     }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
 }
@@ -6,7 +6,9 @@ import org.springframework.stereotype.Service;
 public class PhoneNumberFormatter {
 
     /**
-     * Formats phone number string to xxx-xxx-xxxx if it is not already
+     * Formats phone number string to xxx-xxx-xxxx if it is not already.
+     * Dashes are dropped and every run of ten digits is written as xxx-xxx-xxxx, in one pass and without regex:
+     * digits are copied as they come, and the dashes are put in once the tenth digit of a run is copied.
      *
      * @param phoneNumber - phone number string to check for correct formatting
      * @return phoneNumber to be saved
@@ -15,14 +17,33 @@ public class PhoneNumberFormatter {
     public static String formatPhoneNumber(
             String phoneNumber) {
 
-        // Remove dashes
-        String digits = phoneNumber.replaceAll("-",
-                "");
+        StringBuilder formatted = new StringBuilder(phoneNumber.length() + 2);
+        int runStart = 0;
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c == '-') {
+                continue;
+            }
+            formatted.append(c);
+            if (c < '0' || c > '9') {
+                runStart = formatted.length();
+            } else if (formatted.length() - runStart == 10) {
+                // Format the phone number as xxx-xxx-xxxx
+                insertDashes(formatted, runStart);
+                runStart = formatted.length();
+            }
+        }
+        return formatted.toString();
+    }
 
-        // Format the phone number as xxx-xxx-xxxx
-        return digits.replaceAll(
-                "(\\d{3})(\\d{3})(\\d{4})",
-                "$1-$2-$3");
+    /**
+     * Formats the last ten characters of the builder, all digits, as xxx-xxx-xxxx.
+     *
+     * @param formatted - the text written so far
+     * @param start - where the ten digits start
+     */
+    static void insertDashes(StringBuilder formatted, int start) {
+        formatted.insert(start + 6, '-').insert(start + 3, '-');
     }
 
 }
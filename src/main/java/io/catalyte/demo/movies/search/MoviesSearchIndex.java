@@ -0,0 +1,326 @@
+package io.catalyte.demo.movies.search;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the title, director and genre of every movie.
+ * Each term points to a posting list of movie ids, sorted so lists can be merged,
+ * with a bit mask recording which fields of the movie contain the term.
+ * Every query term matches the indexed terms it is a prefix of, and a movie must
+ * match all query terms. Hits are ranked by field weight and term rarity,
+ * with exact term matches ranked above prefix matches.
+ */
+public class MoviesSearchIndex {
+
+    static final int TITLE = 1;
+    static final int DIRECTOR = 2;
+    static final int GENRE = 4;
+    private static final float[] FIELD_WEIGHTS = new float[8];
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    static {
+        for (int mask = 1; mask < FIELD_WEIGHTS.length; mask++) {
+            FIELD_WEIGHTS[mask] = ((mask & TITLE) != 0 ? 3f : 0f)
+                    + ((mask & DIRECTOR) != 0 ? 2f : 0f)
+                    + ((mask & GENRE) != 0 ? 1f : 0f);
+        }
+    }
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Set<Integer> changedWhileLoading;
+
+    /**
+     * Adds a movie, or replaces the indexed copy of a movie that was edited.
+     *
+     * @param movie the movie as saved
+     */
+    public void put(Movies movie) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(movie.getId());
+            }
+            putLocked(movie);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a movie from the index.
+     *
+     * @param id the id of the deleted movie
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(id);
+            }
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts tracking the movies changed through put and remove,
+     * so a following {@link #load} does not overwrite them with older rows.
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the movies read from the database since {@link #beginLoad},
+     * skipping those that were changed in the meantime.
+     *
+     * @param movies every movie in the table
+     */
+    public void load(Iterable<Movies> movies) {
+        lock.writeLock().lock();
+        try {
+            for (Movies movie : movies) {
+                if (changedWhileLoading == null || !changedWhileLoading.contains(movie.getId())) {
+                    putLocked(movie);
+                }
+            }
+            changedWhileLoading = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the movies matching every term of the query, best match first.
+     *
+     * @param query free text; each word may be the start of a title, director or genre word
+     * @param limit the maximum number of movies to return
+     * @return copies of the matching movies
+     */
+    public List<Movies> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new HashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] ids = null;
+            float[] scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Integer, Float> termScores = scoreTerm(queryTerm);
+                if (termScores.isEmpty()) {
+                    return List.of();
+                }
+                if (ids == null) {
+                    ids = new int[termScores.size()];
+                    scores = new float[termScores.size()];
+                    int i = 0;
+                    for (Map.Entry<Integer, Float> entry : termScores.entrySet()) {
+                        ids[i] = entry.getKey();
+                        scores[i++] = entry.getValue();
+                    }
+                } else {
+                    int kept = 0;
+                    for (int i = 0; i < ids.length; i++) {
+                        Float score = termScores.get(ids[i]);
+                        if (score != null) {
+                            ids[kept] = ids[i];
+                            scores[kept++] = scores[i] + score;
+                        }
+                    }
+                    if (kept == 0) {
+                        return List.of();
+                    }
+                    ids = Arrays.copyOf(ids, kept);
+                    scores = Arrays.copyOf(scores, kept);
+                }
+            }
+
+            Integer[] order = new Integer[ids.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            int[] hitIds = ids;
+            float[] hitScores = scores;
+            Arrays.sort(order, (a, b) -> {
+                int byScore = Float.compare(hitScores[b], hitScores[a]);
+                return byScore != 0 ? byScore : Integer.compare(hitIds[a], hitIds[b]);
+            });
+
+            List<Movies> results = new ArrayList<>(Math.min(limit, order.length));
+            for (int i = 0; i < order.length && results.size() < limit; i++) {
+                results.add(documents.get(hitIds[order[i]]).toMovie());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of movies in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Integer, Float> scoreTerm(String queryTerm) {
+        Map<Integer, Float> termScores = new HashMap<>();
+        float documentCount = documents.size();
+        for (Map.Entry<String, Postings> entry : terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            Postings postings = entry.getValue();
+            float idf = (float) Math.log(1 + documentCount / postings.size);
+            float factor = entry.getKey().length() == queryTerm.length() ? 1f : PREFIX_MATCH_FACTOR;
+            for (int i = 0; i < postings.size; i++) {
+                float score = FIELD_WEIGHTS[postings.fields[i]] * idf * factor;
+                termScores.merge(postings.ids[i], score, Math::max);
+            }
+        }
+        return termScores;
+    }
+
+    private void putLocked(Movies movie) {
+        removeLocked(movie.getId());
+        Document document = new Document(movie);
+        Map<String, Integer> fieldsByTerm = new HashMap<>();
+        addTerms(fieldsByTerm, movie.getTitle(), TITLE);
+        addTerms(fieldsByTerm, movie.getDirector(), DIRECTOR);
+        addTerms(fieldsByTerm, movie.getGenre(), GENRE);
+        document.terms = fieldsByTerm.keySet().toArray(new String[0]);
+        for (Map.Entry<String, Integer> entry : fieldsByTerm.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), term -> new Postings()).add(movie.getId(), entry.getValue());
+        }
+        documents.put(movie.getId(), document);
+    }
+
+    private void removeLocked(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Postings postings = terms.get(term);
+            postings.remove(id);
+            if (postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> fieldsByTerm, String text, int field) {
+        for (String term : tokenize(text)) {
+            fieldsByTerm.merge(term, field, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * The movie ids containing one term, in ascending order,
+     * with the fields of each movie the term appears in.
+     */
+    private static final class Postings {
+        int[] ids = new int[4];
+        byte[] fields = new byte[4];
+        int size;
+
+        void add(int id, int fieldMask) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                fields[index] = (byte) fieldMask;
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(fields, index, fields, index + 1, size - index);
+            ids[index] = id;
+            fields[index] = (byte) fieldMask;
+            size++;
+        }
+
+        void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(fields, index + 1, fields, index, size - index - 1);
+            size--;
+        }
+    }
+
+    /**
+     * The indexed copy of a movie, so results can be served without the database.
+     * The version is kept, so a result can be sent back with a conditional edit or delete.
+     */
+    private static final class Document {
+        final Movies movie;
+        String[] terms;
+
+        Document(Movies source) {
+            movie = copy(source);
+        }
+
+        Movies toMovie() {
+            return copy(movie);
+        }
+
+        private static Movies copy(Movies source) {
+            Movies copy = new Movies(source.getTitle(), source.getGenre(), source.getDirector(),
+                    source.getDailyRentalCost());
+            copy.setId(source.getId());
+            copy.setVersion(source.getVersion());
+            return copy;
+        }
+    }
+}
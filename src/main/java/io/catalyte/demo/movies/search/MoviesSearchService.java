@@ -0,0 +1,80 @@
+package io.catalyte.demo.movies.search;
+
+import io.catalyte.demo.changes.ChangesService;
+import io.catalyte.demo.changes.InventoryChangeCommittedEvent;
+import io.catalyte.demo.changes.InventoryChangeEntry;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Answers movie searches from the in-memory index.
+ * The index is loaded from the database once the application has started,
+ * and is kept current from the committed changes of the change log, applied in the order they committed,
+ * so two quick edits of one movie can't leave the older one in the index.
+ */
+@Service
+public class MoviesSearchService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private final MoviesRepository moviesRepository;
+    private final MoviesSearchIndex searchIndex = new MoviesSearchIndex();
+
+    @Autowired
+    public MoviesSearchService(MoviesRepository moviesRepository) {
+        this.moviesRepository = moviesRepository;
+    }
+
+    /**
+     * Loads every movie into the index.
+     * Changes made while the table is read are applied on top of it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        searchIndex.beginLoad();
+        searchIndex.load(moviesRepository.findAll());
+    }
+
+    /**
+     * Applies a saved or deleted movie to the index.
+     *
+     * @param event the change, received once its write has committed and every earlier change has been applied
+     */
+    @EventListener
+    public void onChangeCommitted(InventoryChangeCommittedEvent event) {
+        InventoryChangeEntry change = event.getChange();
+        if (!ChangesService.MOVIES_DOMAIN.equals(change.getDomain())) {
+            return;
+        }
+        if (change.getType() == InventoryChangeEvent.Type.DELETED) {
+            searchIndex.remove(change.getId());
+        } else {
+            searchIndex.put((Movies) change.getEntity());
+        }
+    }
+
+    /**
+     * Finds the movies whose title, director or genre contain every word of the query.
+     *
+     * @param query the words to search for; each word also matches longer words it starts
+     * @param limit the maximum number of movies to return; defaults to 20, at most 100
+     * @return the matching movies, best match first
+     */
+    public List<Movies> search(String query, Integer limit) {
+        int maxResults = limit == null ? DEFAULT_LIMIT : limit;
+        if (maxResults < 1 || maxResults > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return searchIndex.search(query, maxResults);
+    }
+}
@@ -0,0 +1,94 @@
+package io.catalyte.demo.movies.suggest;
+
+import io.catalyte.demo.changes.ChangesService;
+import io.catalyte.demo.changes.InventoryChangeCommittedEvent;
+import io.catalyte.demo.changes.InventoryChangeEntry;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Suggests movie titles as the user types.
+ * Titles are loaded into a {@link TitleTrie} once the application has started,
+ * and kept current from the committed changes of the change log, in the order they committed.
+ */
+@Service
+public class MoviesSuggestService {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+
+    private final MoviesRepository moviesRepository;
+    private final TitleTrie titleTrie = new TitleTrie();
+    private final LatencyHistogram lookupLatency = new LatencyHistogram();
+
+    @Autowired
+    public MoviesSuggestService(MoviesRepository moviesRepository) {
+        this.moviesRepository = moviesRepository;
+    }
+
+    /**
+     * Loads the title of every movie into the trie.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTitles() {
+        titleTrie.beginLoad();
+        titleTrie.load(moviesRepository.findTitlesBy());
+    }
+
+    /**
+     * Applies a saved or deleted movie to the trie.
+     *
+     * @param event the change, received once its write has committed and every earlier change has been applied
+     */
+    @EventListener
+    public void onChangeCommitted(InventoryChangeCommittedEvent event) {
+        InventoryChangeEntry change = event.getChange();
+        if (!ChangesService.MOVIES_DOMAIN.equals(change.getDomain())) {
+            return;
+        }
+        if (change.getType() == InventoryChangeEvent.Type.DELETED) {
+            titleTrie.remove(change.getId());
+        } else {
+            titleTrie.put(change.getId(), ((Movies) change.getEntity()).getTitle());
+        }
+    }
+
+    /**
+     * Finds titles starting with the prefix, ignoring case.
+     *
+     * @param prefix the start of the title
+     * @param limit the maximum number of titles to return; defaults to 10, at most 50
+     * @return the matching titles in alphabetical order
+     */
+    public List<String> suggest(String prefix, Integer limit) {
+        int maxResults = limit == null ? DEFAULT_LIMIT : limit;
+        if (maxResults < 1 || maxResults > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        long start = System.nanoTime();
+        List<String> titles = titleTrie.suggest(prefix, maxResults);
+        lookupLatency.record(System.nanoTime() - start);
+        return titles;
+    }
+
+    /**
+     * Reports the size of the trie and the latency of lookups since startup.
+     *
+     * @return memory and latency statistics
+     */
+    public MoviesSuggestStats getStats() {
+        TitleTrieStats trieStats = titleTrie.getStats();
+        return new MoviesSuggestStats(trieStats.getTitles(), trieStats.getNodes(), trieStats.getEstimatedBytes(),
+                lookupLatency.getCount(), lookupLatency.getPercentile(50) / 1000.0,
+                lookupLatency.getPercentile(99) / 1000.0);
+    }
+}
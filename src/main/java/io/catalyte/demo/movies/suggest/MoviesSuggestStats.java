@@ -0,0 +1,55 @@
+package io.catalyte.demo.movies.suggest;
+
+/**
+ * Memory use and lookup latency of the title suggestions, as reported by GET /movies/suggest/stats.
+ */
+public class MoviesSuggestStats {
+
+    private final int titles;
+    private final int nodes;
+    private final long estimatedBytes;
+    private final long lookups;
+    private final double p50Micros;
+    private final double p99Micros;
+
+    public MoviesSuggestStats(int titles, int nodes, long estimatedBytes, long lookups,
+                              double p50Micros, double p99Micros) {
+        this.titles = titles;
+        this.nodes = nodes;
+        this.estimatedBytes = estimatedBytes;
+        this.lookups = lookups;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+    }
+
+    public int getTitles() {
+        return titles;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return heap used by the trie, estimated for a 64-bit JVM with compressed references
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public double getBytesPerTitle() {
+        return titles == 0 ? 0 : (double) estimatedBytes / titles;
+    }
+
+    public long getLookups() {
+        return lookups;
+    }
+
+    public double getP50Micros() {
+        return p50Micros;
+    }
+
+    public double getP99Micros() {
+        return p99Micros;
+    }
+}
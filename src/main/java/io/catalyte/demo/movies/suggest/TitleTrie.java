@@ -0,0 +1,476 @@
+package io.catalyte.demo.movies.suggest;
+
+import io.catalyte.demo.movies.MoviesTitle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Path-compressed trie of movie titles for prefix lookups.
+ * Titles may only contain letters, whitespace and - ' , . (see MoviesValidation.titleValidation),
+ * so each character is folded to one of 31 lower-case symbols and edge labels are packed
+ * five bits per symbol, twelve symbols to a long. The capitalization of each title is kept
+ * as a bit mask on the node where the title ends, which fits because titles are at most
+ * 50 characters long. Whitespace is folded to a plain space.
+ * Titles with other characters, e.g. rows saved before validation existed, are not indexed.
+ */
+public class TitleTrie {
+
+    static final int MAX_LENGTH = 50;
+    private static final int BITS_PER_SYMBOL = 5;
+    private static final int SYMBOLS_PER_WORD = Long.SIZE / BITS_PER_SYMBOL;
+    private static final long SYMBOL_MASK = (1L << BITS_PER_SYMBOL) - 1;
+
+    /**
+     * Symbol order is character order, so a depth-first walk visits titles alphabetically.
+     * Symbol 0 is unused.
+     */
+    private static final char[] SYMBOLS = " ',-.abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final byte[] CODES = new byte[128];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    static {
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            CODES[SYMBOLS[i]] = (byte) (i + 1);
+            if (Character.isLetter(SYMBOLS[i])) {
+                CODES[Character.toUpperCase(SYMBOLS[i])] = (byte) (i + 1);
+            }
+        }
+        for (char whitespace : new char[] {'\t', '\n', '\u000B', '\f', '\r'}) {
+            CODES[whitespace] = CODES[' '];
+        }
+    }
+
+    private final Node root = new Node(null, new long[0], 0);
+    private final Map<Integer, Node> nodesById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int nodeCount = 1;
+    private Set<Integer> changedWhileLoading;
+
+    /**
+     * Adds a title, replacing the title previously stored for the same movie.
+     *
+     * @param id the movie id
+     * @param title the movie title
+     * @return false when the title contains characters that can't be indexed
+     */
+    public boolean put(int id, String title) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(id);
+            }
+            return putLocked(id, title);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the title of a movie.
+     *
+     * @param id the movie id
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(id);
+            }
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts tracking the movies changed through put and remove,
+     * so a following {@link #load} does not overwrite them with older rows.
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the titles read from the database since {@link #beginLoad},
+     * skipping the movies changed in the meantime.
+     *
+     * @param titles id and title of every movie
+     */
+    public void load(Iterable<MoviesTitle> titles) {
+        lock.writeLock().lock();
+        try {
+            for (MoviesTitle title : titles) {
+                if (changedWhileLoading == null || !changedWhileLoading.contains(title.getId())) {
+                    putLocked(title.getId(), title.getTitle());
+                }
+            }
+            changedWhileLoading = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds titles starting with the prefix, ignoring case, in alphabetical order.
+     *
+     * @param prefix the start of the title
+     * @param limit the maximum number of titles to return
+     * @return the matching titles
+     */
+    public List<String> suggest(String prefix, int limit) {
+        byte[] symbols = encode(prefix);
+        if (symbols == null) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            StringBuilder path = new StringBuilder(MAX_LENGTH);
+            Node node = root;
+            int position = 0;
+            while (position < symbols.length) {
+                Node child = findChild(node, symbols[position]);
+                if (child == null) {
+                    return List.of();
+                }
+                int matched = commonPrefix(child, symbols, position);
+                if (matched < child.length && position + matched < symbols.length) {
+                    return List.of();
+                }
+                child.appendLabel(path);
+                node = child;
+                position += matched;
+            }
+
+            List<String> titles = new ArrayList<>(Math.min(limit, 16));
+            collect(node, path, titles, limit);
+            return titles;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimates the heap used by the trie, assuming a 64-bit JVM with compressed references.
+     *
+     * @return the title count, node count and estimated bytes
+     */
+    public TitleTrieStats getStats() {
+        lock.readLock().lock();
+        try {
+            long bytes = estimateBytes(root);
+            // HashMap node, boxed id and table slot for each entry of nodesById
+            bytes += nodesById.size() * (32L + 16L + 8L);
+            return new TitleTrieStats(nodesById.size(), nodeCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean putLocked(int id, String title) {
+        removeLocked(id);
+        byte[] symbols = encode(title);
+        if (symbols == null || symbols.length == 0) {
+            return false;
+        }
+
+        Node node = root;
+        int position = 0;
+        while (position < symbols.length) {
+            Node child = findChild(node, symbols[position]);
+            if (child == null) {
+                child = new Node(node, pack(symbols, position, symbols.length), symbols.length - position);
+                addChild(node, child);
+                nodeCount++;
+                node = child;
+                break;
+            }
+            int matched = commonPrefix(child, symbols, position);
+            if (matched < child.length) {
+                child = split(node, child, matched);
+            }
+            node = child;
+            position += matched;
+        }
+
+        node.addTitle(id, upperCaseMask(title));
+        nodesById.put(id, node);
+        return true;
+    }
+
+    private void removeLocked(int id) {
+        Node node = nodesById.remove(id);
+        if (node == null) {
+            return;
+        }
+        node.removeTitle(id);
+
+        while (node != root && node.ids == null) {
+            Node parent = node.parent;
+            if (node.children.length == 0) {
+                removeChild(parent, node);
+                nodeCount--;
+                node = parent;
+            } else if (node.children.length == 1) {
+                // Fold the node into its only child so every inner node keeps branching
+                Node child = node.children[0];
+                child.label = concat(node, child);
+                child.length += node.length;
+                child.parent = parent;
+                parent.children[indexOf(parent, node)] = child;
+                nodeCount--;
+                break;
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Splits the edge to child after the given number of symbols and returns the new inner node.
+     */
+    private Node split(Node parent, Node child, int at) {
+        long[] label = new long[words(at)];
+        for (int i = 0; i < at; i++) {
+            setSymbol(label, i, child.symbol(i));
+        }
+        Node middle = new Node(parent, label, at);
+        long[] rest = new long[words(child.length - at)];
+        for (int i = at; i < child.length; i++) {
+            setSymbol(rest, i - at, child.symbol(i));
+        }
+        child.label = rest;
+        child.length -= at;
+        child.parent = middle;
+        middle.children = new Node[] {child};
+        parent.children[indexOf(parent, child)] = middle;
+        nodeCount++;
+        return middle;
+    }
+
+    private static void collect(Node node, StringBuilder path, List<String> titles, int limit) {
+        if (node.ids != null) {
+            for (int i = 0; i < node.ids.length && titles.size() < limit; i++) {
+                titles.add(restoreCase(path, node.upperCaseMasks[i]));
+            }
+        }
+        for (Node child : node.children) {
+            if (titles.size() >= limit) {
+                return;
+            }
+            int length = path.length();
+            child.appendLabel(path);
+            collect(child, path, titles, limit);
+            path.setLength(length);
+        }
+    }
+
+    private static String restoreCase(StringBuilder path, long upperCaseMask) {
+        char[] title = new char[path.length()];
+        for (int i = 0; i < title.length; i++) {
+            char c = path.charAt(i);
+            title[i] = (upperCaseMask & (1L << i)) != 0 ? Character.toUpperCase(c) : c;
+        }
+        return new String(title);
+    }
+
+    private static long estimateBytes(Node node) {
+        // Object header, five references and the length
+        long bytes = 40;
+        bytes += arrayBytes(node.label.length, 8);
+        bytes += node.children.length == 0 ? 0 : arrayBytes(node.children.length, 4);
+        if (node.ids != null) {
+            bytes += arrayBytes(node.ids.length, 4) + arrayBytes(node.upperCaseMasks.length, 8);
+        }
+        for (Node child : node.children) {
+            bytes += estimateBytes(child);
+        }
+        return bytes;
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        return (16 + (long) length * elementSize + 7) & ~7L;
+    }
+
+    /**
+     * Converts text to symbols, or returns null if it has characters outside the title alphabet.
+     */
+    static byte[] encode(String text) {
+        if (text == null || text.length() > MAX_LENGTH) {
+            return null;
+        }
+        byte[] symbols = new byte[text.length()];
+        for (int i = 0; i < symbols.length; i++) {
+            char c = text.charAt(i);
+            if (c >= CODES.length || CODES[c] == 0) {
+                return null;
+            }
+            symbols[i] = CODES[c];
+        }
+        return symbols;
+    }
+
+    private static long upperCaseMask(String title) {
+        long mask = 0;
+        for (int i = 0; i < title.length(); i++) {
+            if (Character.isUpperCase(title.charAt(i))) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private static Node findChild(Node node, int symbol) {
+        for (Node child : node.children) {
+            if (child.symbol(0) == symbol) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static int commonPrefix(Node child, byte[] symbols, int position) {
+        int max = Math.min(child.length, symbols.length - position);
+        int matched = 0;
+        while (matched < max && child.symbol(matched) == symbols[position + matched]) {
+            matched++;
+        }
+        return matched;
+    }
+
+    private static void addChild(Node parent, Node child) {
+        int first = child.symbol(0);
+        int index = 0;
+        while (index < parent.children.length && parent.children[index].symbol(0) < first) {
+            index++;
+        }
+        Node[] children = new Node[parent.children.length + 1];
+        System.arraycopy(parent.children, 0, children, 0, index);
+        children[index] = child;
+        System.arraycopy(parent.children, index, children, index + 1, parent.children.length - index);
+        parent.children = children;
+    }
+
+    private static void removeChild(Node parent, Node child) {
+        int index = indexOf(parent, child);
+        if (parent.children.length == 1) {
+            parent.children = NO_CHILDREN;
+            return;
+        }
+        Node[] children = new Node[parent.children.length - 1];
+        System.arraycopy(parent.children, 0, children, 0, index);
+        System.arraycopy(parent.children, index + 1, children, index, children.length - index);
+        parent.children = children;
+    }
+
+    private static int indexOf(Node parent, Node child) {
+        for (int i = 0; i < parent.children.length; i++) {
+            if (parent.children[i] == child) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Node is not a child of its parent");
+    }
+
+    private static long[] concat(Node first, Node second) {
+        long[] label = new long[words(first.length + second.length)];
+        for (int i = 0; i < first.length; i++) {
+            setSymbol(label, i, first.symbol(i));
+        }
+        for (int i = 0; i < second.length; i++) {
+            setSymbol(label, first.length + i, second.symbol(i));
+        }
+        return label;
+    }
+
+    private static long[] pack(byte[] symbols, int from, int to) {
+        long[] label = new long[words(to - from)];
+        for (int i = from; i < to; i++) {
+            setSymbol(label, i - from, symbols[i]);
+        }
+        return label;
+    }
+
+    private static int words(int symbols) {
+        return (symbols + SYMBOLS_PER_WORD - 1) / SYMBOLS_PER_WORD;
+    }
+
+    private static void setSymbol(long[] label, int index, int symbol) {
+        label[index / SYMBOLS_PER_WORD] |= (long) symbol << (BITS_PER_SYMBOL * (index % SYMBOLS_PER_WORD));
+    }
+
+    private static final class Node {
+        Node parent;
+        long[] label;
+        int length;
+        Node[] children = NO_CHILDREN;
+        // Movies whose title ends at this node, ordered by id, with the capitalization of each
+        int[] ids;
+        long[] upperCaseMasks;
+
+        Node(Node parent, long[] label, int length) {
+            this.parent = parent;
+            this.label = label;
+            this.length = length;
+        }
+
+        int symbol(int index) {
+            return (int) ((label[index / SYMBOLS_PER_WORD] >>> (BITS_PER_SYMBOL * (index % SYMBOLS_PER_WORD))) & SYMBOL_MASK);
+        }
+
+        void appendLabel(StringBuilder path) {
+            for (int i = 0; i < length; i++) {
+                path.append(SYMBOLS[symbol(i) - 1]);
+            }
+        }
+
+        void addTitle(int id, long upperCaseMask) {
+            if (ids == null) {
+                ids = new int[] {id};
+                upperCaseMasks = new long[] {upperCaseMask};
+                return;
+            }
+            int index = -Arrays.binarySearch(ids, id) - 1;
+            int[] newIds = new int[ids.length + 1];
+            long[] newMasks = new long[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(upperCaseMasks, 0, newMasks, 0, index);
+            newIds[index] = id;
+            newMasks[index] = upperCaseMask;
+            System.arraycopy(ids, index, newIds, index + 1, ids.length - index);
+            System.arraycopy(upperCaseMasks, index, newMasks, index + 1, ids.length - index);
+            ids = newIds;
+            upperCaseMasks = newMasks;
+        }
+
+        void removeTitle(int id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (ids.length == 1) {
+                ids = null;
+                upperCaseMasks = null;
+                return;
+            }
+            int[] newIds = new int[ids.length - 1];
+            long[] newMasks = new long[ids.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(upperCaseMasks, 0, newMasks, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, newIds.length - index);
+            System.arraycopy(upperCaseMasks, index + 1, newMasks, index, newMasks.length - index);
+            ids = newIds;
+            upperCaseMasks = newMasks;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.catalyte.demo.movies.suggest;
+
+/**
+ * Size of a {@link TitleTrie}.
+ */
+public class TitleTrieStats {
+
+    private final int titles;
+    private final int nodes;
+    private final long estimatedBytes;
+
+    public TitleTrieStats(int titles, int nodes, long estimatedBytes) {
+        this.titles = titles;
+        this.nodes = nodes;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public int getTitles() {
+        return titles;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+}
@@ -1,9 +1,20 @@
 package io.catalyte.demo.products;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.catalyte.demo.codes.Allergen;
+import io.catalyte.demo.codes.AllergenSetConverter;
+import io.catalyte.demo.money.Pricing;
+import io.catalyte.demo.uniqueness.UniqueKeyGuard;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
+@Table(uniqueConstraints = {
+    @UniqueConstraint(name = "product_name_key_key", columnNames = "name_key")
+})
 public class Product {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -12,17 +23,58 @@ public class Product {
   private boolean active;
   private String description;
   private String name;
+
+  // Normalized copy of name that the unique index is built on
+  @JsonIgnore
+  @Column(name = "name_key")
+  private String nameKey;
+
   private String vendorId;
 
+  // The repository's read methods fetch it with the product; anything else loading many products reads it in batches
   @ElementCollection
+  @BatchSize(size = 100)
   private List<String> ingredientsList;
+
+  // Classification, type and allergens are stored as smallint codes and shown as the text fields below
+  @JsonIgnore
+  @Column(name = "classification_code")
+  @Convert(converter = ProductClassification.Converter.class)
+  private ProductClassification classificationCode;
+  @JsonIgnore
+  @Column(name = "type_code")
+  @Convert(converter = ProductType.Converter.class)
+  private ProductType typeCode;
+  @JsonIgnore
+  @Column(name = "allergen_mask")
+  @Convert(converter = AllergenSetConverter.class)
+  private Set<Allergen> allergenSet;
+
+  @Transient
   private String classification;
+  @Transient
   private String type;
+
+  // Prices are stored as whole cents and the markup as basis points, so they can be indexed and summed;
+  // the JSON keeps the text fields below, which are filled from these columns when a product is loaded
+  @JsonIgnore
+  @Column(name = "cost_cents")
+  private Long costCents;
+  @JsonIgnore
+  @Column(name = "markup_basis_points")
+  private Long markupBasisPoints;
+  @JsonIgnore
+  @Column(name = "sale_price_cents")
+  private Long salePriceCents;
+
+  @Transient
   private String cost;
+  @Transient
   private String markup;
 
- @ElementCollection
+  @Transient
   private List<String> allergenList;
+  @Transient
   private String salePrice;
 
   public Product() {
@@ -35,6 +87,7 @@ public class Product {
     this.active = active;
     this.description = description;
     this.name = name;
+    this.nameKey = UniqueKeyGuard.normalize(name);
     this.vendorId = vendorId;
     this.ingredientsList = ingredientsList;
     this.classification = classification;
@@ -75,6 +128,11 @@ public class Product {
 
   public void setName(String name) {
     this.name = name;
+    this.nameKey = UniqueKeyGuard.normalize(name);
+  }
+
+  public String getNameKey() {
+    return nameKey;
   }
 
   public String getVendorId() {
@@ -140,4 +198,90 @@ public class Product {
   public void setSalePrice(String salePrice) {
     this.salePrice = salePrice;
   }
+
+  public Long getCostCents() {
+    return costCents;
+  }
+
+  public Long getMarkupBasisPoints() {
+    return markupBasisPoints;
+  }
+
+  public Long getSalePriceCents() {
+    return salePriceCents;
+  }
+
+  /**
+   * Sets the stored prices and the text fields shown for them.
+   *
+   * @param costCents the cost in cents
+   * @param markupBasisPoints the markup in basis points, or null when the product has no markup
+   * @param salePriceCents the sale price in cents
+   */
+  public void setPrices(long costCents, Long markupBasisPoints, long salePriceCents) {
+    this.costCents = costCents;
+    this.markupBasisPoints = markupBasisPoints;
+    this.salePriceCents = salePriceCents;
+    showPrices();
+  }
+
+  public ProductClassification getClassificationCode() {
+    return classificationCode;
+  }
+
+  public ProductType getTypeCode() {
+    return typeCode;
+  }
+
+  public Set<Allergen> getAllergenSet() {
+    return allergenSet;
+  }
+
+  /**
+   * Sets the stored codes and the text fields shown for them.
+   *
+   * @param classificationCode the classification
+   * @param typeCode the type, n/a for a Baked Good
+   * @param allergenSet the allergens
+   */
+  public void setCodes(ProductClassification classificationCode, ProductType typeCode, EnumSet<Allergen> allergenSet) {
+    this.classificationCode = classificationCode;
+    this.typeCode = typeCode;
+    this.allergenSet = allergenSet;
+    showCodes();
+  }
+
+  @PostLoad
+  void showStoredValues() {
+    showPrices();
+    showCodes();
+  }
+
+  private void showCodes() {
+    this.classification = classificationCode == null ? null : classificationCode.getLabel();
+    this.type = typeCode == null ? null : typeCode.getLabel();
+    this.allergenList = Allergen.labels(allergenSet);
+  }
+
+  private void showPrices() {
+    this.cost = formatCents(costCents);
+    this.markup = formatMarkup(markupBasisPoints);
+    this.salePrice = formatCents(salePriceCents);
+  }
+
+  /**
+   * @param cents an amount in cents, or null
+   * @return the amount as shown in the JSON, e.g. "5.25"
+   */
+  public static String formatCents(Long cents) {
+    return cents == null ? null : Pricing.formatCents(cents);
+  }
+
+  /**
+   * @param basisPoints a markup in basis points, or null
+   * @return the markup as shown in the JSON: a whole percentage, e.g. "25", or "n/a" when there is none
+   */
+  public static String formatMarkup(Long basisPoints) {
+    return basisPoints == null ? "n/a" : Pricing.formatPercent(basisPoints);
+  }
 }
\ No newline at end of file
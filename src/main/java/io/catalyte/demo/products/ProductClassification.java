@@ -0,0 +1,43 @@
+package io.catalyte.demo.products;
+
+import io.catalyte.demo.codes.CodeConverter;
+import io.catalyte.demo.codes.Coded;
+import io.catalyte.demo.codes.Codes;
+
+/**
+ * What a product is; decides which of vendorId, type and markup apply.
+ */
+public enum ProductClassification implements Coded {
+    DRINK(1, "Drink"),
+    BAKED_GOOD(2, "Baked Good");
+
+    public static final Codes<ProductClassification> CODES = Codes.of(ProductClassification.class);
+
+    private final short code;
+    private final String label;
+
+    ProductClassification(int code, String label) {
+        this.code = (short) code;
+        this.label = label;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Stores the classification in a smallint column.
+     */
+    @jakarta.persistence.Converter
+    public static class Converter extends CodeConverter<ProductClassification> {
+        public Converter() {
+            super(CODES);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package io.catalyte.demo.products;
 
+import io.catalyte.demo.dryrun.DryRun;
+
 import java.util.List;
 
 public interface ProductService {
@@ -8,6 +10,8 @@ public interface ProductService {
 
     List<Product> getProducts();
 
+    List<?> getProducts(String fields);
+
     Product getProductById(int id);
 
     List<Product> getProductByName(String name);
@@ -17,4 +21,8 @@ public interface ProductService {
     Product editProduct(Product productToEdit, int id);
 
     void deleteProductById(int id);
+
+    // Bulk validation:
+
+    DryRun<Product> getDryRun();
 }
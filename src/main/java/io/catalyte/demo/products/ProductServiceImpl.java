@@ -1,12 +1,26 @@
 package io.catalyte.demo.products;
 
+import io.catalyte.demo.codes.Allergen;
+import io.catalyte.demo.codes.Coded;
+import io.catalyte.demo.dryrun.DryRun;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.fields.FieldSelection;
+import io.catalyte.demo.fields.MappedField;
+import io.catalyte.demo.fields.SparseFieldsRepository;
+import io.catalyte.demo.uniqueness.UniqueKeyGuard;
+import io.catalyte.demo.validation.FieldError;
+import io.catalyte.demo.validation.ValidationFailedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service implementation & business logic layer.
@@ -14,17 +28,37 @@ import java.util.Optional;
  */
 @Service
 public class ProductServiceImpl implements ProductService {
+    static final List<String> LIST_FIELDS = List.of("id", "active", "description", "name", "vendorId", "ingredientsList",
+            "classification", "type", "cost", "markup", "allergenList", "salePrice");
+    // The prices are shown as text but stored as cents and basis points, and the coded fields as small numbers
+    static final Map<String, MappedField> MAPPED_FIELDS = Map.of(
+            "cost", MappedField.of("costCents", Long.class, Product::formatCents),
+            "markup", MappedField.of("markupBasisPoints", Long.class, Product::formatMarkup),
+            "salePrice", MappedField.of("salePriceCents", Long.class, Product::formatCents),
+            "classification", MappedField.of("classificationCode", ProductClassification.class, Coded::labelOf),
+            "type", MappedField.of("typeCode", ProductType.class, Coded::labelOf),
+            "allergenList", MappedField.of("allergenSet", Set.class, Allergen::labelsOf));
+    private static final FieldError NAME_EXISTS = new FieldError("name", ProductValidator.NAME_EXISTS_MESSAGE);
+
     ProductRepository productRepository;
+    SparseFieldsRepository sparseFieldsRepository;
+    ApplicationEventPublisher eventPublisher;
     ProductValidator productValidator = new ProductValidator();
+    UniqueKeyGuard uniqueKeyGuard = new UniqueKeyGuard();
 
     /**
      * Constructs a new instance of ProductServiceImpl with the specified ProductRepository.
      *
      * @param productRepository The ProductRepository instance to be used by this service.
+     * @param sparseFieldsRepository Reads the attributes selected with fields= on the list endpoint.
+     * @param eventPublisher Announces every change after it is saved.
      */
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, SparseFieldsRepository sparseFieldsRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.sparseFieldsRepository = sparseFieldsRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -36,6 +70,21 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findAll(); // Get All Products Logic goes here
     }
 
+    /**
+     * Retrieves all products, with only the selected attributes when fields are given.
+     * Only the selected columns are read then; the id is always included.
+     *
+     * @param fields Comma-separated attribute names, e.g. "id,name", or null for whole products.
+     * @return A list of all products, or one map of attribute values per product.
+     */
+    public List<?> getProducts(String fields) {
+        FieldSelection selection = FieldSelection.parse(fields, LIST_FIELDS);
+        if (selection == null) {
+            return getProducts();
+        }
+        return sparseFieldsRepository.findAll(Product.class, selection, MAPPED_FIELDS);
+    }
+
     /**
      * Retrieves a product by its ID.
      *
@@ -65,7 +114,7 @@ public class ProductServiceImpl implements ProductService {
         List<Product> tempList = productRepository.findByNameIgnoreCase(name);
 
         if (!tempList.isEmpty()) {
-            return productRepository.findByNameIgnoreCase(name);
+            return tempList;
         } else throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
     }
 
@@ -77,22 +126,34 @@ public class ProductServiceImpl implements ProductService {
      *                        and salePrice
      * @return the created product
      */
+    @Transactional
     public Product createProduct(Product productToCreate) {
-        String errorMessage = productValidator.validateProduct(productToCreate);
-        if (!errorMessage.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMessage);
+        FieldError[] errors = productValidator.checkProduct(productToCreate);
+        if (errors.length > 0) {
+            throw new ValidationFailedException(errors, "");
         }
-        errorMessage = productValidator.isUniqueProduct(productToCreate.getName(), getProducts());
-        if (!errorMessage.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, errorMessage);
+        if (productRepository.existsByNameKey(productToCreate.getNameKey())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ProductValidator.NAME_EXISTS_MESSAGE);
         }
 
         Product formattedProduct = productValidator.formatProduct(productToCreate);
 
-        productRepository.save(formattedProduct);
+        uniqueKeyGuard.save(() -> productRepository.saveAndFlush(formattedProduct),
+                HttpStatus.CONFLICT, ProductValidator.NAME_EXISTS_MESSAGE);
+        eventPublisher.publishEvent(InventoryChangeEvent.created(Product.class, formattedProduct.getId(), formattedProduct));
         return formattedProduct;
     }
 
+    /**
+     * The checks of createProduct, for validating many products without saving them.
+     *
+     * @return the rules of a new product, and its name, which must not be taken
+     */
+    public DryRun<Product> getDryRun() {
+        return DryRun.of(Product.class, productValidator::checkProduct)
+                .unique(Product::getNameKey, productRepository::findExistingNameKeys, NAME_EXISTS);
+    }
+
     /**
      * Updates an existing product.
      *
@@ -100,21 +161,21 @@ public class ProductServiceImpl implements ProductService {
      * @param productToEdit The updated product data.
      * @return The updated product.
      */
+    @Transactional
     public Product editProduct(Product productToEdit, int id) {
         if (productRepository.findById(id).isPresent()) {
-            String errorMessage = productValidator.validateProduct(productToEdit);
-            if (!errorMessage.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorMessage);
+            FieldError[] errors = productValidator.checkProduct(productToEdit);
+            if (errors.length > 0) {
+                throw new ValidationFailedException(errors, "");
             }
-            List<Product> products = getProducts();
-            boolean nameExists = products.stream()
-                .anyMatch(product -> product.getId() != id && product.getName().equalsIgnoreCase(productToEdit.getName()));
-            if (nameExists) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "Product with matching name already exists.");
+            if (productRepository.existsByNameKeyAndIdNot(productToEdit.getNameKey(), id)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, ProductValidator.NAME_EXISTS_MESSAGE);
             }
             productToEdit.setId(id);
             Product formattedProduct = productValidator.formatProduct(productToEdit);
-            productRepository.save(formattedProduct);
+            uniqueKeyGuard.save(() -> productRepository.saveAndFlush(formattedProduct),
+                    HttpStatus.CONFLICT, ProductValidator.NAME_EXISTS_MESSAGE);
+            eventPublisher.publishEvent(InventoryChangeEvent.updated(Product.class, id, formattedProduct, null));
             return formattedProduct;
         } else throw new ResponseStatusException(HttpStatus.NOT_FOUND, "The Product was not found");
     }
@@ -125,11 +186,13 @@ public class ProductServiceImpl implements ProductService {
      * @param id The ID of the product to delete.
      * @throws ResponseStatusException NOT_FOUND when an invalid ID is provided.
      */
+    @Transactional
     public void deleteProductById(int id) {
         Optional<Product> foundProduct = productRepository.findById(id);
 
         if (foundProduct.isPresent()) {
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(InventoryChangeEvent.deleted(Product.class, id, null));
         } else throw new ResponseStatusException(HttpStatus.NOT_FOUND, "A product with this ID was not found and could not be deleted.");
     }
 }
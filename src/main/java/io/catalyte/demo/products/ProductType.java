@@ -0,0 +1,45 @@
+package io.catalyte.demo.products;
+
+import io.catalyte.demo.codes.CodeConverter;
+import io.catalyte.demo.codes.Coded;
+import io.catalyte.demo.codes.Codes;
+
+/**
+ * The kind of Drink; a Baked Good's type is n/a.
+ */
+public enum ProductType implements Coded {
+    NOT_APPLICABLE(0, "n/a"),
+    COFFEE(1, "Coffee"),
+    TEA(2, "Tea"),
+    SODA(3, "Soda");
+
+    public static final Codes<ProductType> CODES = Codes.of(ProductType.class);
+
+    private final short code;
+    private final String label;
+
+    ProductType(int code, String label) {
+        this.code = (short) code;
+        this.label = label;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Stores the type in a smallint column.
+     */
+    @jakarta.persistence.Converter
+    public static class Converter extends CodeConverter<ProductType> {
+        public Converter() {
+            super(CODES);
+        }
+    }
+}
@@ -1,11 +1,95 @@
 package io.catalyte.demo.products;
 
-import java.text.DecimalFormat;
-import java.util.Arrays;
+import io.catalyte.demo.codes.Allergen;
+import io.catalyte.demo.money.Pricing;
+import io.catalyte.demo.validation.FieldError;
+import io.catalyte.demo.validation.Rule;
+import io.catalyte.demo.validation.RuleSet;
+import io.catalyte.demo.validation.Rules;
+
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Validates and formats Products. The rules are compiled once, when the class is loaded.
+ */
 public class ProductValidator {
-    DecimalFormat df = new DecimalFormat("#.00");
+    public static final String NAME_EXISTS_MESSAGE = "Product with matching name already exists.";
+
+    private static final String DRINK = "Drink";
+    private static final String BAKED_GOOD = "Baked Good";
+    private static final Set<String> DRINK_TYPES = Set.of(ProductType.COFFEE.getLabel(), ProductType.TEA.getLabel(),
+            ProductType.SODA.getLabel());
+
+    private static final Rule<Product> DESCRIPTION = Rules.on(Product::getDescription, Rules.text()
+            .whenNull(" Description is null.")
+            .whenEmpty(" Description is empty.")
+            .whenLongerThan(100, " Description must be less than 100 characters.")
+            .build());
+    private static final Rule<Product> NAME = Rules.on(Product::getName, Rules.text()
+            .whenNull(" Name is null.")
+            .whenEmpty(" Name is empty.")
+            .whenLongerThan(50, " Name must be less than 50 characters.")
+            .build());
+    private static final Rule<Product> VENDOR_ID = byClassification(" VendorID could not be validated.", BAKED_GOOD,
+            Rules.on(Product::getVendorId, Rules.text()
+                    .whenNull(" Movies ID is null.")
+                    .whenEmpty(" Movies ID is empty.")
+                    .build()));
+    private static final Rule<Product> CLASSIFICATION = Rules.on(Product::getClassification, Rules.text()
+            .whenNull(" Classification is null.")
+            .whenEmpty(" Classification is empty.")
+            .whenNotOneOf(ProductClassification.CODES.labels(), " Classification must be Drink or Baked Good.")
+            .build());
+    private static final Rule<Product> TYPE = byClassification(" Type could not be validated.", DRINK,
+            Rules.on(Product::getType, Rules.text()
+                    .whenNull(" Type is null.")
+                    .whenEmpty(" Type is empty.")
+                    .whenNotOneOf(DRINK_TYPES, " Type must be Coffee, Tea, or Soda.")
+                    .build()));
+    private static final Rule<Product> COST = Rules.on(Product::getCost, Rules.text()
+            .whenNull(" Cost is null.")
+            .whenEmpty(" Cost is empty.")
+            .whenNotNumber(" Cost must be a number.")
+            .build());
+    private static final Rule<Product> MARKUP = byClassification(" Markup could not be validated.", BAKED_GOOD,
+            Rules.on(Product::getMarkup, Rules.text()
+                    .whenNull(" Markup is null.")
+                    .whenEmpty(" Markup is empty.")
+                    .whenNotWholeNumber(" Markup must be a whole number.")
+                    .build()));
+    private static final Rule<Product> INGREDIENTS_LIST = Rules.on(Product::getIngredientsList, ingredients -> {
+        if (ingredients == null) {
+            return " IngredientsList is null.";
+        }
+        return ingredients.isEmpty() ? " IngredientsList is empty." : null;
+    });
+    private static final Rule<Product> ALLERGEN_LIST = Rules.on(Product::getAllergenList,
+            Rules.elementsOf(" AllergenList is null.", Allergen.CODES.labels(),
+                    " AllergenList must contain: Dairy, Soy, Gluten, or Nuts."));
+    // Checked last and only once cost and markup are valid; the stored cents must fit in a long
+    private static final Rule<Product> SALE_PRICE = product -> {
+        if (COST.check(product) != null || MARKUP.check(product) != null || CLASSIFICATION.check(product) != null) {
+            return null;
+        }
+        try {
+            salePriceCents(product);
+            return null;
+        } catch (ArithmeticException | NumberFormatException e) {
+            return " Sale Price is too large.";
+        }
+    };
+    private static final RuleSet<Product> RULES = RuleSet.of(
+            Rules.field("description", DESCRIPTION),
+            Rules.field("name", NAME),
+            Rules.field("vendorId", VENDOR_ID),
+            Rules.field("classification", CLASSIFICATION),
+            Rules.field("type", TYPE),
+            Rules.field("cost", COST),
+            Rules.field("markup", MARKUP),
+            Rules.field("ingredientsList", INGREDIENTS_LIST),
+            Rules.field("allergenList", ALLERGEN_LIST),
+            Rules.field("salePrice", SALE_PRICE));
 
     /**
      * Validates that Product Description is not null, empty, and greater than 100 characters
@@ -15,14 +99,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductDescription(Product productToValidate) {
-        if (productToValidate.getDescription() == null) {
-            return " Description is null.";
-        } else if (productToValidate.getDescription().isEmpty()) {
-            return " Description is empty.";
-        } else if (productToValidate.getDescription().length() > 100) {
-            return " Description must be less than 100 characters.";
-        }
-        return "";
+        return Rules.orEmpty(DESCRIPTION.check(productToValidate));
     }
 
     /**
@@ -33,14 +110,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductName(Product productToValidate) {
-        if (productToValidate.getName() == null) {
-            return " Name is null.";
-        } else if (productToValidate.getName().isEmpty()) {
-            return " Name is empty.";
-        } else if (productToValidate.getName().length() > 50) {
-            return " Name must be less than 50 characters.";
-        }
-        return "";
+        return Rules.orEmpty(NAME.check(productToValidate));
     }
 
     /**
@@ -51,21 +121,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductVendorID(Product productToValidate) {
-        if (productToValidate.getClassification() != null) {
-            if (productToValidate.getClassification().equals("Baked Good")) {
-                if (productToValidate.getVendorId() == null) {
-                    return " Movies ID is null.";
-                }
-                else if (productToValidate.getVendorId().isEmpty()) {
-                    return " Movies ID is empty.";
-                }
-                else {
-                    return "";
-                }
-            }
-            return "";
-        }
-        return " VendorID could not be validated.";
+        return Rules.orEmpty(VENDOR_ID.check(productToValidate));
     }
 
     /**
@@ -76,12 +132,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductIngredientsList(Product productToValidate) {
-        if (productToValidate.getIngredientsList() == null) {
-            return " IngredientsList is null.";
-        } else if (productToValidate.getIngredientsList().isEmpty()) {
-            return " IngredientsList is empty.";
-        }
-        return "";
+        return Rules.orEmpty(INGREDIENTS_LIST.check(productToValidate));
     }
 
     /**
@@ -92,14 +143,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductClassification(Product productToValidate) {
-        if (productToValidate.getClassification() == null) {
-            return " Classification is null.";
-        } else if (productToValidate.getClassification().isEmpty()) {
-            return " Classification is empty.";
-        } else if (productToValidate.getClassification().equals("Drink") || productToValidate.getClassification().equals("Baked Good")) {
-            return "";
-        }
-        return " Classification must be Drink or Baked Good.";
+        return Rules.orEmpty(CLASSIFICATION.check(productToValidate));
     }
 
     /**
@@ -110,30 +154,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductType(Product productToValidate) {
-        List<String> drinkTypes = Arrays.asList(
-                "Coffee",
-                "Tea",
-                "Soda"
-        );
-
-        if (productToValidate.getClassification() != null) {
-            if (productToValidate.getClassification().equals("Drink")) {
-                if (productToValidate.getType() == null) {
-                    return " Type is null.";
-                } else if (productToValidate.getType().isEmpty()) {
-                    return " Type is empty.";
-                } else {
-                    for (String drink : drinkTypes) {
-                        if (productToValidate.getType().equals(drink)) {
-                            return "";
-                        }
-                    }
-                }
-                return " Type must be Coffee, Tea, or Soda.";
-            }
-            return "";
-        }
-        return " Type could not be validated.";
+        return Rules.orEmpty(TYPE.check(productToValidate));
     }
 
     /**
@@ -144,18 +165,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductCost(Product productToValidate) {
-        if (productToValidate.getCost() == null) {
-            return " Cost is null.";
-        } else if (productToValidate.getCost().isEmpty()) {
-            return " Cost is empty.";
-        } else {
-            try {
-                formatDollarValues(productToValidate.getCost());
-            } catch (NumberFormatException e) {
-                return " Cost must be a number.";
-            }
-            return "";
-        }
+        return Rules.orEmpty(COST.check(productToValidate));
     }
 
     /**
@@ -166,23 +176,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductMarkup(Product productToValidate) {
-        if (productToValidate.getClassification() != null) {
-            if (productToValidate.getClassification().equals("Baked Good")) {
-                if (productToValidate.getMarkup() == null) {
-                    return " Markup is null.";
-                } else if (productToValidate.getMarkup().isEmpty()) {
-                    return " Markup is empty.";
-                } else {
-                    try {
-                        Integer.parseInt(productToValidate.getMarkup());
-                    } catch (NumberFormatException e) {
-                        return " Markup must be a whole number.";
-                    }
-                }
-            }
-            return "";
-        }
-        return " Markup could not be validated.";
+        return Rules.orEmpty(MARKUP.check(productToValidate));
     }
 
     /**
@@ -193,25 +187,7 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProductAllergenList(Product productToValidate) {
-        List<String> allergens = Arrays.asList(
-                "Dairy",
-                "Soy",
-                "Gluten",
-                "Nuts"
-        );
-        List<String> allergensToValidate = productToValidate.getAllergenList();
-
-        if (productToValidate.getAllergenList() == null) {
-            return " AllergenList is null.";
-        } else if (!productToValidate.getAllergenList().isEmpty()) {
-            for (String allergen : allergensToValidate) {
-                if (!allergens.contains(allergen)) {
-                    return " AllergenList must contain: Dairy, Soy, Gluten, or Nuts.";
-                }
-            }
-            return "";
-        }
-        return "";
+        return Rules.orEmpty(ALLERGEN_LIST.check(productToValidate));
     }
 
     /**
@@ -222,15 +198,7 @@ public class ProductValidator {
      * @return a String containing calculated value in x.xx format
      */
     public String calculateSalesPrice(Product productToValidate) {
-        if (!productToValidate.getClassification().equals("Baked Good")) {
-            return formatDollarValues(String.valueOf(productToValidate.getCost()));
-        }
-
-        double markup = Double.parseDouble(productToValidate.getMarkup());
-        double cost = Double.parseDouble(productToValidate.getCost());
-        double salePrice = (cost * (markup/100)) + cost;
-
-        return formatDollarValues(String.valueOf(salePrice));
+        return Pricing.formatCents(salePriceCents(productToValidate));
     }
 
     /**
@@ -239,8 +207,7 @@ public class ProductValidator {
      * @return a String containing numerical value in x.xx format
      */
     public String formatDollarValues(String valueToFormat) {
-        double convertedDoubleFromString = Double.parseDouble(valueToFormat);
-        return df.format(convertedDoubleFromString);
+        return Pricing.formatCents(Pricing.parseCents(valueToFormat));
     }
 
     /**
@@ -251,25 +218,16 @@ public class ProductValidator {
      * @return an error String according to supplied Product
      */
     public String validateProduct(Product productToValidate) {
-            String error1 = validateProductDescription(productToValidate);
-            String error2 = validateProductName(productToValidate);
-            String error3 = validateProductVendorID(productToValidate);
-            String error4 = validateProductClassification(productToValidate);
-            String error5 = validateProductType(productToValidate);
-            String error6 = validateProductCost(productToValidate);
-            String error7 = validateProductMarkup(productToValidate);
-            String error8 = validateProductIngredientsList(productToValidate);
-            String error9 = validateProductAllergenList(productToValidate);
+        return RULES.concatenate(productToValidate);
+    }
 
-            return error1 +
-                    error2 +
-                    error3 +
-                    error4 +
-                    error5 +
-                    error6 +
-                    error7 +
-                    error8 +
-                    error9;
+    /**
+     * Validates all Product Fields, naming the field of each error
+     * @param productToValidate - the Product to validate
+     * @return the errors of invalid fields; otherwise, an empty array
+     */
+    public FieldError[] checkProduct(Product productToValidate) {
+        return RULES.check(productToValidate);
     }
 
     /**
@@ -288,24 +246,45 @@ public class ProductValidator {
             productToFormat.setVendorId("n/a");
         }
 
-        productToFormat.setCost(formatDollarValues(productToFormat.getCost()));
-        productToFormat.setSalePrice(calculateSalesPrice(productToFormat));
+        long costCents = Pricing.parseCents(productToFormat.getCost());
+        Long markupBasisPoints = isBakedGood(productToFormat)
+                ? Pricing.parseBasisPoints(productToFormat.getMarkup()) : null;
+        productToFormat.setPrices(costCents, markupBasisPoints, salePriceCents(productToFormat));
+        productToFormat.setCodes(ProductClassification.CODES.fromLabel(productToFormat.getClassification()),
+                ProductType.CODES.fromLabel(productToFormat.getType()),
+                Allergen.setOf(productToFormat.getAllergenList()));
 
         return productToFormat;
     }
 
     /**
-     * Validates that Product with matching name (Case insensitive) does not already exist
-     * @param productName - The name of the new Product
-     * @param listOfProducts - The list of all persisted Products
-     * @return an error String based on result of the search
+     * Applies a rule only to Products of one classification.
+     * Without a classification the field can't be validated; other classifications pass.
      */
-    public String isUniqueProduct(String productName, List<Product> listOfProducts) {
-        for (Product product : listOfProducts) {
-            if (product.getName().equalsIgnoreCase(productName)) {
-                return "Product with matching name already exists.";
+    private static Rule<Product> byClassification(String unknownMessage, String classification, Rule<Product> rule) {
+        return product -> {
+            if (product.getClassification() == null) {
+                return unknownMessage;
             }
+            return product.getClassification().equals(classification) ? rule.check(product) : null;
+        };
+    }
+
+    /**
+     * Computes the sale price with exact integer arithmetic; only Baked Goods are marked up.
+     *
+     * @throws NumberFormatException if the cost or markup is not a number
+     * @throws ArithmeticException if the sale price does not fit in a long of cents
+     */
+    private static long salePriceCents(Product product) {
+        long costCents = Pricing.parseCents(product.getCost());
+        if (!isBakedGood(product)) {
+            return costCents;
         }
-        return "";
+        return Pricing.salePriceCents(costCents, Pricing.parseBasisPoints(product.getMarkup()));
+    }
+
+    private static boolean isBakedGood(Product product) {
+        return BAKED_GOOD.equals(product.getClassification());
     }
 }
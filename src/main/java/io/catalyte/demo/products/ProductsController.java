@@ -1,11 +1,17 @@
 package io.catalyte.demo.products;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import io.catalyte.demo.dryrun.DryRunValidator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping(value = "/products")
@@ -16,24 +22,29 @@ public class ProductsController {
    * */
 
   ProductService productService;
+  DryRunValidator dryRunValidator;
 
   /**
    * @param productService - the service for performing CRUD methods on Customer instances
+   * @param dryRunValidator - checks many products without saving them
    * */
   @Autowired
-  public ProductsController(ProductService productService) {
+  public ProductsController(ProductService productService, DryRunValidator dryRunValidator) {
     this.productService = productService;
+    this.dryRunValidator = dryRunValidator;
   }
 
   /**
    * Retrieves a list of all products.
    *
+   * @param fields Optional comma-separated attributes to return, e.g. "id,name"; only those columns,
+   *               and only the selected ingredient and allergen lists, are read.
    * @return A list of all products in the system.
    */
   @GetMapping
   @ResponseStatus(HttpStatus.OK)
-  public List<Product> getProducts() {
-    return productService.getProducts();
+  public List<?> getProducts(@RequestParam(required = false) String fields) {
+    return productService.getProducts(fields);
   }
 
   /**
@@ -73,6 +84,20 @@ public class ProductsController {
     return productService.createProduct(productToCreate);
   }
 
+  /**
+   * Checks many products like POST /products without saving any
+   * @param body - a JSON array or newline-delimited JSON of products, streamed from the request
+   * @param contentType - the type of the body
+   * @return one newline-delimited result per row, in row order, written while the body is read
+   */
+  @PostMapping(value = "/validate", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<StreamingResponseBody> validateProducts(InputStream body,
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(dryRunValidator.validate(body, contentType, productService.getDryRun()));
+  }
+
   /**
    * Updates an existing product.
    *
@@ -0,0 +1,68 @@
+package io.catalyte.demo.uniqueness;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Enforces the unique keys of movies, products and customers.
+ * Uniqueness is owned by unique indexes on normalized key columns: services look the key up
+ * through the index before saving to give a fast answer, and a violation raised by the
+ * database on save is mapped to the same response, so two parallel requests can't both win.
+ */
+public class UniqueKeyGuard {
+
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+
+    /**
+     * Normalizes a value into its unique key, so names differing only in case collide.
+     *
+     * @param value the value to normalize
+     * @return the lower-cased value, or null if the value is null
+     */
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Runs a save and maps a unique key violation to a ResponseStatusException.
+     *
+     * @param save the repository save to run
+     * @param conflictStatus the status to respond with when the key is taken
+     * @param conflictMessage the message to respond with when the key is taken
+     * @return the result of the save
+     */
+    public <T> T save(Supplier<T> save, HttpStatus conflictStatus, String conflictMessage) {
+        try {
+            return save.get();
+        } catch (DataIntegrityViolationException e) {
+            if (isUniqueViolation(e)) {
+                throw new ResponseStatusException(conflictStatus, conflictMessage);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether an exception was caused by a unique index rejecting a write.
+     *
+     * @param exception the exception thrown by the repository
+     * @return true if the cause chain holds a unique violation
+     */
+    public boolean isUniqueViolation(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && UNIQUE_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package io.catalyte.demo.validation;
+
+/**
+ * A set of ASCII characters compiled to a bit mask, for checking text one character at a time
+ * without a regex matcher. Characters outside ASCII are never members.
+ */
+public final class CharClass {
+    /**
+     * The characters of the regex class {@code \s}: space, tab, newline, vertical tab, form feed and carriage return.
+     */
+    public static final String WHITESPACE = " \t\n\u000B\f\r";
+
+    private final long low;
+    private final long high;
+
+    private CharClass(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Creates a class of the given characters.
+     *
+     * @param chars the member characters, all ASCII
+     * @return the class
+     */
+    public static CharClass of(String chars) {
+        return new CharClass(0, 0).plus(chars);
+    }
+
+    /**
+     * Adds an inclusive range.
+     *
+     * @param first the first member character
+     * @param last the last member character
+     * @return a class with the range added
+     */
+    public CharClass plusRange(char first, char last) {
+        CharClass added = this;
+        for (char c = first; c <= last; c++) {
+            added = added.plus(c);
+        }
+        return added;
+    }
+
+    /**
+     * Adds characters.
+     *
+     * @param chars the characters to add, all ASCII
+     * @return a class with the characters added
+     */
+    public CharClass plus(String chars) {
+        CharClass added = this;
+        for (int i = 0; i < chars.length(); i++) {
+            added = added.plus(chars.charAt(i));
+        }
+        return added;
+    }
+
+    private CharClass plus(char c) {
+        if (c >= 128) {
+            throw new IllegalArgumentException("Not an ASCII character: " + c);
+        }
+        return c < 64 ? new CharClass(low | 1L << c, high) : new CharClass(low, high | 1L << (c - 64));
+    }
+
+    /**
+     * @param c the character
+     * @return true if the character is a member
+     */
+    public boolean contains(char c) {
+        if (c < 64) {
+            return (low & 1L << c) != 0;
+        }
+        return c < 128 && (high & 1L << (c - 64)) != 0;
+    }
+
+    /**
+     * @param text the text, or a part of it
+     * @param from the first index checked
+     * @param to the index after the last one checked
+     * @return true if every character in the range is a member
+     */
+    public boolean containsAll(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!contains(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
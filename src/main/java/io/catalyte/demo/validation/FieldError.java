@@ -0,0 +1,31 @@
+package io.catalyte.demo.validation;
+
+/**
+ * One rejected field of a request, as listed in a validation problem response.
+ */
+public final class FieldError {
+
+    private final String field;
+    private final String message;
+
+    public FieldError(String field, String message) {
+        this.field = field;
+        this.message = message;
+    }
+
+    /**
+     * @return the JSON name of the field, or null when the message is not about a single field
+     */
+    public String getField() {
+        return field;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return field + ": " + message;
+    }
+}
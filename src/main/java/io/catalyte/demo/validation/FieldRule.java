@@ -0,0 +1,26 @@
+package io.catalyte.demo.validation;
+
+/**
+ * A rule that reports its failures against a named request field.
+ *
+ * @param <T> the type of value checked
+ */
+final class FieldRule<T> implements Rule<T> {
+
+    private final String field;
+    private final Rule<? super T> rule;
+
+    FieldRule(String field, Rule<? super T> rule) {
+        this.field = field;
+        this.rule = rule;
+    }
+
+    String getField() {
+        return field;
+    }
+
+    @Override
+    public String check(T value) {
+        return rule.check(value);
+    }
+}
@@ -0,0 +1,19 @@
+package io.catalyte.demo.validation;
+
+/**
+ * One compiled validation rule.
+ * Rules are built once, are immutable, and allocate nothing when the value passes.
+ *
+ * @param <T> the type of value checked
+ */
+@FunctionalInterface
+public interface Rule<T> {
+
+    /**
+     * Checks a value.
+     *
+     * @param value the value to check
+     * @return the error message, or null when the value passes
+     */
+    String check(T value);
+}
@@ -0,0 +1,118 @@
+package io.catalyte.demo.validation;
+
+import java.util.Arrays;
+
+/**
+ * The rules for one type, evaluated in the order they were given.
+ * A passing value is answered with shared constants, so validating it allocates nothing.
+ *
+ * @param <T> the type of value validated
+ */
+public final class RuleSet<T> {
+    /**
+     * Returned by {@link #validate} when every rule passes. It is shared and must not be modified.
+     */
+    public static final String[] NO_ERRORS = new String[0];
+    /**
+     * Returned by {@link #check} when every rule passes. It is shared and must not be modified.
+     */
+    public static final FieldError[] NO_FIELD_ERRORS = new FieldError[0];
+
+    private final Rule<? super T>[] rules;
+    private final String[] fields;
+
+    private RuleSet(Rule<? super T>[] rules) {
+        this.rules = rules;
+        this.fields = new String[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            if (rules[i] instanceof FieldRule<?> fieldRule) {
+                fields[i] = fieldRule.getField();
+            }
+        }
+    }
+
+    /**
+     * Creates a rule set.
+     *
+     * @param rules the rules, in the order their messages are reported
+     * @return the rule set
+     */
+    @SafeVarargs
+    public static <T> RuleSet<T> of(Rule<? super T>... rules) {
+        return new RuleSet<>(rules.clone());
+    }
+
+    /**
+     * Evaluates every rule.
+     *
+     * @param value the value to validate
+     * @return the error messages in rule order, or {@link #NO_ERRORS}
+     */
+    public String[] validate(T value) {
+        String[] errors = null;
+        int count = 0;
+        for (Rule<? super T> rule : rules) {
+            String message = rule.check(value);
+            if (message != null) {
+                if (errors == null) {
+                    errors = new String[rules.length];
+                }
+                errors[count++] = message;
+            }
+        }
+        if (errors == null) {
+            return NO_ERRORS;
+        }
+        if (count == errors.length) {
+            return errors;
+        }
+        String[] trimmed = new String[count];
+        System.arraycopy(errors, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    /**
+     * Evaluates every rule, reporting each message against the field named by {@link Rules#field}.
+     *
+     * @param value the value to validate
+     * @return the field errors in rule order, or {@link #NO_FIELD_ERRORS}
+     */
+    public FieldError[] check(T value) {
+        FieldError[] errors = null;
+        int count = 0;
+        for (int i = 0; i < rules.length; i++) {
+            String message = rules[i].check(value);
+            if (message != null) {
+                if (errors == null) {
+                    errors = new FieldError[rules.length - i];
+                }
+                errors[count++] = new FieldError(fields[i], message);
+            }
+        }
+        if (errors == null) {
+            return NO_FIELD_ERRORS;
+        }
+        return count == errors.length ? errors : Arrays.copyOf(errors, count);
+    }
+
+    /**
+     * Evaluates every rule and joins the messages without a separator,
+     * for validators whose messages carry their own leading space.
+     *
+     * @param value the value to validate
+     * @return the concatenated error messages, or an empty string
+     */
+    public String concatenate(T value) {
+        StringBuilder errors = null;
+        for (Rule<? super T> rule : rules) {
+            String message = rule.check(value);
+            if (message != null) {
+                if (errors == null) {
+                    errors = new StringBuilder(message.length() * 2);
+                }
+                errors.append(message);
+            }
+        }
+        return errors == null ? "" : errors.toString();
+    }
+}
@@ -0,0 +1,141 @@
+package io.catalyte.demo.validation;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Factories for the rules shared by the validators.
+ */
+public final class Rules {
+
+    private Rules() {
+    }
+
+    /**
+     * Starts a rule for a text value.
+     *
+     * @return a builder whose checks run in a fixed order: null, empty, blank, length, allowed values,
+     *         allowed characters, then format
+     */
+    public static TextRule.Builder text() {
+        return new TextRule.Builder();
+    }
+
+    /**
+     * Applies a rule to one field of an object.
+     *
+     * @param field reads the field
+     * @param rule the rule for the field's value
+     * @return a rule for the object
+     */
+    public static <T, V> Rule<T> on(Function<? super T, ? extends V> field, Rule<? super V> rule) {
+        return value -> rule.check(field.apply(value));
+    }
+
+    /**
+     * Names the request field a rule checks, so {@link RuleSet#check} can report its failures against it.
+     *
+     * @param name the JSON name of the field
+     * @param rule the rule
+     * @return the same checks, reported against the field
+     */
+    public static <T> Rule<T> field(String name, Rule<? super T> rule) {
+        return new FieldRule<>(name, rule);
+    }
+
+    /**
+     * Names the request field a rule checks and applies the rule to it.
+     *
+     * @param name the JSON name of the field
+     * @param field reads the field
+     * @param rule the rule for the field's value
+     * @return a rule for the object, reported against the field
+     */
+    public static <T, V> Rule<T> field(String name, Function<? super T, ? extends V> field, Rule<? super V> rule) {
+        return field(name, on(field, rule));
+    }
+
+    /**
+     * Applies a rule only when a condition holds.
+     *
+     * @param condition decides whether the rule applies
+     * @param rule the rule
+     * @return a rule that passes whenever the condition does not hold
+     */
+    public static <T> Rule<T> when(Predicate<? super T> condition, Rule<? super T> rule) {
+        return value -> condition.test(value) ? rule.check(value) : null;
+    }
+
+    /**
+     * Rejects a null value.
+     *
+     * @param message the message for a null value
+     * @return the rule
+     */
+    public static <T> Rule<T> notNull(String message) {
+        return value -> value == null ? message : null;
+    }
+
+    /**
+     * Rejects a null list, and a list with an element outside the allowed values.
+     * An empty list passes.
+     *
+     * @param nullMessage the message for a null list
+     * @param allowed the allowed elements
+     * @param notAllowedMessage the message for a list with an element that is not allowed
+     * @return the rule
+     */
+    public static Rule<List<String>> elementsOf(String nullMessage, Set<String> allowed, String notAllowedMessage) {
+        return values -> {
+            if (values == null) {
+                return nullMessage;
+            }
+            return allContained(values, allowed) ? null : notAllowedMessage;
+        };
+    }
+
+    /**
+     * Converts a rule's result to the empty-string convention of the older validators.
+     *
+     * @param message a rule's result
+     * @return the message, or an empty string when it passed
+     */
+    public static String orEmpty(String message) {
+        return message == null ? "" : message;
+    }
+
+    /**
+     * Converts a rule's result to the list convention of the older validators.
+     *
+     * @param message a rule's result
+     * @return a list holding the message, or an empty list when it passed
+     */
+    public static List<String> asList(String message) {
+        return message == null ? List.of() : List.of(message);
+    }
+
+    static boolean contains(Set<String> allowed, String value) {
+        // Set.of rejects null lookups
+        return value != null && allowed.contains(value);
+    }
+
+    private static boolean allContained(List<String> values, Set<String> allowed) {
+        if (values instanceof RandomAccess) {
+            for (int i = 0, size = values.size(); i < size; i++) {
+                if (!contains(allowed, values.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (String value : values) {
+            if (!contains(allowed, value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,337 @@
+package io.catalyte.demo.validation;
+
+import java.util.Set;
+
+/**
+ * A compiled rule for a text value. The checks that were configured run in a fixed order and the first one
+ * that fails gives the message, so each value is looked at once.
+ * Build one with {@link Rules#text()}.
+ */
+public final class TextRule implements Rule<String> {
+    private static final CharClass EMAIL_LOCAL = CharClass.of("_+&*-").plusRange('a', 'z').plusRange('A', 'Z')
+            .plusRange('0', '9');
+    private static final CharClass EMAIL_DOMAIN = CharClass.of("-").plusRange('a', 'z').plusRange('A', 'Z')
+            .plusRange('0', '9');
+    private static final CharClass LETTERS = CharClass.of("").plusRange('a', 'z').plusRange('A', 'Z');
+
+    private final String nullMessage;
+    private final String emptyMessage;
+    private final String blankMessage;
+    private final int maxLength;
+    private final String tooLongMessage;
+    private final Set<String> allowedValues;
+    private final String notAllowedMessage;
+    private final CharClass allowedChars;
+    private final String invalidCharsMessage;
+    private final String notEmailMessage;
+    private final String notNumberMessage;
+    private final String notWholeNumberMessage;
+
+    private TextRule(Builder builder) {
+        this.nullMessage = builder.nullMessage;
+        this.emptyMessage = builder.emptyMessage;
+        this.blankMessage = builder.blankMessage;
+        this.maxLength = builder.maxLength;
+        this.tooLongMessage = builder.tooLongMessage;
+        this.allowedValues = builder.allowedValues;
+        this.notAllowedMessage = builder.notAllowedMessage;
+        this.allowedChars = builder.allowedChars;
+        this.invalidCharsMessage = builder.invalidCharsMessage;
+        this.notEmailMessage = builder.notEmailMessage;
+        this.notNumberMessage = builder.notNumberMessage;
+        this.notWholeNumberMessage = builder.notWholeNumberMessage;
+    }
+
+    @Override
+    public String check(String value) {
+        if (value == null) {
+            return nullMessage;
+        }
+        if (emptyMessage != null && value.isEmpty()) {
+            return emptyMessage;
+        }
+        if (blankMessage != null && value.isBlank()) {
+            return blankMessage;
+        }
+        if (tooLongMessage != null && value.length() > maxLength) {
+            return tooLongMessage;
+        }
+        if (notAllowedMessage != null && !Rules.contains(allowedValues, value)) {
+            return notAllowedMessage;
+        }
+        if (invalidCharsMessage != null && !allowedChars.containsAll(value, 0, value.length())) {
+            return invalidCharsMessage;
+        }
+        if (notEmailMessage != null && !isEmailAddress(value)) {
+            return notEmailMessage;
+        }
+        if (notNumberMessage != null && !isNumber(value)) {
+            return notNumberMessage;
+        }
+        if (notWholeNumberMessage != null && !isWholeNumber(value)) {
+            return notWholeNumberMessage;
+        }
+        return null;
+    }
+
+    /**
+     * Scans the language of the regex
+     * {@code ^[a-zA-Z0-9_+&*-]+(?:\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\.)+[a-zA-Z]{2,7}$}
+     * without a matcher: dot-separated local words, an at sign, then dot-separated domain labels
+     * of which the last is 2 to 7 letters.
+     *
+     * @param value the text
+     * @return true if the regex would match the whole text
+     */
+    static boolean isEmailAddress(String value) {
+        int at = value.indexOf('@');
+        int lastDot = value.lastIndexOf('.');
+        if (at <= 0 || lastDot < at) {
+            return false;
+        }
+        int topLevelLength = value.length() - lastDot - 1;
+        return isDotSeparated(value, 0, at, EMAIL_LOCAL)
+                && isDotSeparated(value, at + 1, lastDot, EMAIL_DOMAIN)
+                && topLevelLength >= 2 && topLevelLength <= 7
+                && LETTERS.containsAll(value, lastDot + 1, value.length());
+    }
+
+    private static boolean isDotSeparated(String value, int from, int to, CharClass wordChars) {
+        boolean wordStart = true;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (wordStart) {
+                    return false;
+                }
+                wordStart = true;
+            } else if (wordChars.contains(c)) {
+                wordStart = false;
+            } else {
+                return false;
+            }
+        }
+        return !wordStart;
+    }
+
+    /**
+     * @param value the text
+     * @return true if {@link Double#parseDouble} accepts it as a finite number
+     */
+    static boolean isNumber(String value) {
+        if (isPlainDecimal(value)) {
+            return true;
+        }
+        // Exponents, hex, type suffixes and surrounding whitespace are rare; the parser only sees text
+        // it accepts, to learn whether the number is finite
+        return isFloatingPointLiteral(value) && !Double.isInfinite(Double.parseDouble(value));
+    }
+
+    private static boolean isPlainDecimal(String value) {
+        int i = 0;
+        int length = value.length();
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return false;
+            }
+        }
+        return digits > 0;
+    }
+
+    /**
+     * Scans the grammar of {@link Double#valueOf(String)} without NaN and Infinity: a signed decimal or
+     * hexadecimal mantissa, an exponent (required for hexadecimal), an optional f, F, d or D,
+     * and surrounding whitespace.
+     *
+     * @param value the text
+     * @return true if the parser accepts the text as a number
+     */
+    private static boolean isFloatingPointLiteral(String value) {
+        int from = 0;
+        int to = value.length();
+        while (from < to && value.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && value.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        int i = from;
+        if (i < to && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        boolean hex = to - i > 2 && value.charAt(i) == '0' && (value.charAt(i + 1) == 'x' || value.charAt(i + 1) == 'X');
+        if (hex) {
+            i += 2;
+        }
+
+        int integerEnd = digitsEnd(value, i, to, hex);
+        int digits = integerEnd - i;
+        i = integerEnd;
+        if (i < to && value.charAt(i) == '.') {
+            int fractionEnd = digitsEnd(value, i + 1, to, hex);
+            digits += fractionEnd - i - 1;
+            i = fractionEnd;
+        }
+        if (digits == 0) {
+            return false;
+        }
+
+        char exponent = i < to ? value.charAt(i) : 0;
+        if (hex ? exponent == 'p' || exponent == 'P' : exponent == 'e' || exponent == 'E') {
+            i++;
+            if (i < to && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentEnd = digitsEnd(value, i, to, false);
+            if (exponentEnd == i) {
+                return false;
+            }
+            i = exponentEnd;
+        } else if (hex) {
+            return false;
+        }
+        return i == to || i == to - 1 && "fFdD".indexOf(value.charAt(i)) >= 0;
+    }
+
+    private static int digitsEnd(String value, int from, int to, boolean hex) {
+        int i = from;
+        for (; i < to; i++) {
+            char c = value.charAt(i);
+            boolean digit = c >= '0' && c <= '9' || hex && (c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F');
+            if (!digit) {
+                break;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Scans the text as {@link Integer#parseInt} would, without throwing for text it rejects.
+     *
+     * @param value the text
+     * @return true if {@link Integer#parseInt} accepts it
+     */
+    static boolean isWholeNumber(String value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i++;
+        }
+        if (i == length) {
+            return false;
+        }
+        long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long magnitude = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0) {
+                return false;
+            }
+            magnitude = magnitude * 10 + digit;
+            if (magnitude > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Configures a {@link TextRule}. Every check is optional except the null check.
+     */
+    public static final class Builder {
+        private String nullMessage;
+        private String emptyMessage;
+        private String blankMessage;
+        private int maxLength;
+        private String tooLongMessage;
+        private Set<String> allowedValues;
+        private String notAllowedMessage;
+        private CharClass allowedChars;
+        private String invalidCharsMessage;
+        private String notEmailMessage;
+        private String notNumberMessage;
+        private String notWholeNumberMessage;
+
+        Builder() {
+        }
+
+        public Builder whenNull(String message) {
+            this.nullMessage = message;
+            return this;
+        }
+
+        public Builder whenEmpty(String message) {
+            this.emptyMessage = message;
+            return this;
+        }
+
+        /**
+         * @param message the message for text that is empty or only whitespace
+         */
+        public Builder whenBlank(String message) {
+            this.blankMessage = message;
+            return this;
+        }
+
+        public Builder whenLongerThan(int maxLength, String message) {
+            this.maxLength = maxLength;
+            this.tooLongMessage = message;
+            return this;
+        }
+
+        /**
+         * @param allowedValues the only values accepted, compared case-sensitively
+         */
+        public Builder whenNotOneOf(Set<String> allowedValues, String message) {
+            this.allowedValues = Set.copyOf(allowedValues);
+            this.notAllowedMessage = message;
+            return this;
+        }
+
+        public Builder whenContainsOtherThan(CharClass allowedChars, String message) {
+            this.allowedChars = allowedChars;
+            this.invalidCharsMessage = message;
+            return this;
+        }
+
+        public Builder whenNotEmailAddress(String message) {
+            this.notEmailMessage = message;
+            return this;
+        }
+
+        /**
+         * @param message the message for text that is not a finite decimal number
+         */
+        public Builder whenNotNumber(String message) {
+            this.notNumberMessage = message;
+            return this;
+        }
+
+        /**
+         * @param message the message for text that is not an int
+         */
+        public Builder whenNotWholeNumber(String message) {
+            this.notWholeNumberMessage = message;
+            return this;
+        }
+
+        public TextRule build() {
+            if (nullMessage == null) {
+                throw new IllegalStateException("A text rule needs a message for null");
+            }
+            return new TextRule(this);
+        }
+    }
+}
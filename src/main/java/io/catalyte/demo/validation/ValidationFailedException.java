@@ -0,0 +1,65 @@
+package io.catalyte.demo.validation;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A 400 for a request that failed validation, listing each rejected field.
+ * Invalid requests are an expected outcome rather than a fault, so no stack trace is captured,
+ * and the joined reason is only built when it is read.
+ * {@link ValidationProblemHandler} answers it with an RFC 7807 problem.
+ */
+public class ValidationFailedException extends ResponseStatusException {
+
+    private final FieldError[] errors;
+    private final String separator;
+    private String reason;
+
+    /**
+     * @param errors the rejected fields, in the order they were checked; at least one
+     * @param separator joins the messages into the reason, e.g. ", ", or "" for messages
+     *                  that carry their own leading space
+     */
+    public ValidationFailedException(FieldError[] errors, String separator) {
+        super(HttpStatus.BAD_REQUEST);
+        this.errors = errors;
+        this.separator = separator;
+    }
+
+    public List<FieldError> getErrors() {
+        return Arrays.asList(errors);
+    }
+
+    /**
+     * @return the error messages joined as the services reported them before field errors existed
+     */
+    @Override
+    public String getReason() {
+        String joined = reason;
+        if (joined == null) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < errors.length; i++) {
+                if (i > 0) {
+                    builder.append(separator);
+                }
+                builder.append(errors[i].getMessage());
+            }
+            joined = builder.toString();
+            reason = joined;
+        }
+        return joined;
+    }
+
+    @Override
+    public String getMessage() {
+        return getStatusCode() + " \"" + getReason() + "\"";
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,39 @@
+package io.catalyte.demo.validation;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.net.URI;
+
+/**
+ * Answers validation failures with an RFC 7807 problem, application/problem+json, e.g.
+ * {"type":"about:blank","title":"Validation failed","status":400,"detail":"Title field is empty",
+ * "instance":"/movies","errors":[{"field":"title","message":"Title field is empty"}]}
+ * Other errors keep the default error response.
+ */
+@RestControllerAdvice
+public class ValidationProblemHandler {
+
+    static final String TITLE = "Validation failed";
+
+    /**
+     * @param exception the failed validation
+     * @param request the rejected request
+     * @return the problem, with one entry in errors per rejected field
+     */
+    @ExceptionHandler(ValidationFailedException.class)
+    public ResponseEntity<ProblemDetail> handleValidationFailed(ValidationFailedException exception,
+                                                                HttpServletRequest request) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(exception.getStatusCode(), exception.getReason());
+        problem.setTitle(TITLE);
+        problem.setInstance(URI.create(request.getRequestURI()));
+        problem.setProperty("errors", exception.getErrors());
+        return ResponseEntity.status(exception.getStatusCode())
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problem);
+    }
+}
@@ -1,11 +1,13 @@
 package io.catalyte.demo;
 
 import io.catalyte.demo.customer.*;
+import io.catalyte.demo.fields.SparseFieldsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -15,6 +17,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,6 +28,12 @@ public class CustomerServiceImplTest {
     @Mock
     CustomerRepository customerRepository;
 
+    @Mock
+    SparseFieldsRepository sparseFieldsRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     CustomerValidator customerValidator;
 
     Customer testCustomer;
@@ -34,7 +43,7 @@ public class CustomerServiceImplTest {
 
     @BeforeEach
     public void setUp() {
-        customerService = new CustomerServiceImpl(customerRepository);
+        customerService = new CustomerServiceImpl(customerRepository, sparseFieldsRepository, eventPublisher);
         testCustomer = new Customer(1, true, "Customer Name",
                 "customer.name@email.com", 5000.0);
         testCustomerToEdit = new Customer (1,false, "Customer Name To Edit",
@@ -128,7 +137,7 @@ public void testValidateCustomer_MultipleErrors() {
 
     @Test
     public void createCustomer_withValidCustomer_returnsPersistedCustomer() {
-        when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(testCustomer);
         Customer result = customerService.createCustomer(testCustomer);
         assertEquals("Customer Name", result.getName(), "Customer was invalid");
     }
@@ -140,9 +149,19 @@ public void testValidateCustomer_MultipleErrors() {
         assertThrows(ResponseStatusException.class, () -> customerService.createCustomer(testCustomer), "Product was saved.");
     }
 
+    @Test
+    public void createCustomer_withDuplicateName_throwsError() {
+        when(customerRepository.existsByNameKey("customer name")).thenReturn(true);
+
+        ResponseStatusException result = assertThrows(ResponseStatusException.class, () -> customerService.createCustomer(testCustomer));
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals(" Customer with matching name already exists.", result.getReason());
+    }
+
     @Test
     public void createCustomer_withValidCustomer_createsCustomerSinceField() {
-        when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenReturn(testCustomer);
         Customer result = customerService.createCustomer(testCustomer);
         assertFalse(result.getCustomerSince().isEmpty() && result.getCustomerSince() == null);
     }
@@ -150,11 +169,24 @@ public void testValidateCustomer_MultipleErrors() {
     @Test
     public void editCustomer_whenCustomerIdIsValid_shouldReturnObject() {
         when(customerRepository.findById(1)).thenReturn(Optional.of(testCustomer));
-        when(customerRepository.save(testCustomerToEdit)).thenReturn(testCustomerToEdit);
+        when(customerRepository.saveAndFlush(testCustomerToEdit)).thenReturn(testCustomerToEdit);
         Customer editedCustomer = customerService.editCustomer(testCustomerToEdit, 1);
         assertEquals(testCustomerToEdit.getName(), editedCustomer.getName());
     }
 
+    @Test
+    public void editCustomer_withNameOfAnotherCustomer_throwsError() {
+        when(customerRepository.findById(1)).thenReturn(Optional.of(testCustomer));
+        when(customerRepository.existsByNameKeyAndIdNot("customer name to edit", 1)).thenReturn(true);
+
+        ResponseStatusException result = assertThrows(ResponseStatusException.class,
+                () -> customerService.editCustomer(testCustomerToEdit, 1));
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals(" Customer with matching name already exists.", result.getReason());
+        verify(customerRepository, never()).saveAndFlush(any(Customer.class));
+    }
+
     @Test
     public void editCustomer_whenCustomerIdIsNotValid_shouldReturn404Error() {
         int invalidID = 25; // Assuming this customer ID does not exist
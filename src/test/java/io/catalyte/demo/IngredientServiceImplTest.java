@@ -1,5 +1,6 @@
 package io.catalyte.demo;
 
+import io.catalyte.demo.fields.SparseFieldsRepository;
 import io.catalyte.demo.ingredient.Ingredient;
 import io.catalyte.demo.ingredient.IngredientRepository;
 import io.catalyte.demo.ingredient.IngredientService;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -28,6 +30,12 @@ public class IngredientServiceImplTest {
     @Mock
     IngredientRepository ingredientRepository;
 
+    @Mock
+    SparseFieldsRepository sparseFieldsRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     Ingredient testIngredient;
     Ingredient testIngredient2;
 
@@ -38,7 +46,7 @@ public class IngredientServiceImplTest {
                 "Gluten"
         );
 
-        ingredientService = new IngredientServiceImpl(ingredientRepository);
+        ingredientService = new IngredientServiceImpl(ingredientRepository, sparseFieldsRepository, eventPublisher);
         testIngredient = new Ingredient(1,true,"Test Ingredient", BigDecimal.valueOf(15.50),BigDecimal.valueOf(10.50),"lb", sampleAllergenList);
         testIngredient2 = new Ingredient(2,true,"Test Ingredient 2", BigDecimal.valueOf(20.99), BigDecimal.valueOf(2),"oz", sampleAllergenList);
     }
@@ -0,0 +1,30 @@
+package io.catalyte.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonConfigTest {
+
+    ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+            .withUserConfiguration(JsonConfig.class);
+
+    @Test
+    public void objectMapper_byDefault_usesReflection() {
+        contextRunner.run(context -> assertFalse(context.getBean(ObjectMapper.class)
+                .getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId())));
+    }
+
+    @Test
+    public void objectMapper_withBlackbirdEnabled_registersBlackbird() {
+        contextRunner.withPropertyValues("json.blackbird-enabled=true")
+                .run(context -> assertTrue(context.getBean(ObjectMapper.class)
+                        .getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId())));
+    }
+}
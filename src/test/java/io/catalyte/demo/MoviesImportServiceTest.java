@@ -0,0 +1,109 @@
+package io.catalyte.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.bulk.MoviesImportReport;
+import io.catalyte.demo.movies.bulk.MoviesImportService;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MoviesImportServiceTest {
+    MoviesImportService moviesImportService;
+
+    @Mock
+    MoviesRepository moviesRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        moviesImportService = new MoviesImportService(moviesRepository, new ObjectMapper(), eventPublisher,
+                transactionManager);
+    }
+
+    private InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void importMovies_withJsonArray_savesValidRowsAndReportsInvalidOnes() throws IOException {
+        when(moviesRepository.findExistingTitles(anyCollection())).thenReturn(List.of("Up"));
+
+        MoviesImportReport report = moviesImportService.importMovies(body("["
+                + "{\"title\":\"Inside Out\",\"genre\":\"Family\",\"director\":\"Pete Docter\",\"dailyRentalCost\":\"5.99\"},"
+                + "{\"title\":\"\",\"genre\":\"Family\",\"director\":\"Pete Docter\",\"dailyRentalCost\":\"5.99\"},"
+                + "{\"title\":\"Up\",\"genre\":\"Family\",\"director\":\"Pete Docter\",\"dailyRentalCost\":\"4.99\"},"
+                + "{\"title\":\"Inside Out\",\"genre\":\"Family\",\"director\":\"Pete Docter\",\"dailyRentalCost\":\"5.99\"}"
+                + "]"));
+
+        assertEquals(4, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getErrors().size());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals(List.of("Title field is empty"), report.getErrors().get(0).getErrors());
+        assertEquals(3, report.getErrors().get(1).getRow());
+        assertEquals(List.of("Movies with this title already exists"), report.getErrors().get(1).getErrors());
+        assertEquals(4, report.getErrors().get(2).getRow());
+
+        ArgumentCaptor<List<Movies>> saved = ArgumentCaptor.forClass(List.class);
+        verify(moviesRepository).saveAllAndFlush(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("Inside Out", saved.getValue().get(0).getTitle());
+    }
+
+    @Test
+    public void importMovies_withNdjson_ignoresClientIds() throws IOException {
+        when(moviesRepository.findExistingTitles(anyCollection())).thenReturn(List.of());
+
+        MoviesImportReport report = moviesImportService.importMovies(body(
+                "{\"id\":7,\"title\":\"Coco\",\"genre\":\"Family\",\"director\":\"Lee Unkrich\",\"dailyRentalCost\":\"3.99\"}\n"
+                + "{\"id\":8,\"title\":\"Soul\",\"genre\":\"Family\",\"director\":\"Pete Docter\",\"dailyRentalCost\":\"3.99\"}\n"));
+
+        assertEquals(2, report.getImported());
+        assertTrue(report.getErrors().isEmpty());
+        verify(moviesRepository).saveAllAndFlush(argThat(movies -> {
+            for (Movies movie : movies) {
+                if (movie.getId() != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }));
+    }
+
+    @Test
+    public void importMovies_withMalformedRow_stopsAndReportsRow() throws IOException {
+        when(moviesRepository.findExistingTitles(anyCollection())).thenReturn(List.of());
+
+        MoviesImportReport report = moviesImportService.importMovies(body(
+                "{\"title\":\"Coco\",\"genre\":\"Family\",\"director\":\"Lee Unkrich\",\"dailyRentalCost\":\"3.99\"}\n"
+                + "{\"title\":\n"));
+
+        assertEquals(2, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getErrors().get(0).getRow());
+    }
+}
@@ -1,24 +1,44 @@
 package io.catalyte.demo;
 
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.fields.SparseFieldsRepository;
+import io.catalyte.demo.movies.MoviesPage;
+import io.catalyte.demo.movies.MoviesBatch;
+import io.catalyte.demo.movies.MoviesPageToken;
+import io.catalyte.demo.movies.MoviesPatch;
+import io.catalyte.demo.movies.MoviesPatchResult;
+import io.catalyte.demo.movies.MoviesPreviousRow;
 import io.catalyte.demo.movies.MoviesServiceImpl;
 import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.MoviesSortField;
 import io.catalyte.demo.movies.moviesEntity.Movies;
+import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +51,12 @@ class MoviesServiceImplTests {
 	@Mock
 	MoviesRepository moviesRepository;
 
+	@Mock
+	ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	SparseFieldsRepository sparseFieldsRepository;
+
 	Movies testMovies;
 	Movies testMovies2;
 	Movies testMoviesToEdit;
@@ -81,6 +107,78 @@ class MoviesServiceImplTests {
 		assertEquals(expectedMovies, movies);
 	}
 
+	@Test
+	public void getMoviesPage_withMoreRows_returnsNextPageToken() {
+		when(moviesRepository.findPageAfter(eq(MoviesSortField.TITLE), eq(false), isNull(), eq(2)))
+				.thenReturn(Arrays.asList(testMovies, testMovies2));
+
+		MoviesPage<Movies> page = moviesService.getMoviesPage("title", null, null, 1);
+
+		assertEquals(List.of(testMovies), page.getMovies());
+		MoviesPageToken token = MoviesPageToken.decode(page.getNextPageToken());
+		assertEquals(MoviesSortField.TITLE, token.getSort());
+		assertEquals(testMovies.getId(), token.getLastId());
+		assertEquals(testMovies.getTitle(), token.getLastValue());
+	}
+
+	@Test
+	public void getMoviesPage_withPageToken_seeksPastLastRow() {
+		String pageToken = new MoviesPageToken(MoviesSortField.DAILY_RENTAL_COST, true, 1, "16.25").encode();
+		when(moviesRepository.findPageAfter(eq(MoviesSortField.DAILY_RENTAL_COST), eq(true),
+				argThat(after -> after.getLastId() == 1 && after.getLastValue().equals("16.25")), eq(51)))
+				.thenReturn(List.of(testMovies2));
+
+		MoviesPage<Movies> page = moviesService.getMoviesPage(null, null, pageToken, null);
+
+		assertEquals(List.of(testMovies2), page.getMovies());
+		assertNull(page.getNextPageToken());
+	}
+
+	@Test
+	public void getMoviesPage_withFields_selectsFieldsAndSortColumn() {
+		Tuple first = mock(Tuple.class);
+		when(first.get("id")).thenReturn(1);
+		when(first.get("id", Integer.class)).thenReturn(1);
+		when(first.get("director")).thenReturn("William Shakespeare");
+		when(first.get("title")).thenReturn("Movies Inc.");
+		when(moviesRepository.findPageAfter(eq(MoviesSortField.TITLE), eq(false), isNull(), eq(2),
+				eq(Set.of("id", "director", "title")))).thenReturn(List.of(first, mock(Tuple.class)));
+
+		MoviesPage<?> page = moviesService.getMoviesPage("title", null, null, 1, "director");
+
+		assertEquals(List.of(Map.of("id", 1, "director", "William Shakespeare")), page.getMovies());
+		assertEquals("Movies Inc.", MoviesPageToken.decode(page.getNextPageToken()).getLastValue());
+	}
+
+	@Test
+	public void getMoviesPage_withInvalidToken_returnsBadRequest() {
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+				() -> moviesService.getMoviesPage(null, null, "not-a-token", null));
+
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+		assertEquals("Invalid page token", exception.getReason());
+	}
+
+	@Test
+	public void getMoviesPage_withNonNumericCostInToken_returnsBadRequest() {
+		String pageToken = new MoviesPageToken(MoviesSortField.DAILY_RENTAL_COST, false, 5, "abc").encode();
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+				() -> moviesService.getMoviesPage(null, null, pageToken, null));
+
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+		assertEquals("Invalid page token", exception.getReason());
+		verifyNoInteractions(moviesRepository);
+	}
+
+	@Test
+	public void getMoviesPage_withUnknownSort_returnsBadRequest() {
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+				() -> moviesService.getMoviesPage("rating", null, null, null));
+
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+	}
+
 	@Test
 	public void getMovieById_withValidId_returnsMovie() {
 		when(moviesRepository.findById(1)).thenReturn(Optional.of(testMovies));
@@ -90,6 +188,86 @@ class MoviesServiceImplTests {
 		assertEquals(testMovies, result, "Movie title mismatch");
 	}
 
+	@Test
+	public void getMovieById_calledTwice_readsRepositoryOnce() {
+		when(moviesRepository.findById(1)).thenReturn(Optional.of(testMovies));
+
+		moviesService.getMoviesById(1);
+		Movies result = moviesService.getMoviesById(1);
+
+		assertEquals(testMovies.getTitle(), result.getTitle());
+		verify(moviesRepository, times(1)).findById(1);
+		assertEquals(1, moviesService.getCacheStats().getHits());
+	}
+
+	@Test
+	public void getMoviesByIds_returnsMoviesInRequestOrderWithMissingIds() {
+		Movies other = new Movies("Other", "Drama", "Jane Doe", new BigDecimal("2.50"));
+		other.setId(2);
+		when(moviesRepository.findAllByIdIn(any())).thenReturn(List.of(testMovies, other));
+
+		MoviesBatch result = moviesService.getMoviesByIds(List.of(2, 7, 1, 2));
+
+		assertEquals(List.of(other, testMovies), result.getMovies());
+		assertEquals(List.of(7), result.getMissingIds());
+		verify(moviesRepository).findAllByIdIn(new Integer[]{2, 7, 1});
+	}
+
+	@Test
+	public void getMoviesByIds_withCachedMovie_readsOnlyMisses() {
+		when(moviesRepository.findById(1)).thenReturn(Optional.of(testMovies));
+		moviesService.getMoviesById(1);
+		when(moviesRepository.findAllByIdIn(any())).thenReturn(List.of());
+
+		MoviesBatch result = moviesService.getMoviesByIds(List.of(1, 3));
+
+		assertEquals(1, result.getMovies().size());
+		assertEquals(testMovies.getTitle(), result.getMovies().get(0).getTitle());
+		verify(moviesRepository).findAllByIdIn(new Integer[]{3});
+	}
+
+	@Test
+	public void getMoviesByIds_withTooManyIds_throwsBadRequest() {
+		List<Integer> ids = new ArrayList<>();
+		for (int id = 1; id <= 501; id++) {
+			ids.add(id);
+		}
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+			moviesService.getMoviesByIds(ids);
+		});
+
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+		assertThrows(ResponseStatusException.class, () -> moviesService.getMoviesByIds(List.of()));
+	}
+
+	private MoviesPreviousRow previousRow(Movies movie, int version) {
+		return new MoviesPreviousRow() {
+			public String getTitle() { return movie.getTitle(); }
+			public String getGenre() { return movie.getGenre(); }
+			public String getDirector() { return movie.getDirector(); }
+			public BigDecimal getCost() { return movie.getDailyRentalCost(); }
+			public Integer getVersion() { return version; }
+			public Integer getPreviousVersion() { return movie.getVersion(); }
+		};
+	}
+
+	private void stubUpdate(int id, Integer version, Optional<MoviesPreviousRow> result) {
+		when(moviesRepository.updateIfVersionMatches(eq(id), eq(version), any(), any(), any(), any())).thenReturn(result);
+	}
+
+	@Test
+	public void getMovieById_afterEdit_readsUpdatedMovie() {
+		when(moviesRepository.findById(2)).thenReturn(Optional.of(testMovies2)).thenReturn(Optional.of(testMoviesToEdit));
+		stubUpdate(2, null, Optional.of(previousRow(testMovies2, 1)));
+
+		moviesService.getMoviesById(2);
+		moviesService.editMovie(testMoviesToEdit, 2);
+		Movies result = moviesService.getMoviesById(2);
+
+		assertEquals(testMoviesToEdit, result);
+	}
+
 	@Test
 	public void getMoviesById_withInvalidId_returnsError() {
 		int invalidId = 2;
@@ -105,13 +283,23 @@ class MoviesServiceImplTests {
 
 	@Test
 	public void createMovie_validInputs_returnsCreatedMovie() {
-		when(moviesRepository.save(any(Movies.class))).thenReturn(testMovies);
+		when(moviesRepository.saveAndFlush(any(Movies.class))).thenReturn(testMovies);
 
 		Movies result = moviesService.createMovie(testMovies);
 
 		assertEquals(testMovies.getTitle(), result.getTitle());
 	}
 
+	@Test
+	public void createMovie_validInputs_publishesCreatedEvent() {
+		when(moviesRepository.saveAndFlush(any(Movies.class))).thenReturn(testMovies);
+
+		moviesService.createMovie(testMovies);
+
+		verify(eventPublisher).publishEvent(argThat((InventoryChangeEvent<?> event) ->
+				event.getType() == InventoryChangeEvent.Type.CREATED && event.getEntity() == testMovies));
+	}
+
 	@Test
 	public void createMovie_invalidInputs_throwsException() {
 		Movies invalidMovie = new Movies("", "", "", null);
@@ -123,17 +311,29 @@ class MoviesServiceImplTests {
 		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode(), "Expected BAD_REQUEST status");
 	}
 
+	@Test
+	public void createMovie_withDuplicateTitle_throwsConflict() {
+		when(moviesRepository.existsByTitle(testMovies.getTitle())).thenReturn(true);
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+			moviesService.createMovie(testMovies);
+		});
+
+		assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+		assertEquals("Movies with this title already exists", exception.getReason());
+		verify(moviesRepository, never()).saveAndFlush(any(Movies.class));
+	}
+
 	@Test
 	public void createMovie_unexpectedServerError() {
-		when(moviesRepository.save(any(Movies.class))).thenThrow(RuntimeException.class);
+		when(moviesRepository.saveAndFlush(any(Movies.class))).thenThrow(RuntimeException.class);
 
 		assertThrows(RuntimeException.class, () -> moviesService.createMovie(testMovies));
 	}
 
 	@Test
 	public void editMovie_whenMovieIdIsValid_shouldReturnUpdatedMovie() {
-		when(moviesRepository.findById(1)).thenReturn(Optional.of(testMovies));
-		when(moviesRepository.save(any(Movies.class))).thenReturn(testMoviesToEdit);
+		stubUpdate(1, null, Optional.of(previousRow(testMovies, 1)));
 
 		Movies editedMovies = moviesService.editMovie(testMoviesToEdit, 1);
 
@@ -141,12 +341,56 @@ class MoviesServiceImplTests {
 		assertEquals(testMoviesToEdit.getGenre(), editedMovies.getGenre());
 		assertEquals(testMoviesToEdit.getDirector(), editedMovies.getDirector());
 		assertEquals(testMoviesToEdit.getDailyRentalCost(), editedMovies.getDailyRentalCost());
+		assertEquals(1, editedMovies.getVersion());
+		verify(moviesRepository, never()).findById(anyInt());
+	}
+
+	@Test
+	public void editMovie_whenTitleIndexRejectsTakenTitle_throwsConflict() {
+		when(moviesRepository.updateIfVersionMatches(eq(1), isNull(), any(), any(), any(), any())).thenThrow(
+				new DataIntegrityViolationException("duplicate key",
+						new SQLException("duplicate key value violates unique constraint", "23505")));
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+				() -> moviesService.editMovie(testMoviesToEdit, 1));
+
+		assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+		assertEquals("Movies with this title already exists", exception.getReason());
+	}
+
+	@Test
+	public void editMovie_withStaleVersion_throwsConflict() {
+		testMoviesToEdit.setVersion(3);
+		stubUpdate(1, 3, Optional.empty());
+		when(moviesRepository.existsById(1)).thenReturn(true);
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+			moviesService.editMovie(testMoviesToEdit, 1);
+		});
+
+		assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	@Test
+	public void editMovie_publishesUpdatedEventWithPreviousValues() {
+		stubUpdate(1, null, Optional.of(previousRow(testMovies, 1)));
+
+		moviesService.editMovie(testMoviesToEdit, 1);
+
+		verify(eventPublisher).publishEvent(argThat((InventoryChangeEvent<Movies> event) ->
+				event.getType() == InventoryChangeEvent.Type.UPDATED
+						&& event.getEntity() == testMoviesToEdit
+						&& event.getPrevious().getTitle().equals("Movies Inc.")
+						&& event.getPrevious().getVersion() == null
+						&& event.getEntity().getVersion() == 1
+						&& event.getPrevious() != testMovies));
 	}
 
 	@Test
 	public void editMovie_whenMovieIdIsNotValid_shouldThrow404Exception() {
 		int invalidMovieId = 999;
-		when(moviesRepository.findById(invalidMovieId)).thenReturn(Optional.empty());
+		stubUpdate(invalidMovieId, null, Optional.empty());
 
 		ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
 			moviesService.editMovie(testMoviesToEdit, invalidMovieId);
@@ -156,21 +400,105 @@ class MoviesServiceImplTests {
 		assertEquals("404 NOT_FOUND \"The movie was not found\"", exception.getMessage());
 	}
 
+	@Test
+	public void editMovie_withInvalidBodyForMissingId_shouldThrow404Exception() {
+		testMoviesToEdit.setTitle("");
+		when(moviesRepository.existsById(999)).thenReturn(false);
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+				() -> moviesService.editMovie(testMoviesToEdit, 999));
+
+		assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+		verify(moviesRepository, never()).updateIfVersionMatches(anyInt(), any(), any(), any(), any(), any());
+	}
+
+	@Test
+	public void editMovie_withInvalidBodyForExistingId_shouldThrow400Exception() {
+		testMoviesToEdit.setTitle("");
+		when(moviesRepository.existsById(2)).thenReturn(true);
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+				() -> moviesService.editMovie(testMoviesToEdit, 2));
+
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+		verify(moviesRepository, never()).updateIfVersionMatches(anyInt(), any(), any(), any(), any(), any());
+	}
+
+	@Test
+	public void patchMovie_withCostOnly_validatesAndWritesOnlyCost() {
+		MoviesPatch patch = new MoviesPatch();
+		patch.setDailyRentalCost(new BigDecimal("4.99"));
+		Movies patched = new Movies("Movies Inc.", "Sci-fi", "William Shakespeare", new BigDecimal("4.99"));
+		patched.setId(1);
+		patched.setVersion(1);
+		when(moviesRepository.patchIfVersionMatches(1, patch)).thenReturn(Optional.of(new MoviesPatchResult(patched, testMovies)));
+
+		Movies result = moviesService.patchMovie(patch, 1);
+
+		assertEquals(patched, result);
+		verify(eventPublisher).publishEvent(argThat((InventoryChangeEvent<Movies> event) ->
+				event.getEntity() == patched && event.getPrevious() == testMovies));
+	}
+
+	@Test
+	public void patchMovie_withInvalidField_throwsBadRequest() {
+		MoviesPatch patch = new MoviesPatch();
+		patch.setDailyRentalCost(new BigDecimal("25.00"));
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+			moviesService.patchMovie(patch, 1);
+		});
+
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+		assertEquals("Daily rental cost exceeds the maximum allowed value of 19.99", exception.getReason());
+		verifyNoInteractions(moviesRepository);
+	}
+
+	@Test
+	public void patchMovie_withoutKnownFields_throwsBadRequest() {
+		MoviesPatch patch = new MoviesPatch();
+		patch.setUnknownField("titel", "Sleep");
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+			moviesService.patchMovie(patch, 1);
+		});
+
+		assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+		assertEquals("Unknown fields: titel", exception.getReason());
+		assertThrows(ResponseStatusException.class, () -> moviesService.patchMovie(new MoviesPatch(), 1));
+	}
+
+	@Test
+	public void patchMovie_withStaleVersion_throwsConflict() {
+		MoviesPatch patch = new MoviesPatch();
+		patch.setGenre("Drama");
+		patch.setVersion(4);
+		when(moviesRepository.patchIfVersionMatches(1, patch)).thenReturn(Optional.empty());
+		when(moviesRepository.existsById(1)).thenReturn(true);
+
+		ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> {
+			moviesService.patchMovie(patch, 1);
+		});
+
+		assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+	}
+
 	@Test
 	public void deleteMovie_withValidId_deletesMovie() {
 		int id = testMovies.getId();
-		when(moviesRepository.findById(id)).thenReturn(Optional.of(testMovies));
-		doNothing().when(moviesRepository).deleteById(id);
+		when(moviesRepository.deleteIfVersionMatches(id, null)).thenReturn(Optional.of(previousRow(testMovies, 0)));
 
 		moviesService.deleteMovieById(id);
 
-		verify(moviesRepository, times(1)).deleteById(id);
+		verify(moviesRepository, times(1)).deleteIfVersionMatches(id, null);
+		verify(eventPublisher).publishEvent(argThat((InventoryChangeEvent<?> event) ->
+				event.getType() == InventoryChangeEvent.Type.DELETED && event.getId() == id));
 	}
 
 	@Test
 	public void deleteMovie_withInvalidId_throwsResponseStatusException() {
 		int invalidId = 200;
-		when(moviesRepository.findById(invalidId)).thenReturn(Optional.empty());
+		when(moviesRepository.deleteIfVersionMatches(invalidId, null)).thenReturn(Optional.empty());
 
 		ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
 			moviesService.deleteMovieById(invalidId);
@@ -179,4 +507,16 @@ class MoviesServiceImplTests {
 		assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode(), "Expected NOT_FOUND status");
 		assertEquals("Movie with matching id could not be found.", e.getReason(), "Expected error message mismatch");
 	}
+
+	@Test
+	public void deleteMovie_withStaleVersion_throwsConflict() {
+		when(moviesRepository.deleteIfVersionMatches(1, 2)).thenReturn(Optional.empty());
+		when(moviesRepository.existsById(1)).thenReturn(true);
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> {
+			moviesService.deleteMovieById(1, 2);
+		});
+
+		assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+	}
 }
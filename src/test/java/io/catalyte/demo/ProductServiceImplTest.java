@@ -1,5 +1,7 @@
 package io.catalyte.demo;
 
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.fields.SparseFieldsRepository;
 import io.catalyte.demo.products.Product;
 import io.catalyte.demo.products.ProductRepository;
 import io.catalyte.demo.products.ProductService;
@@ -9,15 +11,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +35,12 @@ public class ProductServiceImplTest {
     @Mock
     ProductRepository productRepository;
 
+    @Mock
+    SparseFieldsRepository sparseFieldsRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     Product testProduct;
     Product testProduct1;
     Product testProduct2;
@@ -47,7 +61,7 @@ public class ProductServiceImplTest {
                 "Soy"
         );
 
-        productService = new ProductServiceImpl(productRepository);
+        productService = new ProductServiceImpl(productRepository, sparseFieldsRepository, eventPublisher);
         testProduct = new Product(1, true, "SampleDescription",
                 "TestName", "5", sampleIngredientList,
                 "Drink", "Coffee", "5.0", sampleAllergenList, "5.0", "5.0");
@@ -64,13 +78,42 @@ public class ProductServiceImplTest {
                 "Drink", "Coffee", "5.0", sampleAllergenList, "5.0", "5.0");
     }
 
+    @Test
+    public void getProducts_withFields_readsOnlySelectedFields() {
+        List<Map<String, Object>> rows = List.of(Map.of("id", 1, "name", "TestName"));
+        when(sparseFieldsRepository.findAll(eq(Product.class),
+                argThat(selection -> selection.getFields().equals(List.of("id", "name"))),
+                anyMap())).thenReturn(rows);
+
+        assertEquals(rows, productService.getProducts("name"));
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    public void getProducts_withoutFields_returnsWholeProducts() {
+        when(productRepository.findAll()).thenReturn(List.of(testProduct));
+
+        assertEquals(List.of(testProduct), productService.getProducts(null));
+        verifyNoInteractions(sparseFieldsRepository);
+    }
+
     @Test
     public void createProduct_withValidProduct_returnsPersistedProduct() {
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(testProduct);
         Product result = productService.createProduct(testProduct);
         assertEquals("TestName", result.getName(), "Product was Invalid");
     }
 
+    @Test
+    public void deleteProduct_withValidId_publishesDeletedEvent() {
+        when(productRepository.findById(1)).thenReturn(Optional.of(testProduct));
+
+        productService.deleteProductById(1);
+
+        verify(eventPublisher).publishEvent(argThat((InventoryChangeEvent<Product> event) ->
+                event.getType() == InventoryChangeEvent.Type.DELETED && event.getId() == 1));
+    }
+
     @Test
     public void createProduct_withInvalidProduct_throwsError() {
         testProduct.setName("");
@@ -80,12 +123,28 @@ public class ProductServiceImplTest {
 
     @Test
     public void createProduct_withDuplicateProduct_throwsError() {
-        List<Product> sampleProductList = Arrays.asList(
-                testProduct,
-                testProduct
-        );
-        when(productRepository.findAll()).thenReturn(sampleProductList);
-        assertThrows(ResponseStatusException.class, () -> productService.createProduct(testProduct));
+        when(productRepository.existsByNameKey("testname")).thenReturn(true);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> productService.createProduct(testProduct));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verify(productRepository, never()).saveAndFlush(any(Product.class));
+    }
+
+    @Test
+    public void createProduct_withNameInAnotherCase_checksTheSameNameKey() {
+        testProduct.setName("TESTNAME");
+        when(productRepository.existsByNameKey("testname")).thenReturn(true);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> productService.createProduct(testProduct));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertEquals("Product with matching name already exists.", exception.getReason());
+    }
+
+    @Test
+    public void createProduct_whenUniqueIndexRejectsConcurrentDuplicate_throwsConflict() {
+        when(productRepository.saveAndFlush(any(Product.class))).thenThrow(new DataIntegrityViolationException(
+                "duplicate key", new SQLException("duplicate key value violates unique constraint", "23505")));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> productService.createProduct(testProduct));
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertEquals("Product with matching name already exists.", exception.getReason());
     }
 
     @Test
@@ -148,7 +207,7 @@ public class ProductServiceImplTest {
     @Test
     public void editProduct_whenProductIdIsValid_shouldReturnObject() {
         when(productRepository.findById(1)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(testProductToEdit)).thenReturn(testProductToEdit);
+        when(productRepository.saveAndFlush(testProductToEdit)).thenReturn(testProductToEdit);
         Product editedProduct = productService.editProduct(testProductToEdit, 1);
         assertEquals(testProductToEdit.getDescription(), editedProduct.getDescription());
     }
@@ -157,7 +216,7 @@ public class ProductServiceImplTest {
     public void editProduct_whenTryingToUpdateId_shouldDefaultToPathId() {
         int id = testProduct.getId();
         when(productRepository.findById(id)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(testProductToEdit)).thenReturn(testProductToEdit);
+        when(productRepository.saveAndFlush(testProductToEdit)).thenReturn(testProductToEdit);
         testProductToEdit.setId(25);
         Product editedProduct = productService.editProduct(testProductToEdit, id);
         assertEquals(id, editedProduct.getId());
@@ -184,10 +243,7 @@ public class ProductServiceImplTest {
 
     @Test
     public void editProduct_withDuplicateName_throwsConflictException() {
-        List<Product> sampleProducts = Arrays.asList(testProduct, new Product(2, true, "SampleDescription2",
-                "EditedName", "5", Arrays.asList("Ingredient 3"), "Drink", "Coffee", "5.0",
-                Arrays.asList("Dairy"), "5.0", "5.0"));
-        when(productRepository.findAll()).thenReturn(sampleProducts);
+        when(productRepository.existsByNameKeyAndIdNot("editedname", testProduct.getId())).thenReturn(true);
         when(productRepository.findById(testProduct.getId())).thenReturn(Optional.of(testProduct));
 
         ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> productService.editProduct(testProductToEdit, testProductToEdit.getId()));
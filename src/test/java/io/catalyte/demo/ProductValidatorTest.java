@@ -1,6 +1,9 @@
 package io.catalyte.demo;
 
+import io.catalyte.demo.codes.Allergen;
 import io.catalyte.demo.products.Product;
+import io.catalyte.demo.products.ProductClassification;
+import io.catalyte.demo.products.ProductType;
 import io.catalyte.demo.products.ProductValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +11,7 @@ import org.mockito.Mock;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -369,22 +373,48 @@ public class ProductValidatorTest {
     }
 
     @Test
-    public void isUniqueProduct_withDuplicateProduct_returnsError() {
-        List<Product> sampleProductList = Arrays.asList(
-                testDrinkProduct,
-                testDrinkProduct
-        );
-        String err = productValidator.isUniqueProduct(testDrinkProduct.getName(), sampleProductList);
-        assertEquals("Product with matching name already exists.", err, "Product is unique.");
+    public void formatProduct_withBakedGoodProduct_storesCentsAndBasisPoints() {
+        testBakedGoodProduct.setCost("4.2");
+        testBakedGoodProduct.setMarkup("25");
+
+        Product result = productValidator.formatProduct(testBakedGoodProduct);
+
+        assertEquals(420L, result.getCostCents());
+        assertEquals(2500L, result.getMarkupBasisPoints());
+        assertEquals(525L, result.getSalePriceCents());
+        assertEquals("4.20", result.getCost());
+        assertEquals("25", result.getMarkup());
+        assertEquals("5.25", result.getSalePrice());
     }
 
     @Test
-    public void isUniqueProduct_withUniqueProduct_returnsEmptyString() {
-        List<Product> sampleProductList = Arrays.asList(
-                testDrinkProduct,
-                testDrinkProduct
-        );
-        String err = productValidator.isUniqueProduct(testBakedGoodProduct.getName(), sampleProductList);
-        assertEquals("", err, "Product is not unique.");
+    public void formatProduct_withDrinkProduct_sellsAtCost() {
+        Product result = productValidator.formatProduct(testDrinkProduct);
+
+        assertNull(result.getMarkupBasisPoints());
+        assertEquals(result.getCostCents(), result.getSalePriceCents());
+        assertEquals("5.00", result.getSalePrice());
+    }
+
+    @Test
+    public void formatProduct_storesCodesAndShowsTheirLabels() {
+        testBakedGoodProduct.setAllergenList(Arrays.asList("Nuts", "Dairy"));
+
+        Product result = productValidator.formatProduct(testBakedGoodProduct);
+
+        assertEquals(ProductClassification.BAKED_GOOD, result.getClassificationCode());
+        assertEquals(ProductType.NOT_APPLICABLE, result.getTypeCode());
+        assertEquals(EnumSet.of(Allergen.DAIRY, Allergen.NUTS), result.getAllergenSet());
+        assertEquals("n/a", result.getType());
+        assertEquals(List.of("Dairy", "Nuts"), result.getAllergenList());
+    }
+
+    @Test
+    public void validateProduct_withNonFiniteOrHugeCost_returnsError() {
+        testDrinkProduct.setCost("NaN");
+        assertEquals(" Cost must be a number.", productValidator.validateProduct(testDrinkProduct));
+
+        testDrinkProduct.setCost("1e300");
+        assertEquals(" Sale Price is too large.", productValidator.validateProduct(testDrinkProduct));
     }
 }
@@ -0,0 +1,48 @@
+package io.catalyte.demo;
+
+import io.catalyte.demo.uniqueness.UniqueKeyGuard;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UniqueKeyGuardTest {
+    UniqueKeyGuard uniqueKeyGuard = new UniqueKeyGuard();
+
+    @Test
+    public void normalize_withMixedCase_returnsLowerCase() {
+        assertEquals("iced latte", UniqueKeyGuard.normalize("Iced LATTE"));
+        assertNull(UniqueKeyGuard.normalize(null));
+    }
+
+    @Test
+    public void save_withoutViolation_returnsSaveResult() {
+        String result = uniqueKeyGuard.save(() -> "saved", HttpStatus.CONFLICT, "Duplicate");
+        assertEquals("saved", result);
+    }
+
+    @Test
+    public void save_withUniqueViolation_throwsConflictStatus() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("duplicate key",
+                new RuntimeException(new SQLException("duplicate key value violates unique constraint", "23505")));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () ->
+                uniqueKeyGuard.save(() -> { throw violation; }, HttpStatus.CONFLICT, "Duplicate"));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        assertEquals("Duplicate", exception.getReason());
+    }
+
+    @Test
+    public void save_withOtherIntegrityViolation_rethrows() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new SQLException("null value in column violates not-null constraint", "23502"));
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                uniqueKeyGuard.save(() -> { throw violation; }, HttpStatus.CONFLICT, "Duplicate"));
+    }
+}
@@ -0,0 +1,150 @@
+package io.catalyte.demo.changes;
+
+import io.catalyte.demo.customer.CustomerRepository;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.ingredient.IngredientRepository;
+import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import io.catalyte.demo.products.Product;
+import io.catalyte.demo.products.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangesServiceTest {
+
+    @Mock
+    InventoryChangeRepository inventoryChangeRepository;
+
+    @Mock
+    MoviesRepository moviesRepository;
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    CustomerRepository customerRepository;
+
+    @Mock
+    IngredientRepository ingredientRepository;
+
+    @Mock
+    InventoryEventStream inventoryEventStream;
+
+    InventoryChangeSequencer inventoryChangeSequencer;
+    ChangesService changesService;
+
+    @BeforeEach
+    public void setUp() {
+        inventoryChangeSequencer = new InventoryChangeSequencer(inventoryEventStream, event -> { });
+        changesService = new ChangesService(inventoryChangeRepository, inventoryChangeSequencer, moviesRepository,
+                productRepository, customerRepository, ingredientRepository);
+    }
+
+    private static InventoryChange change(long seq, String domain, int id, InventoryChangeEvent.Type type) {
+        InventoryChange change = new InventoryChange(domain, id, type);
+        ReflectionTestUtils.setField(change, "seq", seq);
+        return change;
+    }
+
+    @Test
+    public void getChanges_withoutToken_returnsLatestToken() {
+        when(inventoryChangeRepository.findLatestSeq()).thenReturn(42L);
+
+        InventoryChanges changes = changesService.getChanges(null, null);
+
+        assertEquals("42", changes.getNextToken());
+        assertTrue(changes.getChanges().isEmpty());
+        verify(inventoryChangeRepository, never())
+                .findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    public void getChanges_loadsChangedEntitiesOncePerDomain() {
+        Movies movie = new Movies("Up", "Family", "Pete Docter", new BigDecimal("2.50"));
+        movie.setId(3);
+        when(inventoryChangeRepository.findLatestSeq()).thenReturn(12L);
+        when(inventoryChangeRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(9L, 12L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(
+                change(10, "movies", 3, InventoryChangeEvent.Type.UPDATED),
+                change(11, "products", 5, InventoryChangeEvent.Type.DELETED)));
+        when(moviesRepository.findAllById(List.of(3))).thenReturn(List.of(movie));
+
+        InventoryChanges changes = changesService.getChanges("9", 2);
+
+        assertEquals("11", changes.getNextToken());
+        assertFalse(changes.isHasMore());
+        assertEquals(2, changes.getChanges().size());
+        assertSame(movie, changes.getChanges().get(0).getEntity());
+        assertEquals("products", changes.getChanges().get(1).getDomain());
+        assertNull(changes.getChanges().get(1).getEntity());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void getChanges_withMoreThanLimit_returnsHasMore() {
+        when(inventoryChangeRepository.findLatestSeq()).thenReturn(12L);
+        when(inventoryChangeRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(0L, 12L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(
+                change(4, "ingredients", 1, InventoryChangeEvent.Type.DELETED),
+                change(7, "ingredients", 2, InventoryChangeEvent.Type.DELETED)));
+
+        InventoryChanges changes = changesService.getChanges("0", 1);
+
+        assertEquals(1, changes.getChanges().size());
+        assertEquals("4", changes.getNextToken());
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    public void getChanges_whileLowerChangeIsBeingWritten_stopsBelowIt() {
+        InventoryChangeSequencer.Ticket writing = inventoryChangeSequencer.begin();
+        inventoryChangeSequencer.allocated(writing, List.of(8L));
+        InventoryChangeSequencer.Ticket committed = inventoryChangeSequencer.begin();
+        inventoryChangeSequencer.allocated(committed, List.of(9L));
+        inventoryChangeSequencer.complete(committed, Map.of(9L,
+                new InventoryChangeEntry("movies", 4, InventoryChangeEvent.Type.CREATED, null)));
+        when(inventoryChangeRepository.findLatestSeq()).thenReturn(9L);
+        when(inventoryChangeRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(5L, 7L, PageRequest.of(0, 101)))
+                .thenReturn(List.of(change(6, "ingredients", 1, InventoryChangeEvent.Type.DELETED)));
+
+        InventoryChanges changes = changesService.getChanges("5", null);
+
+        assertEquals("6", changes.getNextToken());
+        assertEquals("7", changesService.getChanges(null, null).getNextToken());
+        verifyNoInteractions(inventoryEventStream);
+    }
+
+    @Test
+    public void getChanges_withTokenAheadOfLog_returnsGone() {
+        when(inventoryChangeRepository.findLatestSeq()).thenReturn(null);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> changesService.getChanges("15", null));
+
+        assertEquals(HttpStatus.GONE, exception.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST,
+                assertThrows(ResponseStatusException.class, () -> changesService.getChanges("abc", null)).getStatusCode());
+    }
+
+    @Test
+    public void domainOf_namesLoggedDomains() {
+        assertEquals("products", changesService.domainOf(Product.class));
+        assertNull(changesService.domainOf(String.class));
+    }
+}
@@ -0,0 +1,90 @@
+package io.catalyte.demo.changes;
+
+import io.catalyte.demo.events.InventoryChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryChangeSequencerTest {
+
+    @Mock
+    InventoryEventStream inventoryEventStream;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    InventoryChangeSequencer sequencer;
+
+    @BeforeEach
+    public void setUp() {
+        sequencer = new InventoryChangeSequencer(inventoryEventStream, eventPublisher);
+    }
+
+    private static InventoryChangeEntry entry(int id) {
+        return new InventoryChangeEntry("movies", id, InventoryChangeEvent.Type.UPDATED, null);
+    }
+
+    @Test
+    public void complete_whenHigherNumberCommitsFirst_streamsInNumberOrder() {
+        InventoryChangeSequencer.Ticket first = sequencer.begin();
+        sequencer.allocated(first, List.of(1L));
+        InventoryChangeSequencer.Ticket second = sequencer.begin();
+        sequencer.allocated(second, List.of(2L, 3L));
+
+        sequencer.complete(second, Map.of(2L, entry(2), 3L, entry(3)));
+        verifyNoInteractions(inventoryEventStream);
+        assertEquals(0, sequencer.getVisibleSeq());
+
+        sequencer.complete(first, Map.of(1L, entry(1)));
+        InOrder inOrder = inOrder(inventoryEventStream);
+        inOrder.verify(inventoryEventStream).publish(eq(1L), any());
+        inOrder.verify(inventoryEventStream).publish(eq(2L), any());
+        inOrder.verify(inventoryEventStream).publish(eq(3L), any());
+        assertEquals(Long.MAX_VALUE, sequencer.getVisibleSeq());
+        ArgumentCaptor<InventoryChangeCommittedEvent> committed = ArgumentCaptor.forClass(InventoryChangeCommittedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(committed.capture());
+        assertEquals(List.of(1L, 2L, 3L), committed.getAllValues().stream().map(InventoryChangeCommittedEvent::getSeq).toList());
+        assertEquals(List.of(1, 2, 3), committed.getAllValues().stream().map(event -> event.getChange().getId()).toList());
+    }
+
+    @Test
+    public void complete_whenLowerNumberRollsBack_releasesHigherOnes() {
+        InventoryChangeSequencer.Ticket rolledBack = sequencer.begin();
+        sequencer.allocated(rolledBack, List.of(1L));
+        InventoryChangeSequencer.Ticket committed = sequencer.begin();
+        sequencer.allocated(committed, List.of(2L));
+        sequencer.complete(committed, Map.of(2L, entry(2)));
+
+        sequencer.complete(rolledBack, Map.of());
+
+        verify(inventoryEventStream).publish(eq(2L), any());
+        verify(inventoryEventStream, never()).publish(eq(1L), any());
+    }
+
+    @Test
+    public void getVisibleSeq_beforeNumbersAreDrawn_staysBelowEveryLaterNumber() {
+        InventoryChangeSequencer.Ticket earlier = sequencer.begin();
+        sequencer.allocated(earlier, List.of(5L, 6L));
+        sequencer.complete(earlier, Map.of(5L, entry(5), 6L, entry(6)));
+
+        sequencer.begin();
+
+        assertEquals(6, sequencer.getVisibleSeq());
+        verify(inventoryEventStream, times(2)).publish(anyLong(), any());
+    }
+}
@@ -0,0 +1,100 @@
+package io.catalyte.demo.changes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.catalyte.demo.events.InventoryChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryEventStreamTest {
+
+    InventoryEventStream stream = new InventoryEventStream(new ObjectMapper(), 4, 3, Duration.ofMinutes(1), Runnable::run);
+
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            Set<DataWithMediaType> parts = builder.build();
+            for (DataWithMediaType part : parts) {
+                text.append(part.getData());
+            }
+            sent.add(text.toString());
+        }
+    }
+
+    private void publish(long seq, int id) {
+        stream.publish(seq, new InventoryChangeEntry("movies", id, InventoryChangeEvent.Type.DELETED, null));
+    }
+
+    @Test
+    public void publish_sendsChangeWithSequenceAsId() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter, null);
+
+        publish(7, 3);
+
+        assertEquals(List.of("id:7\nevent:movies\ndata:{\"domain\":\"movies\",\"id\":3,\"type\":\"DELETED\",\"entity\":null}\n\n"),
+                emitter.sent);
+    }
+
+    @Test
+    public void subscribe_withLastEventId_replaysMissedEvents() {
+        publish(1, 1);
+        publish(2, 2);
+        publish(4, 3);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        stream.subscribe(emitter, "2");
+
+        assertEquals(1, emitter.sent.size());
+        assertTrue(emitter.sent.get(0).startsWith("id:4\n"));
+    }
+
+    @Test
+    public void subscribe_withLastEventIdNoLongerKept_sendsResync() {
+        publish(10, 1);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        stream.subscribe(emitter, "5");
+
+        assertEquals(List.of("event:resync\ndata:{\"since\":\"5\"}\n\n"), emitter.sent);
+    }
+
+    @Test
+    public void publish_toSubscriberThatFallsBehind_dropsOnlyThatSubscriber() {
+        List<Runnable> stalled = new ArrayList<>();
+        stream = new InventoryEventStream(new ObjectMapper(), 2, 3, Duration.ofMinutes(1), stalled::add);
+        stream.subscribe(new RecordingEmitter(), null);
+
+        publish(1, 1);
+        publish(2, 2);
+        assertEquals(1, stream.getSubscriberCount());
+        publish(3, 3);
+
+        assertEquals(0, stream.getSubscriberCount());
+        assertEquals(1, stream.getDroppedCount());
+        assertEquals(1, stalled.size());
+    }
+
+    @Test
+    public void subscribe_beyondMaximum_returnsServiceUnavailable() {
+        for (int i = 0; i < 3; i++) {
+            stream.subscribe(new RecordingEmitter(), null);
+        }
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> stream.subscribe(new RecordingEmitter(), null));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+}
@@ -0,0 +1,61 @@
+package io.catalyte.demo.codes;
+
+import io.catalyte.demo.ingredient.UnitOfMeasure;
+import io.catalyte.demo.products.ProductClassification;
+import io.catalyte.demo.products.ProductType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CodesTest {
+
+    @Test
+    public void converter_roundTripsEveryCode() {
+        ProductClassification.Converter classifications = new ProductClassification.Converter();
+        for (ProductClassification classification : ProductClassification.values()) {
+            assertSame(classification, classifications.convertToEntityAttribute(
+                    classifications.convertToDatabaseColumn(classification)));
+        }
+        ProductType.Converter types = new ProductType.Converter();
+        for (ProductType type : ProductType.values()) {
+            assertSame(type, types.convertToEntityAttribute(types.convertToDatabaseColumn(type)));
+        }
+        assertNull(types.convertToDatabaseColumn(null));
+        assertNull(types.convertToEntityAttribute(null));
+    }
+
+    @Test
+    public void fromCode_withUnknownCode_throws() {
+        assertThrows(IllegalArgumentException.class, () -> UnitOfMeasure.CODES.fromCode((short) 99));
+        assertThrows(IllegalArgumentException.class, () -> UnitOfMeasure.CODES.fromCode((short) -1));
+    }
+
+    @Test
+    public void fromLabel_matchesExactly() {
+        assertEquals(ProductClassification.BAKED_GOOD, ProductClassification.CODES.fromLabel("Baked Good"));
+        assertNull(ProductClassification.CODES.fromLabel("baked good"));
+        assertEquals(Set.of("OZ", "ML", "KG", "LB", "TSP", "TBSP", "CUPS"), UnitOfMeasure.CODES.labels());
+    }
+
+    @Test
+    public void allergenMask_roundTripsInDeclarationOrder() {
+        EnumSet<Allergen> allergens = Allergen.setOf(List.of("Nuts", "Dairy", "Nuts"));
+
+        assertEquals(EnumSet.of(Allergen.DAIRY, Allergen.NUTS), allergens);
+        assertEquals((short) 0b1001, Allergen.toMask(allergens));
+        assertEquals(allergens, Allergen.fromMask((short) 0b1001));
+        assertEquals(List.of("Dairy", "Nuts"), Allergen.labels(allergens));
+        assertEquals(EnumSet.noneOf(Allergen.class), Allergen.fromMask((short) 0));
+        assertNull(Allergen.toMask(null));
+    }
+
+    @Test
+    public void allergenMask_withUnknownBitOrLabel_throws() {
+        assertThrows(IllegalArgumentException.class, () -> Allergen.fromMask((short) 0b10000));
+        assertThrows(IllegalArgumentException.class, () -> Allergen.setOf(List.of("Peanuts")));
+    }
+}
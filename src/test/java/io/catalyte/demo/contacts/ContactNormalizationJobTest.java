@@ -0,0 +1,101 @@
+package io.catalyte.demo.contacts;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.catalyte.demo.movies.moviesEntity.Address;
+import io.catalyte.demo.movies.moviesEntity.Contact;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactNormalizationJobTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    ContactNormalizationJob job = new ContactNormalizationJob(objectMapper);
+
+    @Test
+    public void run_normalizesEveryRecordInChunks() {
+        List<SupplierContact> records = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Contact contact = new Contact();
+            contact.setPhone(i % 2 == 0 ? "(555) 123-4567" : "555-123-4567");
+            contact.setEmail("buyer" + i + "@example.com");
+            Address address = new Address();
+            address.setState("CA");
+            address.setZipCode("90210");
+            records.add(new SupplierContact(contact, address));
+        }
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        ContactNormalizationReport report = job.run(records.iterator(), chunk -> chunkSizes.add(chunk.size()));
+
+        assertEquals(List.of(1000, 1000, 500), chunkSizes);
+        assertEquals(2500, report.getReceived());
+        assertEquals(1250, report.getChanged());
+        assertTrue(records.stream().allMatch(r -> r.getContact().getPhone().equals("555-123-4567")));
+    }
+
+    @Test
+    public void normalize_writesRecordsThenReport() throws Exception {
+        String body = "{\"contact\": {\"email\": \"Jane@Example.com\"}, \"address\": {\"state\": \"texas\"}}\n"
+                + "{\"contact\": null, \"address\": {\"zipCode\": \"2134\"}}\n";
+
+        List<JsonNode> lines = normalize(body);
+
+        assertEquals(3, lines.size());
+        assertEquals("jane@example.com", lines.get(0).at("/contact/email").asText());
+        assertEquals("TX", lines.get(0).at("/address/state").asText());
+        assertEquals("02134", lines.get(1).at("/address/zipCode").asText());
+        assertEquals(2, lines.get(2).get("received").asInt());
+        assertEquals(2, lines.get(2).get("changed").asInt());
+        assertTrue(lines.get(2).get("error").isNull());
+    }
+
+    @Test
+    public void normalize_writesEachChunkBeforeReadingTheNext() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            body.append("{\"contact\": {\"phone\": \"5551234567\"}}\n");
+        }
+        List<Integer> writtenAtFlush = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                writtenAtFlush.add(toString(StandardCharsets.UTF_8).split("\n").length);
+            }
+        };
+
+        job.normalize(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8))).writeTo(out);
+
+        assertEquals(List.of(1000, 1500), writtenAtFlush);
+    }
+
+    @Test
+    public void normalize_withMalformedRow_reportsRowAfterEarlierRecords() throws Exception {
+        String body = "{\"contact\": {\"email\": \"A@B.com\"}}\n{\"contact\": {\"phone\": }\n";
+
+        List<JsonNode> lines = normalize(body);
+
+        assertEquals(2, lines.size());
+        assertEquals("a@b.com", lines.get(0).at("/contact/email").asText());
+        assertEquals(1, lines.get(1).get("received").asInt());
+        assertTrue(lines.get(1).get("error").asText().startsWith("Row 2 could not be parsed"),
+                lines.get(1).get("error").asText());
+    }
+
+    private List<JsonNode> normalize(String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        job.normalize(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))).writeTo(out);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,131 @@
+package io.catalyte.demo.dryrun;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.catalyte.demo.fields.SparseFieldsRepository;
+import io.catalyte.demo.movies.MoviesRepository;
+import io.catalyte.demo.movies.MoviesServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DryRunValidatorTest {
+    private static final String MOVIE = "{\"title\":\"%s\",\"genre\":\"Family\",\"director\":\"Pete Docter\",\"dailyRentalCost\":\"5.99\"}";
+
+    final ObjectMapper objectMapper = new ObjectMapper();
+    DryRunValidator dryRunValidator;
+
+    @Mock
+    MoviesRepository moviesRepository;
+
+    @Mock
+    SparseFieldsRepository sparseFieldsRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    DryRun<?> moviesDryRun;
+
+    @BeforeEach
+    public void setUp() {
+        dryRunValidator = new DryRunValidator(objectMapper);
+        moviesDryRun = new MoviesServiceImpl(moviesRepository, eventPublisher, sparseFieldsRepository).getDryRun();
+    }
+
+    private List<JsonNode> validate(String body, MediaType contentType) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dryRunValidator.validate(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType, moviesDryRun)
+                .writeTo(out);
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    @Test
+    public void validate_withJsonArray_reportsEveryRowWithoutSaving() throws IOException {
+        when(moviesRepository.findExistingTitles(anyCollection())).thenReturn(List.of("Up"));
+
+        List<JsonNode> results = validate("[" + String.format(MOVIE, "Inside Out") + "," + String.format(MOVIE, "")
+                + "," + String.format(MOVIE, "Up") + "," + String.format(MOVIE, "Inside Out") + "]",
+                MediaType.APPLICATION_JSON);
+
+        assertEquals(4, results.size());
+        assertEquals(1, results.get(0).get("row").asInt());
+        assertTrue(results.get(0).get("valid").asBoolean());
+        assertEquals(0, results.get(0).get("errors").size());
+        assertFalse(results.get(1).get("valid").asBoolean());
+        assertEquals("title", results.get(1).get("errors").get(0).get("field").asText());
+        assertEquals("Title field is empty", results.get(1).get("errors").get(0).get("message").asText());
+        assertEquals("Movies with this title already exists", results.get(2).get("errors").get(0).get("message").asText());
+        assertEquals("Movies with this title already exists", results.get(3).get("errors").get(0).get("message").asText());
+        verify(moviesRepository, never()).save(any());
+        verify(moviesRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void validate_withNdjson_keepsCheckingAfterAMalformedLine() throws IOException {
+        when(moviesRepository.findExistingTitles(anyCollection())).thenReturn(List.of());
+
+        List<JsonNode> results = validate(String.format(MOVIE, "Coco") + "\n{\"title\":\n\n"
+                + String.format(MOVIE, "Soul") + "\nnull\n", MediaType.APPLICATION_NDJSON);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).get("valid").asBoolean());
+        assertEquals(2, results.get(1).get("row").asInt());
+        assertTrue(results.get(1).get("errors").get(0).get("message").asText().startsWith("Row could not be parsed: "));
+        assertEquals(3, results.get(2).get("row").asInt());
+        assertTrue(results.get(2).get("valid").asBoolean());
+        assertEquals("Row is empty", results.get(3).get("errors").get(0).get("message").asText());
+    }
+
+    @Test
+    public void validate_acrossChunks_queriesOncePerChunkAndFindsEarlierDuplicates() throws IOException {
+        when(moviesRepository.findExistingTitles(anyCollection())).thenReturn(List.of());
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < DryRunValidator.CHUNK_SIZE; i++) {
+            body.append(String.format(MOVIE, title(i))).append('\n');
+        }
+        body.append(String.format(MOVIE, title(0))).append('\n');
+
+        List<JsonNode> results = validate(body.toString(), MediaType.APPLICATION_NDJSON);
+
+        assertEquals(DryRunValidator.CHUNK_SIZE + 1, results.size());
+        assertTrue(results.get(DryRunValidator.CHUNK_SIZE - 1).get("valid").asBoolean());
+        assertFalse(results.get(DryRunValidator.CHUNK_SIZE).get("valid").asBoolean());
+        verify(moviesRepository, times(2)).findExistingTitles(anyCollection());
+    }
+
+    @Test
+    public void validate_withMalformedJsonArray_stopsAtTheMalformedRow() throws IOException {
+        when(moviesRepository.findExistingTitles(anyCollection())).thenReturn(List.of());
+
+        List<JsonNode> results = validate("[" + String.format(MOVIE, "Coco") + ",{\"title\": ]", MediaType.APPLICATION_JSON);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).get("valid").asBoolean());
+        assertTrue(results.get(1).get("errors").get(0).get("message").asText().startsWith("Row could not be parsed: "));
+    }
+
+    private static String title(int i) {
+        // Titles may not contain digits
+        return "Movie " + (char) ('a' + i % 26) + (char) ('a' + i / 26 % 26) + (char) ('a' + i / 676);
+    }
+}
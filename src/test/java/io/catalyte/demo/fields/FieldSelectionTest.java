@@ -0,0 +1,36 @@
+package io.catalyte.demo.fields;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldSelectionTest {
+
+    List<String> available = List.of("id", "title", "genre", "director");
+
+    @Test
+    public void parse_returnsFieldsInAvailableOrderWithId() {
+        FieldSelection selection = FieldSelection.parse(" director,title,title ", available);
+
+        assertEquals(List.of("id", "title", "director"), selection.getFields());
+    }
+
+    @Test
+    public void parse_withoutFields_returnsNull() {
+        assertNull(FieldSelection.parse(null, available));
+        assertNull(FieldSelection.parse(" ", available));
+    }
+
+    @Test
+    public void parse_withUnknownField_throwsBadRequest() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> FieldSelection.parse("title,rating", available));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("Unknown fields: rating. Available fields are id, title, genre, director", exception.getReason());
+    }
+}
@@ -0,0 +1,52 @@
+package io.catalyte.demo.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyRoundingTest {
+
+    @Test
+    public void round_matchesParsingTheFormattedAmount() {
+        DecimalFormat df = new DecimalFormat("#.00");
+        double[] amounts = {0, -0.0, -0.001, 0.005, -0.005, 0.125, 0.135, 0.875, 1.005, 2.675, 5, 0.5, -5.5, 9.995,
+                123456.785, 1e13, 1.2345678901235e14, 1e20, Double.MIN_VALUE, Double.MAX_VALUE};
+
+        for (double amount : amounts) {
+            assertEquals(Double.valueOf(df.format(amount)), MoneyRounding.round(amount), String.valueOf(amount));
+        }
+        assertTrue(Double.isNaN(MoneyRounding.round(Double.NaN)));
+        assertEquals(Double.NEGATIVE_INFINITY, MoneyRounding.round(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    public void round_matchesParsingTheFormattedAmountForRandomAmounts() {
+        DecimalFormat df = new DecimalFormat("#.00");
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            double amount = randomAmount(random, i);
+            assertEquals(Double.valueOf(df.format(amount)), MoneyRounding.round(amount), String.valueOf(amount));
+        }
+        assertEquals(-0.0, MoneyRounding.round(-0.001));
+    }
+
+    private static double randomAmount(Random random, int i) {
+        switch (i % 5) {
+            case 0:
+                return random.nextDouble() * 1000;
+            case 1:
+                // Three decimal places, so a third of them sit on a half cent
+                return Double.parseDouble(random.nextInt(100_000) + "." + random.nextInt(1000));
+            case 2:
+                return (random.nextInt(20_000) + 0.5) / 100 * (random.nextBoolean() ? 1 : -1);
+            case 3:
+                return random.nextDouble() * Math.pow(10, random.nextInt(25) - 5);
+            default:
+                return Double.longBitsToDouble(random.nextLong());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.catalyte.demo.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingTest {
+
+    @Test
+    public void parseCents_roundsTheExactDecimalHalfEven() {
+        assertEquals(500, Pricing.parseCents("5"));
+        assertEquals(500, Pricing.parseCents("5."));
+        assertEquals(50, Pricing.parseCents(".5"));
+        assertEquals(-325, Pricing.parseCents("-3.25"));
+        assertEquals(499, Pricing.parseCents("4.994"));
+        assertEquals(500, Pricing.parseCents("4.995"));
+        assertEquals(498, Pricing.parseCents("4.985"));
+        assertEquals(499, Pricing.parseCents("4.98501"));
+        assertEquals(100_000, Pricing.parseCents("1e3"));
+        assertEquals(500, Pricing.parseCents(" 5 "));
+    }
+
+    @Test
+    public void parseCents_withInvalidText_throwsNumberFormatException() {
+        for (String text : new String[] {"", ".", "-", "five", "NaN", "Infinity", "1e300", "5.0.0"}) {
+            assertThrows(NumberFormatException.class, () -> Pricing.parseCents(text), text);
+        }
+    }
+
+    @Test
+    public void salePriceCents_marksUpWithExactRounding() {
+        assertEquals(525, Pricing.salePriceCents(500, 500));
+        assertEquals(125, Pricing.salePriceCents(100, 2500));
+        // 1.05 * 1.5 = 1.575 exactly, which rounds to the even cent
+        assertEquals(158, Pricing.salePriceCents(105, 5000));
+        assertEquals(102, Pricing.salePriceCents(101, 50));
+        assertEquals(-158, Pricing.salePriceCents(-105, 5000));
+        assertEquals(999, Pricing.salePriceCents(999, 0));
+        assertThrows(ArithmeticException.class, () -> Pricing.salePriceCents(Long.MAX_VALUE / 2, 10_000));
+    }
+
+    @Test
+    public void formatCents_matchesTheFormerDecimalFormat() {
+        assertEquals("5.25", Pricing.formatCents(525));
+        assertEquals(".50", Pricing.formatCents(50));
+        assertEquals(".00", Pricing.formatCents(0));
+        assertEquals("-.05", Pricing.formatCents(-5));
+        assertEquals("-3.00", Pricing.formatCents(-300));
+        assertEquals("92233720368547758.07", Pricing.formatCents(Long.MAX_VALUE));
+        DecimalFormat df = new DecimalFormat("#.00");
+        for (long cents = -20_000; cents <= 20_000; cents += 7) {
+            assertEquals(df.format(cents / 100.0), Pricing.formatCents(cents));
+        }
+    }
+
+    @Test
+    public void formatPercent_dropsTrailingZeros() {
+        assertEquals("25", Pricing.formatPercent(2500));
+        assertEquals("12.5", Pricing.formatPercent(1250));
+        assertEquals("0.25", Pricing.formatPercent(25));
+        assertEquals("0", Pricing.formatPercent(0));
+    }
+}
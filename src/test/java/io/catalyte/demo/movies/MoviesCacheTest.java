@@ -0,0 +1,130 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoviesCacheTest {
+    AtomicLong now = new AtomicLong();
+    AtomicInteger loads = new AtomicInteger();
+    MoviesCache cache = new MoviesCache(2, Duration.ofSeconds(10), now::get);
+
+    private Optional<Movies> load(int id) {
+        loads.incrementAndGet();
+        Movies movie = new Movies("Title " + id, "Drama", "Jane Doe", new BigDecimal("2.50"));
+        movie.setId(id);
+        return Optional.of(movie);
+    }
+
+    @Test
+    public void get_afterFirstLoad_returnsCachedMovie() {
+        Movies first = cache.get(1, this::load).orElseThrow();
+        Movies second = cache.get(1, this::load).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals(first.getTitle(), second.getTitle());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    public void get_whenCallerChangesReturnedMovie_keepsCachedMovie() {
+        cache.get(1, this::load).orElseThrow().setTitle("Changed on load");
+        cache.get(1, this::load).orElseThrow().setTitle("Changed on hit");
+        cache.getAll(List.of(1), ids -> List.of()).get(1).setTitle("Changed on batch hit");
+
+        assertEquals("Title 1", cache.get(1, this::load).orElseThrow().getTitle());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void get_whenFull_evictsLeastRecentlyUsed() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load);
+        cache.get(3, this::load);
+
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        assertEquals(4, loads.get());
+        assertEquals(2, cache.getStats().getSize());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    public void get_afterTimeToLive_reloadsMovie() {
+        cache.get(1, this::load);
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    public void invalidate_removesMovie() {
+        cache.get(1, this::load);
+        cache.invalidate(1);
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void get_whenInvalidatedDuringLoad_doesNotCacheLoadedMovie() {
+        cache.get(1, id -> {
+            cache.invalidate(id);
+            return load(id);
+        });
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void get_withMissingMovie_doesNotCache() {
+        assertTrue(cache.get(5, id -> Optional.empty()).isEmpty());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    public void getAll_loadsOnlyMissesInOneCall() {
+        cache.get(1, this::load);
+        List<List<Integer>> calls = new ArrayList<>();
+
+        Map<Integer, Movies> movies = cache.getAll(List.of(1, 2, 3), ids -> {
+            calls.add(ids);
+            return List.of(load(2).orElseThrow());
+        });
+
+        assertEquals(List.of(List.of(2, 3)), calls);
+        assertEquals("Title 1", movies.get(1).getTitle());
+        assertEquals("Title 2", movies.get(2).getTitle());
+        assertFalse(movies.containsKey(3));
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(3, cache.getStats().getMisses());
+    }
+
+    @Test
+    public void getAll_withEveryIdCached_doesNotCallLoader() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        Map<Integer, Movies> movies = cache.getAll(List.of(2, 1), ids -> fail("loader called"));
+
+        assertEquals(2, movies.size());
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,125 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.events.InventoryChangeEvent;
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoviesCatalogVersionTest {
+
+    AtomicLong now = new AtomicLong(1_700_000_000_000L);
+    MoviesCatalogVersion catalogVersion = new MoviesCatalogVersion(now::get);
+
+    @Test
+    public void onMovieChanged_movesCatalogAndMovieForward() {
+        MoviesCatalogVersion.Tag catalogBefore = catalogVersion.getCatalogTag();
+        MoviesCatalogVersion.Tag movieBefore = catalogVersion.getMovieTag(7);
+        MoviesCatalogVersion.Tag otherBefore = catalogVersion.getMovieTag(8);
+
+        now.addAndGet(5_000);
+        catalogVersion.onMovieChanged(InventoryChangeEvent.updated(Movies.class, 7, new Movies(), new Movies()));
+
+        assertNotEquals(catalogBefore.getETag(), catalogVersion.getCatalogTag().getETag());
+        assertEquals(now.get(), catalogVersion.getCatalogTag().getLastModified());
+        assertNotEquals(movieBefore.getETag(), catalogVersion.getMovieTag(7).getETag());
+        assertEquals(now.get(), catalogVersion.getMovieTag(7).getLastModified());
+        assertEquals(otherBefore.getETag(), catalogVersion.getMovieTag(8).getETag());
+        assertEquals(otherBefore.getLastModified(), catalogVersion.getMovieTag(8).getLastModified());
+    }
+
+    @Test
+    public void onMovieChanged_withDelete_dropsTagWithoutReusingAnEarlierOne() {
+        Set<String> eTags = new HashSet<>();
+        eTags.add(catalogVersion.getMovieTag(7).getETag());
+        catalogVersion.onMovieChanged(InventoryChangeEvent.updated(Movies.class, 7, new Movies(), new Movies()));
+        eTags.add(catalogVersion.getMovieTag(7).getETag());
+        String otherBefore = catalogVersion.getMovieTag(8).getETag();
+
+        now.addAndGet(5_000);
+        catalogVersion.onMovieChanged(InventoryChangeEvent.deleted(Movies.class, 7, new Movies()));
+
+        assertEquals(0, catalogVersion.getMovieTagCount());
+        assertFalse(eTags.contains(catalogVersion.getMovieTag(7).getETag()));
+        assertEquals(now.get(), catalogVersion.getMovieTag(7).getLastModified());
+        assertNotEquals(otherBefore, catalogVersion.getMovieTag(8).getETag());
+    }
+
+    @Test
+    public void onMovieChanged_beyondMaximum_keepsTagsBoundedAndNeverReusesOne() {
+        String firstWritten = null;
+        for (int id = 1; id <= MoviesCatalogVersion.MAX_MOVIE_TAGS + 1; id++) {
+            catalogVersion.onMovieChanged(InventoryChangeEvent.created(Movies.class, id, new Movies()));
+            if (id == 1) {
+                firstWritten = catalogVersion.getMovieTag(1).getETag();
+            }
+        }
+
+        assertTrue(catalogVersion.getMovieTagCount() <= MoviesCatalogVersion.MAX_MOVIE_TAGS);
+        assertNotEquals(firstWritten, catalogVersion.getMovieTag(1).getETag());
+    }
+
+    @Test
+    public void checkNotModified_afterTwoWritesInOneSecond_ignoresIfModifiedSince() {
+        now.addAndGet(5_000);
+        catalogVersion.onMovieChanged(InventoryChangeEvent.updated(Movies.class, 7, new Movies(), new Movies()));
+        MoviesCatalogVersion.Tag first = catalogVersion.getMovieTag(7);
+        assertTrue(first.checkNotModified(ifModifiedSince(first)));
+
+        now.addAndGet(300);
+        catalogVersion.onMovieChanged(InventoryChangeEvent.updated(Movies.class, 7, new Movies(), new Movies()));
+        MoviesCatalogVersion.Tag second = catalogVersion.getMovieTag(7);
+
+        // The client read the first version; its If-Modified-Since names the same second as the second write
+        assertFalse(second.checkNotModified(ifModifiedSince(first)));
+        assertFalse(catalogVersion.getCatalogTag().checkNotModified(ifModifiedSince(first)));
+        assertTrue(second.checkNotModified(ifNoneMatch(second)));
+
+        now.addAndGet(2_000);
+        catalogVersion.onMovieChanged(InventoryChangeEvent.updated(Movies.class, 7, new Movies(), new Movies()));
+        MoviesCatalogVersion.Tag third = catalogVersion.getMovieTag(7);
+        assertFalse(third.checkNotModified(ifModifiedSince(second)));
+        assertTrue(third.checkNotModified(ifModifiedSince(third)));
+    }
+
+    private static ServletWebRequest ifModifiedSince(MoviesCatalogVersion.Tag tag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/movies/7");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, tag.getLastModified() / 1000 * 1000);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest ifNoneMatch(MoviesCatalogVersion.Tag tag) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/movies/7");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, tag.getETag());
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    @Test
+    public void getCatalogTag_differsAfterRestart() {
+        String eTag = catalogVersion.getCatalogTag().getETag();
+        now.addAndGet(1);
+
+        assertNotEquals(eTag, new MoviesCatalogVersion(now::get).getCatalogTag().getETag());
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+    }
+
+    @Test
+    public void withVariant_keepsVersionButChangesETag() {
+        MoviesCatalogVersion.Tag tag = catalogVersion.getCatalogTag();
+        MoviesCatalogVersion.Tag idAndTitle = tag.withVariant("id,title");
+
+        assertNotEquals(tag.getETag(), idAndTitle.getETag());
+        assertNotEquals(idAndTitle.getETag(), tag.withVariant("id,genre").getETag());
+        assertEquals(idAndTitle.getETag(), tag.withVariant("id,title").getETag());
+        assertEquals(tag.getLastModified(), idAndTitle.getLastModified());
+        assertTrue(idAndTitle.getETag().matches("\"[^\",]+\""));
+    }
+}
@@ -0,0 +1,84 @@
+package io.catalyte.demo.movies;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MoviesRepositoryCustomImplTest {
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    Query query;
+
+    MoviesRepositoryCustomImpl repository;
+
+    @BeforeEach
+    public void setUp() {
+        repository = new MoviesRepositoryCustomImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @Test
+    public void patchIfVersionMatches_onRowWithoutVersion_returnsNullPreviousVersion() {
+        MoviesPatch patch = new MoviesPatch();
+        patch.setGenre("Comedy");
+        when(entityManager.createNativeQuery(contains("old.version"))).thenReturn(query);
+        when(query.getResultList()).thenReturn(Collections.singletonList(new Object[] {
+                "Sleep", "Comedy", "Lisa Smith", new BigDecimal("4.25"), 1,
+                "Sleep", "Documentary", "Lisa Smith", new BigDecimal("4.25"), null}));
+
+        MoviesPatchResult result = repository.patchIfVersionMatches(2, patch).orElseThrow();
+
+        assertEquals(1, result.getMovie().getVersion());
+        assertEquals("Comedy", result.getMovie().getGenre());
+        assertNull(result.getPrevious().getVersion());
+        assertEquals("Documentary", result.getPrevious().getGenre());
+        verify(query).setParameter("genre", "Comedy");
+        verify(query, never()).setParameter(eq("version"), any());
+    }
+
+    @Test
+    public void patchIfVersionMatches_returnsStoredPreviousVersion() {
+        MoviesPatch patch = new MoviesPatch();
+        patch.setTitle("Awake");
+        patch.setVersion(6);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(Collections.singletonList(new Object[] {
+                "Awake", "Documentary", "Lisa Smith", new BigDecimal("4.25"), 7,
+                "Sleep", "Documentary", "Lisa Smith", new BigDecimal("4.25"), 6}));
+
+        MoviesPatchResult result = repository.patchIfVersionMatches(2, patch).orElseThrow();
+
+        assertEquals(7, result.getMovie().getVersion());
+        assertEquals(6, result.getPrevious().getVersion());
+        assertEquals("Sleep", result.getPrevious().getTitle());
+        verify(query).setParameter("version", 6);
+    }
+
+    @Test
+    public void patchIfVersionMatches_whenNoRowMatches_returnsEmpty() {
+        MoviesPatch patch = new MoviesPatch();
+        patch.setTitle("Awake");
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.getResultList()).thenReturn(Collections.emptyList());
+
+        assertTrue(repository.patchIfVersionMatches(2, patch).isEmpty());
+    }
+}
@@ -0,0 +1,121 @@
+package io.catalyte.demo.movies.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.catalyte.demo.changes.ChangesService;
+import io.catalyte.demo.changes.InventoryChangeRecorder;
+import io.catalyte.demo.changes.InventoryChangeRepository;
+import io.catalyte.demo.changes.InventoryChangeSequencer;
+import io.catalyte.demo.changes.InventoryEventStream;
+import io.catalyte.demo.movies.MoviesRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Counts the change log statements an import runs, on an in-memory H2 database.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "io.catalyte.demo.movies.bulk.MoviesImportChangeLogTest$ChangeLogStatements"
+})
+@Import({MoviesImportService.class, InventoryChangeRecorder.class, InventoryChangeSequencer.class,
+        ChangesService.class, MoviesImportChangeLogTest.Json.class})
+// The import commits its own transactions, so the test must not wrap it in one
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MoviesImportChangeLogTest {
+
+    @Autowired
+    MoviesImportService moviesImportService;
+
+    @Autowired
+    MoviesRepository moviesRepository;
+
+    @Autowired
+    InventoryChangeRepository inventoryChangeRepository;
+
+    @MockBean
+    InventoryEventStream inventoryEventStream;
+
+    @TestConfiguration
+    static class Json {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    /**
+     * Counts the statements prepared against the change log table or its sequence.
+     */
+    public static class ChangeLogStatements implements StatementInspector {
+        static final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase(Locale.ROOT).contains("inventory_changes")) {
+                count.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        inventoryChangeRepository.deleteAll();
+        moviesRepository.deleteAll();
+    }
+
+    private static String title(int i) {
+        StringBuilder title = new StringBuilder("Movie ");
+        do {
+            title.append((char) ('a' + i % 26));
+            i /= 26;
+        } while (i > 0);
+        return title.toString();
+    }
+
+    private static ByteArrayInputStream ndjson(int rows) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"title\":\"").append(title(i))
+                    .append("\",\"genre\":\"Drama\",\"director\":\"Jane Doe\",\"dailyRentalCost\":\"2.99\"}\n");
+        }
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void importMovies_recordsEachChunkWithOneBatch() throws Exception {
+        int chunks = 2;
+        ChangeLogStatements.count.set(0);
+
+        MoviesImportReport report = moviesImportService.importMovies(ndjson(chunks * MoviesImportService.CHUNK_SIZE));
+
+        assertEquals(chunks * MoviesImportService.CHUNK_SIZE, report.getImported());
+        assertEquals(chunks * MoviesImportService.CHUNK_SIZE, inventoryChangeRepository.count());
+        // Per chunk: one delete of earlier changes, and the inserts and sequence calls of 50 rows at a time
+        int perChunk = ChangeLogStatements.count.get() / chunks;
+        assertTrue(perChunk <= 1 + 2 * MoviesImportService.CHUNK_SIZE / 50,
+                "change log statements per chunk: " + perChunk);
+        verify(inventoryEventStream, times(chunks * MoviesImportService.CHUNK_SIZE)).publish(anyLong(), any());
+    }
+}
@@ -0,0 +1,73 @@
+package io.catalyte.demo.movies.export;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoviesColumnarWriterTest {
+
+    @Test
+    public void write_thenRead_returnsSameMoviesAcrossRowGroups() throws IOException {
+        String[] genres = {"Drama", "Comedy", "Sci-fi"};
+        int rows = MoviesColumnarFormat.ROW_GROUP_SIZE * 2 + 17;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        MoviesColumnarWriter writer = new MoviesColumnarWriter(output);
+        for (int i = 0; i < rows; i++) {
+            writer.write("Title " + i, genres[i % 3], "Director " + (i % 50), BigDecimal.valueOf(i % 2000, 2));
+        }
+        writer.close();
+
+        List<Movies> movies = new ArrayList<>();
+        long read = new MoviesColumnarReader().read(new ByteArrayInputStream(output.toByteArray()), movies::add);
+
+        assertEquals(rows, read);
+        for (int i = 0; i < rows; i++) {
+            Movies movie = movies.get(i);
+            assertEquals("Title " + i, movie.getTitle());
+            assertEquals(genres[i % 3], movie.getGenre());
+            assertEquals("Director " + (i % 50), movie.getDirector());
+            assertEquals(BigDecimal.valueOf(i % 2000, 2), movie.getDailyRentalCost());
+        }
+    }
+
+    @Test
+    public void write_withNullValues_readsNullsBack() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        MoviesColumnarWriter writer = new MoviesColumnarWriter(output);
+        writer.write("Untitled", null, null, null);
+        writer.close();
+
+        List<Movies> movies = new ArrayList<>();
+        new MoviesColumnarReader().read(new ByteArrayInputStream(output.toByteArray()), movies::add);
+
+        assertEquals(1, movies.size());
+        assertNull(movies.get(0).getGenre());
+        assertNull(movies.get(0).getDirector());
+        assertNull(movies.get(0).getDailyRentalCost());
+    }
+
+    @Test
+    public void read_withTruncatedExport_throwsError() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        MoviesColumnarWriter writer = new MoviesColumnarWriter(output);
+        for (int i = 0; i < MoviesColumnarFormat.ROW_GROUP_SIZE + 1; i++) {
+            writer.write("Title " + i, "Drama", "Jane Doe", new BigDecimal("1.99"));
+        }
+        writer.close();
+        byte[] bytes = output.toByteArray();
+        byte[] truncated = java.util.Arrays.copyOf(bytes, bytes.length / 2);
+
+        assertThrows(IOException.class, () ->
+                new MoviesColumnarReader().read(new ByteArrayInputStream(truncated), movie -> { }));
+    }
+}
@@ -0,0 +1,61 @@
+package io.catalyte.demo.movies.facets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoviesFacetCountsTest {
+
+    MoviesFacetCounts facetCounts;
+
+    @BeforeEach
+    public void setUp() {
+        facetCounts = new MoviesFacetCounts();
+        facetCounts.add("Family", "Pete Docter", new BigDecimal("1.00"), 2);
+        facetCounts.add("Family", "Lee Unkrich", new BigDecimal("3.50"), 1);
+        facetCounts.add("Drama", "Pete Docter", new BigDecimal("19.99"), 1);
+    }
+
+    @Test
+    public void snapshot_returnsCountsAndCostStatistics() {
+        MoviesFacets facets = facetCounts.snapshot();
+
+        MoviesFacet family = facets.getGenres().get(0);
+        assertEquals("Family", family.getValue());
+        assertEquals(3, family.getCount());
+        assertEquals(new BigDecimal("1.00"), family.getMinDailyRentalCost());
+        assertEquals(new BigDecimal("3.50"), family.getMaxDailyRentalCost());
+        assertEquals(new BigDecimal("1.83"), family.getAvgDailyRentalCost());
+        assertEquals(List.of("Pete Docter", "Lee Unkrich"),
+                facets.getDirectors().stream().map(MoviesFacet::getValue).toList());
+        assertEquals(3, facets.getDirectors().get(0).getCount());
+    }
+
+    @Test
+    public void remove_updatesMinimumAndDropsEmptyGroups() {
+        facetCounts.remove("Family", "Pete Docter", new BigDecimal("1.00"));
+        facetCounts.remove("Family", "Pete Docter", new BigDecimal("1.00"));
+        facetCounts.remove("Drama", "Pete Docter", new BigDecimal("19.99"));
+
+        MoviesFacets facets = facetCounts.snapshot();
+
+        assertEquals(1, facets.getGenres().size());
+        assertEquals(new BigDecimal("3.50"), facets.getGenres().get(0).getMinDailyRentalCost());
+        assertEquals(List.of("Lee Unkrich"), facets.getDirectors().stream().map(MoviesFacet::getValue).toList());
+    }
+
+    @Test
+    public void add_withoutCost_countsMovieWithoutCostStatistics() {
+        facetCounts.add("Horror", "Jane Doe", null, 1);
+
+        MoviesFacet horror = facetCounts.snapshot().getGenres().stream()
+                .filter(facet -> facet.getValue().equals("Horror")).findFirst().orElseThrow();
+
+        assertEquals(1, horror.getCount());
+        assertNull(horror.getAvgDailyRentalCost());
+    }
+}
@@ -0,0 +1,91 @@
+package io.catalyte.demo.movies.moviesEntity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContactNormalizerTest {
+
+    @Test
+    public void formatPhoneNumber_matchesTheRegexItReplaces() {
+        List<String> numbers = List.of("5551234567", "555-123-4567", "555-1234567", "55-51-23-45-67", "(555) 123-4567",
+                "555123456", "55512345678", "5551234567 x12", "call 5551234567 or 5559876543", "", "-", "12-3",
+                "555.123.4567", "1-800-555-1234", "٥٥٥1234567", "12345678901234567890123", "5551234567-5559876543x",
+                "555-123-456x7890123456");
+        for (String number : numbers) {
+            String expected = number.replaceAll("-", "").replaceAll("(\\d{3})(\\d{3})(\\d{4})", "$1-$2-$3");
+            assertEquals(expected, PhoneNumberFormatter.formatPhoneNumber(number), number);
+        }
+    }
+
+    @Test
+    public void normalizePhone_formatsNorthAmericanNumbers() {
+        assertEquals("555-123-4567", ContactNormalizer.normalizePhone("(555) 123-4567"));
+        assertEquals("555-123-4567", ContactNormalizer.normalizePhone("+1 555.123.4567"));
+        assertEquals("555-123-4567", ContactNormalizer.normalizePhone("15551234567"));
+        assertEquals("555 1234", ContactNormalizer.normalizePhone("555 1234"));
+        assertEquals("+44 20 7946 0958", ContactNormalizer.normalizePhone("+44 20 7946 0958"));
+        assertEquals("555-123-4567 ext 2", ContactNormalizer.normalizePhone("555-123-4567 ext 2"));
+        assertEquals("800-555-1234", ContactNormalizer.normalizePhone("1 (800) 555-1234"));
+        assertEquals("255-512-3456", ContactNormalizer.normalizePhone("2555123456"));
+        assertEquals("25551234567", ContactNormalizer.normalizePhone("25551234567"));
+        assertEquals("155512345678", ContactNormalizer.normalizePhone("155512345678"));
+        assertNull(ContactNormalizer.normalizePhone(null));
+
+        String normalized = "555-123-4567";
+        assertSame(normalized, ContactNormalizer.normalizePhone(normalized));
+    }
+
+    @Test
+    public void normalizeEmail_trimsAndLowercases() {
+        assertEquals("jane.doe@example.com", ContactNormalizer.normalizeEmail(" Jane.Doe@Example.COM "));
+        assertEquals("jane@example.com", ContactNormalizer.normalizeEmail("jane@example.com\t"));
+
+        String normalized = "jane@example.com";
+        assertSame(normalized, ContactNormalizer.normalizeEmail(normalized));
+    }
+
+    @Test
+    public void normalizeState_returnsPostalCodes() {
+        assertEquals("NY", ContactNormalizer.normalizeState("new york"));
+        assertEquals("CA", ContactNormalizer.normalizeState(" California "));
+        assertEquals("TX", ContactNormalizer.normalizeState("tx"));
+        assertEquals("DC", ContactNormalizer.normalizeState("District Of Columbia"));
+        assertEquals("Ontario", ContactNormalizer.normalizeState("Ontario"));
+
+        String normalized = "WA";
+        assertSame(normalized, ContactNormalizer.normalizeState(normalized));
+    }
+
+    @Test
+    public void normalizeZipCode_writesFiveOrNineDigits() {
+        assertEquals("12345", ContactNormalizer.normalizeZipCode(" 12345 "));
+        assertEquals("12345-6789", ContactNormalizer.normalizeZipCode("123456789"));
+        assertEquals("12345-6789", ContactNormalizer.normalizeZipCode("12345 6789"));
+        assertEquals("02134", ContactNormalizer.normalizeZipCode("2134"));
+        assertEquals("02134-1234", ContactNormalizer.normalizeZipCode("21341234"));
+        assertEquals("K1A 0B1", ContactNormalizer.normalizeZipCode("K1A 0B1"));
+        assertEquals("123", ContactNormalizer.normalizeZipCode("123"));
+
+        String normalized = "12345-6789";
+        assertSame(normalized, ContactNormalizer.normalizeZipCode(normalized));
+    }
+
+    @Test
+    public void normalize_reportsWhetherAnythingChanged() {
+        Contact contact = new Contact();
+        contact.setPhone("555-123-4567");
+        contact.setEmail("jane@example.com");
+        Address address = new Address();
+        address.setState("Ohio");
+        address.setZipCode("43004");
+
+        assertFalse(ContactNormalizer.normalize(contact));
+        assertTrue(ContactNormalizer.normalize(address));
+        assertEquals("OH", address.getState());
+        assertFalse(ContactNormalizer.normalize(address));
+        assertFalse(ContactNormalizer.normalize((Contact) null));
+    }
+}
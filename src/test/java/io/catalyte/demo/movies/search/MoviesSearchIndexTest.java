@@ -0,0 +1,103 @@
+package io.catalyte.demo.movies.search;
+
+import io.catalyte.demo.movies.moviesEntity.Movies;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoviesSearchIndexTest {
+
+    MoviesSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new MoviesSearchIndex();
+        index.put(movie(1, "The Matrix", "Sci-fi", "Lana Wachowski"));
+        index.put(movie(2, "Matrimony", "Romance", "Jane Doe"));
+        index.put(movie(3, "Bound", "Thriller", "Lana Wachowski"));
+        index.put(movie(4, "Sci-fi Matrix Stories", "Documentary", "John Smith"));
+    }
+
+    private Movies movie(int id, String title, String genre, String director) {
+        Movies movie = new Movies(title, genre, director, new BigDecimal("1.99"));
+        movie.setId(id);
+        return movie;
+    }
+
+    private List<Integer> ids(List<Movies> movies) {
+        return movies.stream().map(Movies::getId).toList();
+    }
+
+    @Test
+    public void search_withPrefix_ranksExactMatchFirst() {
+        List<Movies> results = index.search("matrix", 10);
+
+        assertEquals(List.of(1, 4), ids(results));
+        // Every hit is a prefix match here, so the rarer term ranks first
+        assertEquals(List.of(2, 1, 4), ids(index.search("matri", 10)));
+    }
+
+    @Test
+    public void search_withSeveralTerms_requiresEveryTerm() {
+        assertEquals(List.of(3), ids(index.search("wachowski bou", 10)));
+        assertEquals(List.of(1), ids(index.search("Lana, MATRIX", 10)));
+        assertTrue(index.search("wachowski romance", 10).isEmpty());
+    }
+
+    @Test
+    public void search_titleMatch_ranksAboveGenreMatch() {
+        List<Movies> results = index.search("sci", 10);
+
+        assertEquals(List.of(4, 1), ids(results));
+    }
+
+    @Test
+    public void search_returnsTheIndexedVersion() {
+        Movies edited = movie(3, "Bound", "Thriller", "Lana Wachowski");
+        edited.setVersion(4);
+        index.put(edited);
+
+        assertEquals(4, index.search("bound", 10).get(0).getVersion());
+    }
+
+    @Test
+    public void put_withEditedMovie_replacesOldTerms() {
+        index.put(movie(1, "Speed Racer", "Action", "Lana Wachowski"));
+
+        assertEquals(List.of(4), ids(index.search("matrix", 10)));
+        assertEquals(List.of(1), ids(index.search("racer", 10)));
+        assertEquals("Speed Racer", index.search("racer", 10).get(0).getTitle());
+    }
+
+    @Test
+    public void remove_dropsMovieFromResults() {
+        index.remove(3);
+
+        assertTrue(index.search("bound", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void load_doesNotOverwriteMoviesChangedDuringLoad() {
+        MoviesSearchIndex loading = new MoviesSearchIndex();
+        loading.beginLoad();
+        loading.put(movie(1, "Speed Racer", "Action", "Lana Wachowski"));
+        loading.remove(2);
+
+        loading.load(List.of(movie(1, "The Matrix", "Sci-fi", "Lana Wachowski"),
+                movie(2, "Matrimony", "Romance", "Jane Doe")));
+
+        assertEquals(1, loading.size());
+        assertEquals("Speed Racer", loading.search("lana", 10).get(0).getTitle());
+    }
+
+    @Test
+    public void search_withLimit_returnsBestMatches() {
+        assertEquals(List.of(1), ids(index.search("matrix", 1)));
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+}
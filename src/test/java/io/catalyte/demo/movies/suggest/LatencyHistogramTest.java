@@ -0,0 +1,31 @@
+package io.catalyte.demo.movies.suggest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void getPercentile_isWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p99 >= 99_000 && p99 <= 99_000 * 1.125, "p99 was " + p99);
+        long p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= 50_000 && p50 <= 50_000 * 1.125, "p50 was " + p50);
+    }
+
+    @Test
+    public void bucketOf_roundTripsThroughUpperBound() {
+        for (long nanos : new long[] {0, 7, 8, 15, 16, 17, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucketOf(nanos);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= nanos);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBound(bucket - 1) < nanos);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.catalyte.demo.movies.suggest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleTrieTest {
+
+    TitleTrie trie;
+
+    @BeforeEach
+    public void setUp() {
+        trie = new TitleTrie();
+        trie.put(1, "The Matrix");
+        trie.put(2, "The Matrix Reloaded");
+        trie.put(3, "The Mask");
+        trie.put(4, "Up");
+        trie.put(5, "THE MATRIX");
+    }
+
+    @Test
+    public void suggest_ignoresCase_andKeepsStoredCapitalization() {
+        assertEquals(List.of("The Mask", "The Matrix", "THE MATRIX", "The Matrix Reloaded"),
+                trie.suggest("the ma", 10));
+        assertEquals(List.of("The Matrix", "THE MATRIX", "The Matrix Reloaded"), trie.suggest("THE MATR", 10));
+    }
+
+    @Test
+    public void suggest_withLimit_returnsFirstTitles() {
+        assertEquals(List.of("The Mask", "The Matrix"), trie.suggest("t", 2));
+    }
+
+    @Test
+    public void suggest_withUnknownPrefixOrCharacters_returnsNothing() {
+        assertTrue(trie.suggest("the mo", 10).isEmpty());
+        assertTrue(trie.suggest("the matrix 2", 10).isEmpty());
+        assertTrue(trie.suggest("the matrix reloaded and more", 10).isEmpty());
+    }
+
+    @Test
+    public void put_withEditedTitle_replacesOldTitle() {
+        trie.put(4, "Upside Down");
+
+        assertEquals(List.of("Upside Down"), trie.suggest("up", 10));
+    }
+
+    @Test
+    public void remove_mergesNodesThatNoLongerBranch() {
+        int nodesBefore = trie.getStats().getNodes();
+        trie.remove(3);
+
+        assertEquals(List.of("The Matrix", "THE MATRIX", "The Matrix Reloaded"), trie.suggest("the ma", 10));
+        assertEquals(nodesBefore - 2, trie.getStats().getNodes());
+        assertEquals(4, trie.getStats().getTitles());
+    }
+
+    @Test
+    public void put_withInvalidCharacters_isNotIndexed() {
+        assertFalse(trie.put(6, "Se7en"));
+        assertTrue(trie.suggest("se", 10).isEmpty());
+    }
+
+    @Test
+    public void suggest_matchesSortedScanAfterRandomChanges() {
+        Random random = new Random(42);
+        String alphabet = "abcAB -',.";
+        Map<Integer, String> titles = new HashMap<>();
+        TitleTrie randomTrie = new TitleTrie();
+        for (int step = 0; step < 5000; step++) {
+            int id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                titles.remove(id);
+                randomTrie.remove(id);
+            } else {
+                StringBuilder title = new StringBuilder();
+                int length = 1 + random.nextInt(8);
+                for (int i = 0; i < length; i++) {
+                    title.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                titles.put(id, title.toString());
+                randomTrie.put(id, title.toString());
+            }
+        }
+
+        List<Map.Entry<Integer, String>> sorted = new ArrayList<>(titles.entrySet());
+        sorted.sort(Comparator.<Map.Entry<Integer, String>, String>comparing(e -> e.getValue().toLowerCase(Locale.ROOT))
+                .thenComparing(Map.Entry::getKey));
+        for (String prefix : List.of("", "a", "ab", "B ", "c-'", "a.b")) {
+            List<String> expected = sorted.stream()
+                    .map(Map.Entry::getValue)
+                    .filter(title -> title.toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT)))
+                    .limit(20)
+                    .toList();
+            assertEquals(expected, randomTrie.suggest(prefix, 20), "prefix \"" + prefix + "\"");
+        }
+        assertEquals(titles.size(), randomTrie.getStats().getTitles());
+    }
+}
@@ -0,0 +1,100 @@
+package io.catalyte.demo.products;
+
+import io.catalyte.demo.codes.Allergen;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the statements the product read paths run, on an in-memory H2 database.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class ProductReadQueriesTest {
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    ProductServiceImpl productService;
+    Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        productService = new ProductServiceImpl(productRepository, null, null);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void saveProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = (int) productRepository.count(); i < count; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setIngredientsList(List.of("Flour", "Sugar " + i));
+            product.setCodes(ProductClassification.BAKED_GOOD, ProductType.NOT_APPLICABLE, EnumSet.of(Allergen.GLUTEN));
+            product.setPrices(100, 2500L, 125);
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private long statementsToReadAll() {
+        int ingredients = 0;
+        for (Product product : productService.getProducts()) {
+            ingredients += product.getIngredientsList().size();
+            assertEquals(List.of("Gluten"), product.getAllergenList());
+        }
+        assertEquals(2 * productRepository.count(), ingredients);
+        long statements = statistics.getPrepareStatementCount() - 1; // the count above
+        entityManager.clear();
+        statistics.clear();
+        return statements;
+    }
+
+    @Test
+    public void getProducts_readsIngredientsInTheSameQuery_howeverManyProducts() {
+        saveProducts(3);
+        assertEquals(1, statementsToReadAll());
+
+        saveProducts(60);
+        assertEquals(1, statementsToReadAll());
+    }
+
+    @Test
+    public void getProductById_andByName_readIngredientsInTheSameQuery() {
+        saveProducts(5);
+        int id = productRepository.findAll().get(2).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        assertEquals(2, productService.getProductById(id).getIngredientsList().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        entityManager.clear();
+        statistics.clear();
+        assertEquals(2, productService.getProductByName("product 4").get(0).getIngredientsList().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,135 @@
+package io.catalyte.demo.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RulesTest {
+
+    private static final String EMAIL_REGEX =
+            "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
+    private static final String NAME_REGEX = "[A-Za-z\\s\\-',.]*";
+
+    @Test
+    public void isEmailAddress_matchesTheRegexItReplaces() {
+        List<String> emails = List.of("x@x.xx", "a.b@c.de", "first+last@mail.example.com", "a-b_c&d*e@x-y.org",
+                "x@x.x", "x@x.abcdefgh", "x@x.abcdefg", "@x.com", "x@.com", "x@com", "x.@x.com", ".x@x.com",
+                "x..y@x.com", "x@x..com", "x@x.com.", "x@@x.com", "x@x@x.com", "x@x.c0m", "x y@x.com", "x@x_y.com",
+                "x@x.com\n", "xé@x.com", "x@x.co.uk", "", "@", ".", "a@b.cd.e", "a@b.c1.de", "a@-.de");
+        for (String email : emails) {
+            assertEquals(email.matches(EMAIL_REGEX), TextRule.isEmailAddress(email), email);
+        }
+    }
+
+    @Test
+    public void containsAll_matchesTheRegexItReplaces() {
+        CharClass nameChars = CharClass.of(CharClass.WHITESPACE + "-',.").plusRange('A', 'Z').plusRange('a', 'z');
+        List<String> names = List.of("", "Inside Out", "Family-Comedy", "O'Brien, Jr.", "Tab\tNew\nLine", "R2D2",
+                "Amélie", "Wall·E", "Se7en", "What?", "a_b", " ", "\u000B\f\r");
+        for (String name : names) {
+            assertEquals(name.matches(NAME_REGEX), nameChars.containsAll(name, 0, name.length()), name);
+        }
+    }
+
+    @Test
+    public void isNumber_acceptsFiniteNumbersParseDoubleAccepts() {
+        List<String> values = List.of("5", "5.0", "-5", "+5", ".5", "5.", "1e3", "1E-3", " 5 ", "0x1p3", "NaN",
+                "Infinity", "-Infinity", "1e999", "5d", "5f", "", ".", "-", "5.0.0", "five", "5,0", "1e", "--5",
+                "1.e5", ".e5", "1e+5D", "1e5x", "1ef", "5 d", "- 5", "\t-2.5E-3f\n", "0x", "0x1", "0xp1", "0x.8p1",
+                "-0X1.fP-2d", "0x1.8", "0x1g", "1p3", "abc", "1.0x", "٣", "1\u00A0", "5dd", "e5", "+.5");
+        for (String value : values) {
+            boolean parses;
+            try {
+                parses = Double.isFinite(Double.parseDouble(value));
+            } catch (NumberFormatException e) {
+                parses = false;
+            }
+            assertEquals(parses, TextRule.isNumber(value), value);
+        }
+    }
+
+    @Test
+    public void isWholeNumber_acceptsWhatParseIntAccepts() {
+        List<String> values = List.of("0", "-0", "+7", "42", "007", "2147483647", "2147483648", "-2147483648",
+                "-2147483649", "99999999999", "", "-", "+", "4.0", "4e1", " 4", "fifty", "٣", "1_000", "--1");
+        for (String value : values) {
+            boolean parses;
+            try {
+                Integer.parseInt(value);
+                parses = true;
+            } catch (NumberFormatException e) {
+                parses = false;
+            }
+            assertEquals(parses, TextRule.isWholeNumber(value), value);
+        }
+    }
+
+    @Test
+    public void text_reportsOnlyTheFirstFailingCheck() {
+        TextRule rule = Rules.text()
+                .whenNull("null")
+                .whenBlank("blank")
+                .whenLongerThan(3, "long")
+                .whenNotOneOf(Set.of("ab", "abc"), "not allowed")
+                .build();
+
+        assertEquals("null", rule.check(null));
+        assertEquals("blank", rule.check("  "));
+        assertEquals("long", rule.check("  xyz"));
+        assertEquals("not allowed", rule.check("xyz"));
+        assertNull(rule.check("abc"));
+    }
+
+    @Test
+    public void validate_withPassingValue_returnsSharedEmptyArray() {
+        RuleSet<String> rules = RuleSet.of(Rules.notNull("is null"), Rules.when(v -> v != null, Rules.text()
+                .whenNull("unused").whenEmpty("is empty").build()));
+
+        assertSame(RuleSet.NO_ERRORS, rules.validate("value"));
+        assertEquals("", rules.concatenate("value"));
+        assertArrayEquals(new String[] {"is empty"}, rules.validate(""));
+        assertArrayEquals(new String[] {"is null"}, rules.validate(null));
+    }
+
+    @Test
+    public void concatenate_joinsMessagesInRuleOrder() {
+        RuleSet<String> rules = RuleSet.of(value -> " First.", value -> null, value -> " Third.");
+
+        assertEquals(" First. Third.", rules.concatenate("value"));
+        assertArrayEquals(new String[] {" First.", " Third."}, rules.validate("value"));
+    }
+
+    @Test
+    public void elementsOf_rejectsNullAndUnknownElements() {
+        Rule<List<String>> rule = Rules.elementsOf("null list", Set.of("Soy", "Nuts"), "unknown");
+
+        assertEquals("null list", rule.check(null));
+        assertNull(rule.check(new ArrayList<>()));
+        assertNull(rule.check(new LinkedList<>(List.of("Nuts", "Soy"))));
+        assertEquals("unknown", rule.check(Arrays.asList("Soy", null)));
+        assertEquals("unknown", rule.check(List.of("soy")));
+    }
+
+    @Test
+    public void check_reportsEachMessageAgainstItsField() {
+        RuleSet<String> rules = RuleSet.of(
+                Rules.field("name", Rules.text().whenNull("Name is null").whenEmpty("Name is empty").build()),
+                value -> value.isEmpty() ? "Nameless" : null,
+                Rules.field("length", String::length, length -> length > 3 ? "Too long" : null));
+
+        assertSame(RuleSet.NO_FIELD_ERRORS, rules.check("abc"));
+        FieldError[] errors = rules.check("");
+        assertEquals(2, errors.length);
+        assertEquals("name", errors[0].getField());
+        assertEquals("Name is empty", errors[0].getMessage());
+        assertNull(errors[1].getField());
+        assertEquals("Nameless", errors[1].getMessage());
+        assertEquals("length: Too long", rules.check("abcd")[0].toString());
+    }
+}
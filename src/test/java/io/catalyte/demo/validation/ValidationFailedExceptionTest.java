@@ -0,0 +1,52 @@
+package io.catalyte.demo.validation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationFailedExceptionTest {
+
+    FieldError[] errors = {
+            new FieldError("title", "Title field is empty"),
+            new FieldError("dailyRentalCost", "Daily rental cost is not a valid decimal number")};
+
+    @Test
+    public void reasonAndMessage_joinTheFieldMessages() {
+        ValidationFailedException exception = new ValidationFailedException(errors, ", ");
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("Title field is empty, Daily rental cost is not a valid decimal number", exception.getReason());
+        assertEquals("400 BAD_REQUEST \"Title field is empty, Daily rental cost is not a valid decimal number\"",
+                exception.getMessage());
+    }
+
+    @Test
+    public void stackTrace_isNotCaptured() {
+        assertEquals(0, new ValidationFailedException(errors, ", ").getStackTrace().length);
+    }
+
+    @Test
+    public void handler_answersProblemJsonWithEachFieldError() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/movies");
+
+        ResponseEntity<ProblemDetail> response = new ValidationProblemHandler()
+                .handleValidationFailed(new ValidationFailedException(errors, ", "), request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+        ProblemDetail problem = response.getBody();
+        assertEquals(400, problem.getStatus());
+        assertEquals("Validation failed", problem.getTitle());
+        assertEquals(URI.create("/movies"), problem.getInstance());
+        assertEquals("Title field is empty, Daily rental cost is not a valid decimal number", problem.getDetail());
+        assertEquals(List.of(errors), problem.getProperties().get("errors"));
+    }
+}